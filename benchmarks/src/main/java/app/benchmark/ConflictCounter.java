@@ -0,0 +1,22 @@
+package app.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reports operations that gave up after exhausting their optimistic lock retries next to the throughput.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class ConflictCounter {
+
+    public long conflicts;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        conflicts = 0;
+    }
+}
@@ -0,0 +1,65 @@
+package app.benchmark;
+
+import app.user.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts users straight through JDBC so that even the largest data set is seeded in seconds. Every user gets an
+ * active default wallet, an unpaid credit due this month and one transaction, so each table holds one row per user.
+ */
+public class DataSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final BigDecimal BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal CREDIT = new BigDecimal("1.00");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<SeededUser> seed(int users) {
+
+        List<SeededUser> seededUsers = new ArrayList<>(users);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        LocalDate nextPaymentOn = LocalDate.now().with(TemporalAdjusters.firstDayOfMonth());
+
+        for (int from = 0; from < users; from += BATCH_SIZE) {
+
+            List<Object[]> userRows = new ArrayList<>();
+            List<Object[]> walletRows = new ArrayList<>();
+            List<Object[]> creditRows = new ArrayList<>();
+            List<Object[]> transactionRows = new ArrayList<>();
+
+            for (int i = from; i < Math.min(from + BATCH_SIZE, users); i++) {
+                UUID userId = UUID.randomUUID();
+                UUID walletId = UUID.randomUUID();
+                String username = "user" + i;
+
+                userRows.add(new Object[]{userId, username, "password", username + "@trusty.wallet", "USER", now, now, true});
+                walletRows.add(new Object[]{walletId, userId, BALANCE, "DEFAULT", "ACTIVE", now, now, 0L});
+                creditRows.add(new Object[]{UUID.randomUUID(), userId, "UNPAID", CREDIT, nextPaymentOn, 0L});
+                transactionRows.add(new Object[]{UUID.randomUUID(), userId, "Trusty Wallet", username, BALANCE, BALANCE, "DEPOSIT", "SUCCEEDED", "MAIN", "Seed", now});
+
+                seededUsers.add(new SeededUser(User.builder().id(userId).username(username).build(), walletId));
+            }
+
+            jdbcTemplate.batchUpdate("insert into user (id, username, password, email, role, created_on, updated_on, is_active) values (?, ?, ?, ?, ?, ?, ?, ?)", userRows);
+            jdbcTemplate.batchUpdate("insert into wallet (id, owner_id, balance, type, status, created_on, updated_on, version) values (?, ?, ?, ?, ?, ?, ?, ?)", walletRows);
+            jdbcTemplate.batchUpdate("insert into credit (id, owner_id, status, amount, next_payment_on, version) values (?, ?, ?, ?, ?, ?)", creditRows);
+            jdbcTemplate.batchUpdate("insert into transaction (id, owner_id, sender, receiver, amount, balance_left, type, status, type_status, description, created_on) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", transactionRows);
+        }
+
+        return seededUsers;
+    }
+}
@@ -0,0 +1,38 @@
+package app.benchmark;
+
+import app.report.service.ReportCounters;
+import app.user.model.User;
+import app.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    private ReportCounters reportCounters;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp(WalletDatabase database) {
+        reportCounters = database.getBean(ReportCounters.class);
+        userService = database.getBean(UserService.class);
+    }
+
+    // The reports themselves only read in-memory counters; rebuilding those counters is what scans the tables.
+    @Benchmark
+    public void reconcileReportCounters() {
+        reportCounters.reconcile();
+    }
+
+    @Benchmark
+    public List<User> getAllUsersWithUnpaidCredit() {
+        return userService.getAllUsersWithUnpaidCredit();
+    }
+}
@@ -0,0 +1,8 @@
+package app.benchmark;
+
+import app.user.model.User;
+
+import java.util.UUID;
+
+public record SeededUser(User user, UUID walletId) {
+}
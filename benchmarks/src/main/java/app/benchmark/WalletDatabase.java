@@ -0,0 +1,54 @@
+package app.benchmark;
+
+import app.Application;
+import app.report.service.ReportCounters;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The application context on an embedded H2 database, seeded once per trial with the given number of users.
+ */
+@State(Scope.Benchmark)
+public class WalletDatabase {
+
+    @Param({"10000", "100000", "1000000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private List<SeededUser> seededUsers;
+
+    @Setup(Level.Trial)
+    public void start() {
+
+        context = new SpringApplicationBuilder(Application.class)
+                .profiles("benchmark")
+                .run();
+
+        seededUsers = new DataSeeder(context.getBean(JdbcTemplate.class)).seed(users);
+        // The seeded rows bypass the services, so the report counters are rebuilt from them like on startup.
+        context.getBean(ReportCounters.class).reconcile();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public SeededUser randomUser() {
+        return seededUsers.get(ThreadLocalRandom.current().nextInt(seededUsers.size()));
+    }
+
+    // Target of the contention scenarios: every thread writes to this user's wallet.
+    public SeededUser hotUser() {
+        return seededUsers.getFirst();
+    }
+}
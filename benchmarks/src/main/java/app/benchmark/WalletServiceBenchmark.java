@@ -0,0 +1,86 @@
+package app.benchmark;
+
+import app.money.Money;
+import app.transaction.model.Transaction;
+import app.wallet.service.WalletService;
+import app.web.dto.TransferRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class WalletServiceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    private WalletService walletService;
+
+    @Setup(Level.Trial)
+    public void setUp(WalletDatabase database) {
+        walletService = database.getBean(WalletService.class);
+    }
+
+    @Benchmark
+    public Transaction makeTransfer(WalletDatabase database) {
+        return transfer(database.randomUser(), database.randomUser());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction makeTransferToHotWallet(WalletDatabase database, ConflictCounter conflictCounter) {
+
+        try {
+            return transfer(database.randomUser(), database.hotUser());
+        } catch (ConcurrencyFailureException e) {
+            conflictCounter.conflicts++;
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Transaction chargeUpWallet(WalletDatabase database) {
+
+        SeededUser user = database.randomUser();
+        return walletService.chargeUpWallet(user.user(), user.walletId(), Money.of(AMOUNT), null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction chargeUpHotWallet(WalletDatabase database, ConflictCounter conflictCounter) {
+
+        SeededUser user = database.hotUser();
+
+        try {
+            return walletService.chargeUpWallet(user.user(), user.walletId(), Money.of(AMOUNT), null);
+        } catch (ConcurrencyFailureException e) {
+            conflictCounter.conflicts++;
+            return null;
+        }
+    }
+
+    // Once a user's credit is paid, further calls for that user measure the "no monthly obligations" path.
+    @Benchmark
+    public Transaction payCredit(WalletDatabase database) {
+
+        SeededUser user = database.randomUser();
+        return walletService.payCredit(user.user(), user.walletId(), null);
+    }
+
+    private Transaction transfer(SeededUser sender, SeededUser receiver) {
+
+        TransferRequest transferRequest = TransferRequest.builder()
+                .sender(sender.walletId())
+                .receiver(receiver.user().getUsername())
+                .amount(AMOUNT)
+                .build();
+
+        return walletService.makeTransfer(sender.user(), transferRequest, null);
+    }
+}
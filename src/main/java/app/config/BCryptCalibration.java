@@ -0,0 +1,63 @@
+package app.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt strength whose hash takes about the target time on this host. Every step of strength doubles the
+ * work, so the hash time at the minimum strength is enough to extrapolate from. It is the median of a few timed
+ * hashes, so one hash slowed down by a GC pause or a busy neighbour does not skew the strength.
+ */
+@Slf4j
+public final class BCryptCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+    private static final int SAMPLES = 5;
+
+    private BCryptCalibration() {
+    }
+
+    public static int calibrate(Duration targetHashTime, int minStrength, int maxStrength) {
+
+        // The first hash also pays for class loading and JIT warm-up, so it is not timed.
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(minStrength));
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(minStrength));
+            samples[i] = System.nanoTime() - start;
+        }
+        long elapsedNanos = Math.max(1, median(samples));
+
+        int strength = strengthFor(targetHashTime.toNanos(), elapsedNanos, minStrength, maxStrength);
+
+        log.info("Calibrated BCrypt strength [%d]: the median hash at strength [%d] took [%d] ms, target is [%d] ms"
+                .formatted(strength, minStrength, elapsedNanos / 1_000_000, targetHashTime.toMillis()));
+        return strength;
+    }
+
+    static long median(long[] samples) {
+
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        return sorted[sorted.length / 2];
+    }
+
+    static int strengthFor(long targetNanos, long minStrengthNanos, int minStrength, int maxStrength) {
+
+        int strength = minStrength;
+        long hashNanos = minStrengthNanos;
+
+        while (strength < maxStrength && hashNanos * 2 <= targetNanos) {
+            hashNanos *= 2;
+            strength++;
+        }
+
+        return strength;
+    }
+}
@@ -1,15 +1,34 @@
 package app.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class BeanConfiguration {
 
+    // A stored hash weaker than the configured strength is rehashed on the owner's next login.
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password.strength:0}") int strength,
+                                                  @Value("${security.password.target-hash-time:PT0.25S}") Duration targetHashTime,
+                                                  @Value("${security.password.min-strength:10}") int minStrength,
+                                                  @Value("${security.password.max-strength:14}") int maxStrength,
+                                                  @Value("${security.password.threads:4}") int threads,
+                                                  @Value("${security.password.queue-capacity:100}") int queueCapacity,
+                                                  @Value("${security.password.timeout-ms:5000}") long timeoutMs,
+                                                  MeterRegistry meterRegistry) {
+
+        int bcryptStrength = strength > 0 ? strength : BCryptCalibration.calibrate(targetHashTime, minStrength, maxStrength);
+
+        Gauge.builder("password.hashing.strength", () -> bcryptStrength)
+                .description("BCrypt strength new password hashes are created with")
+                .register(meterRegistry);
 
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), threads, queueCapacity, timeoutMs, meterRegistry);
     }
 }
@@ -0,0 +1,102 @@
+package app.config;
+
+import app.exception.PasswordHashingOverloadedException;
+import app.exception.PasswordVerificationOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs hashing and verification of the delegate on a small bounded pool instead of the request threads, so a burst
+ * of logins or registrations uses at most that many cores and transfers keep running. When the queue is full the
+ * call is shed with {@link PasswordHashingOverloadedException} instead of piling up behind it; a shed verification
+ * is thrown as {@link PasswordVerificationOverloadedException}, so a login fails like one with bad credentials.
+ * Pool activity is published as executor.* metrics tagged name=passwordHashing.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    public static final String METRICS_NAME = "passwordHashing";
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final long timeoutMs;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMs, MeterRegistry meterRegistry) {
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "password-hashing-" + threadNumber.getAndIncrement()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.delegate = delegate;
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, METRICS_NAME);
+        this.timeoutMs = timeoutMs;
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashing and verification calls shed because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+
+        try {
+            return execute(() -> delegate.matches(rawPassword, encodedPassword));
+        } catch (PasswordHashingOverloadedException e) {
+            throw new PasswordVerificationOverloadedException(e.getMessage(), e);
+        }
+    }
+
+    // Only reads the cost from the stored hash, so it stays on the calling thread.
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Supplier<T> operation) {
+
+        Future<T> future;
+
+        try {
+            future = executor.submit(operation::get);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue is full.");
+            throw new PasswordHashingOverloadedException("Too many sign-ins at the moment, please try again later.");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            // Only dequeues a call that has not started: BCrypt never checks the interrupt, so a running hash keeps
+            // its pool thread until it finishes even though the caller has already been answered.
+            future.cancel(true);
+            throw new PasswordHashingOverloadedException("Too many sign-ins at the moment, please try again later.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password hashing was interrupted.");
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,65 @@
+package app.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded caches with statistics, published as cache metrics through actuator. Only the caches registered here
+ * exist, so a typo in a cache name fails instead of silently creating an unbounded cache.
+ */
+@Configuration
+public class CacheConfiguration {
+
+    public static final String USERS = "users";
+    public static final String USER_SUMMARIES = "userSummaries";
+    public static final String HOME_DASHBOARDS = "homeDashboards";
+    public static final String USER_AUTH_RECORDS = "userAuthRecords";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${users.cache.max-size:10000}") long usersMaxSize,
+                                     @Value("${users.cache.ttl:PT10M}") Duration usersTtl,
+                                     @Value("${users.summaries-cache.ttl:PT1M}") Duration userSummariesTtl,
+                                     @Value("${dashboard.cache.max-size:10000}") long homeDashboardsMaxSize,
+                                     @Value("${dashboard.cache.ttl:PT1M}") Duration homeDashboardsTtl,
+                                     @Value("${users.auth-cache.max-size:10000}") long userAuthRecordsMaxSize,
+                                     @Value("${users.auth-cache.ttl:PT30S}") Duration userAuthRecordsTtl) {
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+        cacheManager.setAllowNullValues(false);
+
+        cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(usersTtl)
+                .recordStats()
+                .build());
+
+        // A single entry holding the whole list, evicted on every user change.
+        cacheManager.registerCustomCache(USER_SUMMARIES, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(userSummariesTtl)
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(HOME_DASHBOARDS, Caffeine.newBuilder()
+                .maximumSize(homeDashboardsMaxSize)
+                .expireAfterWrite(homeDashboardsTtl)
+                .recordStats()
+                .build());
+
+        cacheManager.registerCustomCache(USER_AUTH_RECORDS, Caffeine.newBuilder()
+                .maximumSize(userAuthRecordsMaxSize)
+                .expireAfterWrite(userAuthRecordsTtl)
+                .recordStats()
+                .build());
+
+        return cacheManager;
+    }
+}
@@ -1,5 +1,6 @@
 package app.credit.model;
 
+import app.money.Money;
 import app.user.model.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -7,7 +8,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -17,13 +17,15 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_credit_owner", columnNames = "owner_id"),
+        indexes = @Index(name = "idx_credit_next_payment_on", columnList = "next_payment_on"))
 public class Credit {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @OneToOne
+    @OneToOne(optional = false)
     private User owner;
 
     @Column(nullable = false)
@@ -31,9 +33,12 @@ public class Credit {
     private CreditStatus status;
 
     @Column(nullable = false)
-    private BigDecimal amount;
+    private Money amount;
 
     private LocalDateTime payedOn;
 
     private LocalDate nextPaymentOn;
+
+    @Version
+    private long version;
 }
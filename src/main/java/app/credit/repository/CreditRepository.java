@@ -2,12 +2,18 @@ package app.credit.repository;
 
 import app.credit.model.Credit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CreditRepository extends JpaRepository<Credit, UUID> {
     Optional<Credit> findByOwnerId(UUID id);
+
+    @Query("select c from Credit c join fetch c.owner o where c.nextPaymentOn = :nextPaymentOn and o.isActive = true")
+    List<Credit> findAllByNextPaymentOnAndOwnerIsActiveTrue(LocalDate nextPaymentOn);
 }
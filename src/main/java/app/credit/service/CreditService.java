@@ -3,23 +3,28 @@ package app.credit.service;
 import app.credit.model.Credit;
 import app.credit.model.CreditStatus;
 import app.credit.repository.CreditRepository;
+import app.dashboard.service.HomeDashboardService;
+import app.exception.CreditDoNotExistException;
+import app.money.Money;
 import app.user.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public class CreditService {
 
     private final CreditRepository creditRepository;
+    private final HomeDashboardService homeDashboardService;
 
     @Autowired
-    public CreditService(CreditRepository creditRepository) {
+    public CreditService(CreditRepository creditRepository, HomeDashboardService homeDashboardService) {
         this.creditRepository = creditRepository;
+        this.homeDashboardService = homeDashboardService;
     }
 
     public Credit createCredit (User user) {
@@ -29,7 +34,7 @@ public class CreditService {
         Credit credit =  Credit.builder()
                 .owner(user)
                 .status(CreditStatus.PAYED)
-                .amount(new BigDecimal(0))
+                .amount(Money.ZERO)
                 .payedOn(null)
                 .nextPaymentOn(firstDayOfTheNextMonth)
                 .build();
@@ -38,11 +43,17 @@ public class CreditService {
         return credit;
     }
 
-    public void addAmountToCredit(User owner, BigDecimal amount) {
+    public void addAmountToCredit(User owner, Money amount) {
 
         Credit credit = getCreditByOwnerId(owner.getId());
-        credit.setAmount(credit.getAmount().add(amount));
+        credit.setAmount(credit.getAmount().plus(amount));
         creditRepository.save(credit);
+        homeDashboardService.ownerChanged(owner.getId());
+    }
+
+    // Credits of active users due on the given date, with their owners fetched in the same query.
+    public List<Credit> getCreditsDueOn(LocalDate date) {
+        return creditRepository.findAllByNextPaymentOnAndOwnerIsActiveTrue(date);
     }
 
     public Credit changeCreditStatus(User user) {
@@ -55,14 +66,18 @@ public class CreditService {
         }
 
         creditRepository.save(credit);
+        homeDashboardService.ownerChanged(user.getId());
         return credit;
     }
 
     public Credit getCreditByOwnerId(UUID id) {
-        return creditRepository.findByOwnerId(id).orElseThrow(() -> new RuntimeException("Credit with owner id [%s] do not exist.".formatted(id)));
+        return creditRepository.findByOwnerId(id).orElseThrow(() -> new CreditDoNotExistException("Credit with owner id [%s] do not exist.".formatted(id)));
     }
 
     public Credit updateCredit(Credit credit) {
-        return creditRepository.save(credit);
+
+        Credit updated = creditRepository.save(credit);
+        homeDashboardService.ownerChanged(credit.getOwner().getId());
+        return updated;
     }
 }
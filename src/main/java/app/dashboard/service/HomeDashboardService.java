@@ -0,0 +1,103 @@
+package app.dashboard.service;
+
+import app.config.CacheConfiguration;
+import app.report.service.AfterCommit;
+import app.transaction.repository.TransactionRepository;
+import app.user.repository.DashboardRow;
+import app.user.repository.UserRepository;
+import app.web.dto.CreditSummary;
+import app.web.dto.HomeDashboard;
+import app.web.dto.TransactionResponse;
+import app.web.dto.WalletBalance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read model behind the home page: the user, their wallet balances, credit and latest transactions, cached per user.
+ * Services report every committed change to a user, their wallets, credit or transactions here, which evicts that
+ * user's dashboard; the cache TTL bounds how long a change committed by another instance takes to show.
+ */
+@Service
+public class HomeDashboardService {
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final Cache dashboards;
+    private final int recentTransactions;
+
+    @Autowired
+    public HomeDashboardService(UserRepository userRepository, TransactionRepository transactionRepository, CacheManager cacheManager, @Value("${dashboard.recent-transactions:5}") int recentTransactions) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.dashboards = cacheManager.getCache(CacheConfiguration.HOME_DASHBOARDS);
+        this.recentTransactions = recentTransactions;
+    }
+
+    // A dashboard evicted while it is being loaded is dropped once the load finishes, so a load that read the state
+    // before a commit is never left in the cache after it.
+    public HomeDashboard getHomeDashboard(UUID userId) {
+        return dashboards.get(userId, () -> loadHomeDashboard(userId));
+    }
+
+    public void ownerChanged(UUID ownerId) {
+        AfterCommit.run(() -> dashboards.evict(ownerId));
+    }
+
+    public void ownersChanged(Collection<UUID> ownerIds) {
+        AfterCommit.run(() -> ownerIds.forEach(dashboards::evict));
+    }
+
+    private HomeDashboard loadHomeDashboard(UUID userId) {
+
+        List<DashboardRow> rows = userRepository.findDashboardRows(userId);
+
+        if (rows.isEmpty()) {
+            throw new RuntimeException("User with id [%s] do not exist.".formatted(userId));
+        }
+
+        DashboardRow user = rows.getFirst();
+
+        List<WalletBalance> wallets = rows.stream()
+                .filter(row -> row.getWalletId() != null)
+                .map(row -> WalletBalance.builder()
+                        .id(row.getWalletId())
+                        .type(row.getWalletType())
+                        .status(row.getWalletStatus())
+                        .balance(row.getWalletBalance().toBigDecimal())
+                        .updatedOn(row.getWalletUpdatedOn())
+                        .build())
+                .toList();
+
+        CreditSummary credit = user.getCreditStatus() == null ? null : CreditSummary.builder()
+                .status(user.getCreditStatus())
+                .amount(user.getCreditAmount().toBigDecimal())
+                .nextPaymentOn(user.getNextPaymentOn())
+                .build();
+
+        List<TransactionResponse> transactions = transactionRepository.findLatestByOwnerId(userId, Limit.of(recentTransactions))
+                .stream()
+                .map(TransactionResponse::of)
+                .toList();
+
+        return HomeDashboard.builder()
+                .id(user.getUserId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .profilePic(user.getProfilePic())
+                .role(user.getRole())
+                .isActive(user.isActive())
+                .createdOn(user.getCreatedOn())
+                .wallets(wallets)
+                .credit(credit)
+                .recentTransactions(transactions)
+                .build();
+    }
+}
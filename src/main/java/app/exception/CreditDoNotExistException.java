@@ -0,0 +1,9 @@
+package app.exception;
+
+public class CreditDoNotExistException extends RuntimeException {
+    public CreditDoNotExistException(String message) {
+        super(message);
+    }
+
+    public CreditDoNotExistException() {}
+}
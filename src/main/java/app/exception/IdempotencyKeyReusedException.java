@@ -0,0 +1,9 @@
+package app.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyReusedException() {}
+}
@@ -0,0 +1,9 @@
+package app.exception;
+
+public class PasswordHashingOverloadedException extends RuntimeException {
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingOverloadedException() {}
+}
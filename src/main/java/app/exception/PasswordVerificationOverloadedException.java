@@ -0,0 +1,15 @@
+package app.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+// A sign-in shed by the password hashing pool. Being an AuthenticationException, the login filter hands it to the
+// failure handler like a wrong password instead of letting it escape as a server error.
+public class PasswordVerificationOverloadedException extends AuthenticationServiceException {
+    public PasswordVerificationOverloadedException(String message) {
+        super(message);
+    }
+
+    public PasswordVerificationOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
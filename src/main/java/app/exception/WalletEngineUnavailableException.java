@@ -0,0 +1,9 @@
+package app.exception;
+
+public class WalletEngineUnavailableException extends RuntimeException {
+    public WalletEngineUnavailableException(String message) {
+        super(message);
+    }
+
+    public WalletEngineUnavailableException() {}
+}
@@ -0,0 +1,67 @@
+package app.idempotency.model;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * An idempotency key sent by an owner together with a hash of the request it was sent with, so a retry of the same
+ * request can be told apart from the key being reused for a different one.
+ */
+public record IdempotencyKey(UUID ownerId, String value, String requestHash) {
+
+    // Returns null when the request carries no key, such requests are executed as before.
+    public static IdempotencyKey of(UUID ownerId, String value, Object... requestFields) {
+
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        return new IdempotencyKey(ownerId, value, hash(requestFields));
+    }
+
+    public boolean matches(String requestHash) {
+        return this.requestHash.equals(requestHash);
+    }
+
+    public IdempotencyRecord toRecord(UUID transactionId) {
+
+        return IdempotencyRecord.builder()
+                .ownerId(ownerId)
+                .idempotencyKey(value)
+                .requestHash(requestHash)
+                .transactionId(transactionId)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    private static String hash(Object... requestFields) {
+
+        String request = Arrays.stream(requestFields)
+                .map(IdempotencyKey::canonical)
+                .collect(Collectors.joining("\n"));
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 10, 10.0 and 10.00 are the same amount.
+    private static String canonical(Object requestField) {
+
+        if (requestField instanceof BigDecimal amount) {
+            return amount.stripTrailingZeros().toPlainString();
+        }
+
+        return String.valueOf(requestField);
+    }
+}
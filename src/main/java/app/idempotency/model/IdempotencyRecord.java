@@ -0,0 +1,41 @@
+package app.idempotency.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_owner_key", columnNames = {"owner_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_created_on", columnList = "created_on"))
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID ownerId;
+
+    @Column(nullable = false, length = 64)
+    private String idempotencyKey;
+
+    // Hash of the request the key was first sent with.
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    // Written in the same database transaction as the transaction it refers to.
+    @Column(nullable = false)
+    private UUID transactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
@@ -0,0 +1,23 @@
+package app.idempotency.repository;
+
+import app.idempotency.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    Optional<IdempotencyRecord> findByOwnerIdAndIdempotencyKey(UUID ownerId, String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdOn < :cutoff")
+    int deleteAllCreatedBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,63 @@
+package app.idempotency.service;
+
+import app.idempotency.model.IdempotencyKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class IdempotencyCache {
+
+    private final Map<String, Entry> requests;
+    private final long ttlMillis;
+
+    @Autowired
+    public IdempotencyCache(@Value("${idempotency.cache.max-size:10000}") int maxSize,
+                            @Value("${idempotency.ttl:PT24H}") Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+        this.requests = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public record CompletedRequest(String requestHash, UUID transactionId) {
+    }
+
+    public Optional<CompletedRequest> get(IdempotencyKey idempotencyKey) {
+
+        String key = keyOf(idempotencyKey);
+        Entry entry = requests.get(key);
+
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            requests.remove(key);
+            return Optional.empty();
+        }
+
+        return Optional.of(entry.request());
+    }
+
+    public void put(IdempotencyKey idempotencyKey, UUID transactionId) {
+        requests.put(keyOf(idempotencyKey), new Entry(new CompletedRequest(idempotencyKey.requestHash(), transactionId), System.currentTimeMillis() + ttlMillis));
+    }
+
+    private String keyOf(IdempotencyKey idempotencyKey) {
+        return idempotencyKey.ownerId() + ":" + idempotencyKey.value();
+    }
+
+    private record Entry(CompletedRequest request, long expiresAt) {
+    }
+}
@@ -0,0 +1,123 @@
+package app.idempotency.service;
+
+import app.exception.IdempotencyKeyReusedException;
+import app.idempotency.model.IdempotencyKey;
+import app.idempotency.model.IdempotencyRecord;
+import app.idempotency.repository.IdempotencyRecordRepository;
+import app.transaction.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyCache idempotencyCache;
+    private final Duration ttl;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, IdempotencyCache idempotencyCache, @Value("${idempotency.ttl:PT24H}") Duration ttl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyCache = idempotencyCache;
+        this.ttl = ttl;
+    }
+
+    // Runs the operation at most once per owner and key and returns the id of the transaction it produced. The
+    // operation writes the key's record with record() in the same database transaction that moves the money, so a
+    // record exists exactly when the money moved, even for an operation whose caller stopped waiting for it.
+    // Requests without a key are executed as before.
+    public UUID execute(IdempotencyKey idempotencyKey, Supplier<Transaction> operation) {
+
+        if (idempotencyKey == null) {
+            return operation.get().getId();
+        }
+
+        Optional<UUID> completedTransactionId = completedTransactionId(idempotencyKey);
+        if (completedTransactionId.isPresent()) {
+            return completedTransactionId.get();
+        }
+
+        Transaction transaction;
+        try {
+            transaction = operation.get();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first and this one was rolled back.
+            return completedTransactionId(idempotencyKey).orElseThrow(() -> e);
+        }
+
+        idempotencyCache.put(idempotencyKey, transaction.getId());
+
+        return transaction.getId();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(IdempotencyKey idempotencyKey, Transaction transaction) {
+
+        if (idempotencyKey == null) {
+            return;
+        }
+
+        idempotencyRecordRepository.saveAndFlush(idempotencyKey.toRecord(transaction.getId()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<IdempotencyRecord> records) {
+
+        if (records.isEmpty()) {
+            return;
+        }
+
+        idempotencyRecordRepository.saveAllAndFlush(records);
+    }
+
+    private Optional<UUID> completedTransactionId(IdempotencyKey idempotencyKey) {
+
+        Optional<IdempotencyCache.CompletedRequest> cachedRequest = idempotencyCache.get(idempotencyKey);
+        if (cachedRequest.isPresent()) {
+            return Optional.of(replay(idempotencyKey, cachedRequest.get().requestHash(), cachedRequest.get().transactionId()));
+        }
+
+        Optional<IdempotencyRecord> optionalRecord = idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(idempotencyKey.ownerId(), idempotencyKey.value());
+        if (optionalRecord.isEmpty()) {
+            return Optional.empty();
+        }
+
+        IdempotencyRecord record = optionalRecord.get();
+        UUID transactionId = replay(idempotencyKey, record.getRequestHash(), record.getTransactionId());
+        idempotencyCache.put(new IdempotencyKey(record.getOwnerId(), record.getIdempotencyKey(), record.getRequestHash()), transactionId);
+
+        return Optional.of(transactionId);
+    }
+
+    private UUID replay(IdempotencyKey idempotencyKey, String requestHash, UUID transactionId) {
+
+        if (!idempotencyKey.matches(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency key [%s] was already used for a different request.".formatted(idempotencyKey.value()));
+        }
+
+        log.info("Replaying transaction [%s] for idempotency key [%s]".formatted(transactionId, idempotencyKey.value()));
+
+        return transactionId;
+    }
+
+    public int deleteExpiredRecords() {
+
+        int deleted = idempotencyRecordRepository.deleteAllCreatedBefore(LocalDateTime.now().minus(ttl));
+        log.info("Deleted [%d] expired idempotency records".formatted(deleted));
+
+        return deleted;
+    }
+}
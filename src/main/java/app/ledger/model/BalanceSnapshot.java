@@ -0,0 +1,38 @@
+package app.ledger.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Balance of a wallet built from all postings created up to and including the cutoff.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_balance_snapshot_cutoff", columnList = "cutoff"))
+public class BalanceSnapshot {
+
+    @Id
+    private UUID walletId;
+
+    @Column(nullable = false)
+    private long balanceInCents;
+
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(nullable = false)
+    private LocalDateTime takenOn;
+}
@@ -0,0 +1,49 @@
+package app.ledger.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One leg of a double-entry journal entry. Postings are only ever inserted; every entry consists of a debit and a
+ * credit of the same amount sharing the same entry id.
+ */
+@Getter
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_posting_wallet_created_on", columnList = "wallet_id, created_on"),
+        @Index(name = "idx_posting_created_on", columnList = "created_on")
+})
+public class Posting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, updatable = false)
+    private UUID entryId;
+
+    @Column(updatable = false)
+    private UUID transactionId;
+
+    @Column(nullable = false, updatable = false)
+    private UUID walletId;
+
+    @Column(nullable = false, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private PostingDirection direction;
+
+    @Column(nullable = false, updatable = false)
+    private long amountInCents;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdOn;
+}
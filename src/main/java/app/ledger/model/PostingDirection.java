@@ -0,0 +1,10 @@
+package app.ledger.model;
+
+public enum PostingDirection {
+
+    // Money leaving the wallet.
+    DEBIT,
+
+    // Money entering the wallet.
+    CREDIT
+}
@@ -0,0 +1,14 @@
+package app.ledger.repository;
+
+import app.ledger.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, UUID> {
+
+    Optional<BalanceSnapshot> findFirstByOrderByCutoffDesc();
+}
@@ -0,0 +1,39 @@
+package app.ledger.repository;
+
+import app.ledger.model.Posting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PostingRepository extends JpaRepository<Posting, UUID> {
+
+    String SIGNED_AMOUNT = "case when p.direction = app.ledger.model.PostingDirection.CREDIT then p.amountInCents else -p.amountInCents end";
+
+    boolean existsByWalletIdAndEntryId(UUID walletId, UUID entryId);
+
+    @Query("select w.id from Wallet w where not exists (select p.id from Posting p where p.walletId = w.id and p.entryId = w.id)")
+    List<UUID> findWalletIdsWithoutOpeningEntry();
+
+    @Query("select coalesce(sum(" + SIGNED_AMOUNT + "), 0) from Posting p where p.walletId = :walletId")
+    long sumByWalletId(UUID walletId);
+
+    @Query("select coalesce(sum(" + SIGNED_AMOUNT + "), 0) from Posting p where p.walletId = :walletId and p.createdOn > :after")
+    long sumByWalletIdCreatedAfter(UUID walletId, LocalDateTime after);
+
+    @Query("select p.walletId as walletId, sum(" + SIGNED_AMOUNT + ") as balanceChangeInCents from Posting p where p.createdOn <= :upTo group by p.walletId")
+    List<WalletBalanceChange> sumByWalletIdCreatedUpTo(LocalDateTime upTo);
+
+    @Query("select p.walletId as walletId, sum(" + SIGNED_AMOUNT + ") as balanceChangeInCents from Posting p where p.createdOn > :after and p.createdOn <= :upTo group by p.walletId")
+    List<WalletBalanceChange> sumByWalletIdCreatedBetween(LocalDateTime after, LocalDateTime upTo);
+
+    // Postings the wallet's balance snapshot does not cover yet, i.e. all of them for wallets without one.
+    @Query("select p.walletId as walletId, sum(" + SIGNED_AMOUNT + ") as balanceChangeInCents from Posting p where p.walletId in :walletIds"
+            + " and not exists (select s.walletId from BalanceSnapshot s where s.walletId = p.walletId and s.cutoff >= p.createdOn) group by p.walletId")
+    List<WalletBalanceChange> sumByWalletIdInAfterSnapshot(Collection<UUID> walletIds);
+}
@@ -0,0 +1,10 @@
+package app.ledger.repository;
+
+import java.util.UUID;
+
+public interface WalletBalanceChange {
+
+    UUID getWalletId();
+
+    long getBalanceChangeInCents();
+}
@@ -0,0 +1,228 @@
+package app.ledger.service;
+
+import app.ledger.model.BalanceSnapshot;
+import app.ledger.model.Posting;
+import app.ledger.model.PostingDirection;
+import app.ledger.repository.BalanceSnapshotRepository;
+import app.ledger.repository.PostingRepository;
+import app.ledger.repository.WalletBalanceChange;
+import app.money.Money;
+import app.wallet.model.Wallet;
+import app.wallet.repository.WalletRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class LedgerService {
+
+    // Counterparty of money entering or leaving the system, e.g. charge-ups and credit payments.
+    public static final UUID EXTERNAL_ACCOUNT_ID = new UUID(0L, 0L);
+    // Clearing account of transfers debited from the sender and not yet credited to the receiver.
+    public static final UUID IN_TRANSIT_ACCOUNT_ID = new UUID(0L, 1L);
+
+    private final PostingRepository postingRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Duration snapshotLag;
+    private final int reconcileBatchSize;
+
+    @Autowired
+    public LedgerService(PostingRepository postingRepository, BalanceSnapshotRepository balanceSnapshotRepository, WalletRepository walletRepository, PlatformTransactionManager transactionManager, @Value("${ledger.snapshot.lag:PT1M}") Duration snapshotLag, @Value("${ledger.reconcile.batch-size:500}") int reconcileBatchSize) {
+        this.postingRepository = postingRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.walletRepository = walletRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.snapshotLag = snapshotLag;
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    public List<Posting> recordTransfer(UUID transactionId, UUID debitWalletId, UUID creditWalletId, Money amount) {
+        return recordPostings(buildTransferPostings(transactionId, debitWalletId, creditWalletId, amount));
+    }
+
+    public List<Posting> buildTransferPostings(UUID transactionId, UUID debitWalletId, UUID creditWalletId, Money amount) {
+        return buildEntry(UUID.randomUUID(), transactionId, debitWalletId, creditWalletId, amount);
+    }
+
+    private List<Posting> buildEntry(UUID entryId, UUID transactionId, UUID debitWalletId, UUID creditWalletId, Money amount) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        return List.of(
+                buildPosting(entryId, transactionId, debitWalletId, PostingDirection.DEBIT, amount, now),
+                buildPosting(entryId, transactionId, creditWalletId, PostingDirection.CREDIT, amount, now)
+        );
+    }
+
+    private Posting buildPosting(UUID entryId, UUID transactionId, UUID walletId, PostingDirection direction, Money amount, LocalDateTime createdOn) {
+
+        return Posting.builder()
+                .entryId(entryId)
+                .transactionId(transactionId)
+                .walletId(walletId)
+                .direction(direction)
+                .amountInCents(amount.cents())
+                .createdOn(createdOn)
+                .build();
+    }
+
+    public List<Posting> recordPostings(List<Posting> postings) {
+        return postingRepository.saveAll(postings);
+    }
+
+    // The opening entry of a wallet uses the wallet id as its entry id, so every wallet has exactly one and it can be
+    // looked up. Wallets are opened with their initial balance when they are created.
+    public List<Posting> recordOpeningBalances(List<Wallet> wallets) {
+
+        List<Posting> postings = wallets.stream()
+                .flatMap(wallet -> buildEntry(wallet.getId(), null, EXTERNAL_ACCOUNT_ID, wallet.getId(), wallet.getBalance()).stream())
+                .toList();
+
+        return recordPostings(postings);
+    }
+
+    public boolean hasOpeningBalance(UUID walletId) {
+        return postingRepository.existsByWalletIdAndEntryId(walletId, walletId);
+    }
+
+    public List<UUID> findWalletIdsWithoutOpeningBalance() {
+        return postingRepository.findWalletIdsWithoutOpeningEntry();
+    }
+
+    // Wallets created before the ledger have a balance without postings behind it. Their opening entry books the
+    // difference, so their postings add up to their balance from then on. The caller holds the wallet's row lock,
+    // so neither the balance nor the postings change in between.
+    public List<Posting> recordMissingOpeningBalance(Wallet wallet) {
+
+        long differenceInCents = wallet.getBalance().cents() - computeBalance(wallet.getId()).cents();
+
+        if (differenceInCents < 0) {
+            log.warn("Wallet with id [%s] has [%s] less than its postings add up to".formatted(wallet.getId(), Money.ofCents(-differenceInCents)));
+            return recordPostings(buildEntry(wallet.getId(), null, wallet.getId(), EXTERNAL_ACCOUNT_ID, Money.ofCents(-differenceInCents)));
+        }
+
+        return recordPostings(buildEntry(wallet.getId(), null, EXTERNAL_ACCOUNT_ID, wallet.getId(), Money.ofCents(differenceInCents)));
+    }
+
+    public Money computeBalance(UUID walletId) {
+
+        long balanceInCents = balanceSnapshotRepository.findById(walletId)
+                .map(snapshot -> snapshot.getBalanceInCents() + postingRepository.sumByWalletIdCreatedAfter(walletId, snapshot.getCutoff()))
+                .orElseGet(() -> postingRepository.sumByWalletId(walletId));
+
+        return Money.ofCents(balanceInCents);
+    }
+
+    // Walks all wallets in id order and compares each balance with its snapshot plus the postings after it, logging
+    // every wallet that drifted. A batch is read in one transaction, so its balances and postings are seen at the
+    // same point in time and a transfer committing in between is not reported as drift.
+    public int reconcileBalances() {
+
+        int walletCount = 0;
+        int driftedCount = 0;
+        UUID afterId = null;
+
+        while (true) {
+            UUID lastWalletId = afterId;
+            ReconciledBatch batch = readOnlyTransactionTemplate.execute(status -> reconcileBatch(lastWalletId));
+
+            if (batch == null || batch.walletCount() == 0) {
+                break;
+            }
+
+            walletCount += batch.walletCount();
+            driftedCount += batch.driftedCount();
+            afterId = batch.lastWalletId();
+        }
+
+        log.info("Reconciled [%d] wallet balances against the ledger, [%d] drifted".formatted(walletCount, driftedCount));
+
+        return driftedCount;
+    }
+
+    private ReconciledBatch reconcileBatch(UUID afterId) {
+
+        List<Wallet> wallets = afterId == null
+                ? walletRepository.findAllByOrderByIdAsc(Limit.of(reconcileBatchSize))
+                : walletRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, Limit.of(reconcileBatchSize));
+
+        if (wallets.isEmpty()) {
+            return new ReconciledBatch(afterId, 0, 0);
+        }
+
+        List<UUID> walletIds = wallets.stream().map(Wallet::getId).toList();
+        Map<UUID, Long> snapshotBalances = balanceSnapshotRepository.findAllById(walletIds)
+                .stream()
+                .collect(Collectors.toMap(BalanceSnapshot::getWalletId, BalanceSnapshot::getBalanceInCents));
+        Map<UUID, Long> laterChanges = postingRepository.sumByWalletIdInAfterSnapshot(walletIds)
+                .stream()
+                .collect(Collectors.toMap(WalletBalanceChange::getWalletId, WalletBalanceChange::getBalanceChangeInCents));
+
+        int driftedCount = 0;
+        for (Wallet wallet : wallets) {
+            Money ledgerBalance = Money.ofCents(snapshotBalances.getOrDefault(wallet.getId(), 0L) + laterChanges.getOrDefault(wallet.getId(), 0L));
+
+            if (!ledgerBalance.equals(wallet.getBalance())) {
+                log.warn("Wallet with id [%s] has balance [%s] but its postings add up to [%s]".formatted(wallet.getId(), wallet.getBalance(), ledgerBalance));
+                driftedCount++;
+            }
+        }
+
+        return new ReconciledBatch(wallets.getLast().getId(), wallets.size(), driftedCount);
+    }
+
+    private record ReconciledBatch(UUID lastWalletId, int walletCount, int driftedCount) {
+    }
+
+    // Rolls every snapshot touched since the previous run forward to a cutoff that lags behind now, so postings
+    // of transactions that have not committed yet are picked up by the next run instead of being skipped.
+    @Transactional
+    public int takeSnapshots() {
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(snapshotLag);
+        Optional<LocalDateTime> previousCutoff = balanceSnapshotRepository.findFirstByOrderByCutoffDesc().map(BalanceSnapshot::getCutoff);
+
+        if (previousCutoff.isPresent() && !previousCutoff.get().isBefore(cutoff)) {
+            return 0;
+        }
+
+        List<WalletBalanceChange> changes = previousCutoff
+                .map(after -> postingRepository.sumByWalletIdCreatedBetween(after, cutoff))
+                .orElseGet(() -> postingRepository.sumByWalletIdCreatedUpTo(cutoff));
+
+        Map<UUID, BalanceSnapshot> snapshots = balanceSnapshotRepository.findAllById(changes.stream().map(WalletBalanceChange::getWalletId).toList())
+                .stream()
+                .collect(Collectors.toMap(BalanceSnapshot::getWalletId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (WalletBalanceChange change : changes) {
+            BalanceSnapshot snapshot = snapshots.computeIfAbsent(change.getWalletId(), walletId -> BalanceSnapshot.builder().walletId(walletId).build());
+            snapshot.setBalanceInCents(Math.addExact(snapshot.getBalanceInCents(), change.getBalanceChangeInCents()));
+            snapshot.setCutoff(cutoff);
+            snapshot.setTakenOn(now);
+        }
+
+        balanceSnapshotRepository.saveAll(snapshots.values());
+        log.info("Balance snapshots of [%d] wallets rolled forward to [%s]".formatted(snapshots.size(), cutoff));
+
+        return snapshots.size();
+    }
+}
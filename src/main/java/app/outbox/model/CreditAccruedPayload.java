@@ -0,0 +1,6 @@
+package app.outbox.model;
+
+import java.util.UUID;
+
+public record CreditAccruedPayload(UUID ownerId, long amountInCents) implements OutboxPayload {
+}
@@ -0,0 +1,44 @@
+package app.outbox.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_outbox_event_created_on", columnList = "created_on"),
+        @Index(name = "idx_outbox_event_owner_id", columnList = "owner_id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType type;
+
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    private UUID ownerId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+
+    // Set when the event can not be relayed. Failed events are kept for inspection and skipped by the relay.
+    private LocalDateTime failedOn;
+
+    @Column(length = 500)
+    private String failureReason;
+}
@@ -0,0 +1,7 @@
+package app.outbox.model;
+
+public enum OutboxEventType {
+
+    TRANSFER_RECEIVED,
+    CREDIT_ACCRUED
+}
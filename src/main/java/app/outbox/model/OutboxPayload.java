@@ -0,0 +1,9 @@
+package app.outbox.model;
+
+import java.util.UUID;
+
+// The user whose transactions or credit the event changes once it is relayed.
+public interface OutboxPayload {
+
+    UUID ownerId();
+}
@@ -0,0 +1,14 @@
+package app.outbox.model;
+
+import app.money.Money;
+
+import java.util.List;
+import java.util.UUID;
+
+// Credit accrual events of one owner that the relay has not applied yet, and the amount they add up to.
+public record PendingCreditAccruals(List<UUID> eventIds, Money amount) {
+
+    public boolean isEmpty() {
+        return eventIds.isEmpty();
+    }
+}
@@ -0,0 +1,11 @@
+package app.outbox.model;
+
+import java.util.UUID;
+
+public record TransferReceivedPayload(UUID receiverId, String sender, String receiver, long amountInCents, long balanceLeftInCents, String description) implements OutboxPayload {
+
+    @Override
+    public UUID ownerId() {
+        return receiverId;
+    }
+}
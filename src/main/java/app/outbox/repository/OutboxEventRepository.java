@@ -0,0 +1,37 @@
+package app.outbox.repository;
+
+import app.outbox.model.OutboxEvent;
+import app.outbox.model.OutboxEventType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    // A lock timeout of -2 makes Hibernate render SKIP LOCKED, so concurrent relays drain disjoint batches.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.failedOn is null order by e.createdOn")
+    List<OutboxEvent> findBatchForUpdate(Pageable pageable);
+
+    @Query("select e from OutboxEvent e where e.ownerId = :ownerId and e.type = :type and e.failedOn is null")
+    List<OutboxEvent> findPendingByOwnerIdAndType(UUID ownerId, OutboxEventType type);
+
+    @Query("select distinct e.ownerId from OutboxEvent e where e.ownerId in :ownerIds and e.type = :type and e.failedOn is null")
+    List<UUID> findOwnerIdsWithPending(Collection<UUID> ownerIds, OutboxEventType type);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteAllByIds(Collection<UUID> ids);
+}
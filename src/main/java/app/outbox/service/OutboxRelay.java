@@ -0,0 +1,151 @@
+package app.outbox.service;
+
+import app.credit.service.CreditService;
+import app.exception.CreditDoNotExistException;
+import app.money.Money;
+import app.outbox.model.CreditAccruedPayload;
+import app.outbox.model.OutboxEvent;
+import app.outbox.model.TransferReceivedPayload;
+import app.outbox.repository.OutboxEventRepository;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.service.TransactionService;
+import app.user.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionService transactionService;
+    private final CreditService creditService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       TransactionService transactionService,
+                       CreditService creditService,
+                       UserService userService,
+                       ObjectMapper objectMapper,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionService = transactionService;
+        this.creditService = creditService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    // Applies one batch of events and deletes them in the same transaction. Derived transactions are inserted with a
+    // single saveAll and credit accruals are summed per owner, so each credit row is written once per batch. An event
+    // that can not be applied, e.g. with an unreadable payload or for an owner without a credit, is flagged as failed
+    // and kept, so it does not block the events behind it.
+    @Transactional
+    public int relayBatch() {
+
+        List<OutboxEvent> events = outboxEventRepository.findBatchForUpdate(PageRequest.of(0, batchSize));
+
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> relayed = new ArrayList<>();
+        List<Transaction> transactions = new ArrayList<>();
+        Map<UUID, Money> creditAccruals = new LinkedHashMap<>();
+        Map<UUID, List<OutboxEvent>> creditAccrualEvents = new HashMap<>();
+
+        for (OutboxEvent event : events) {
+            try {
+                switch (event.getType()) {
+                    case TRANSFER_RECEIVED -> {
+                        transactions.add(toReceiverTransaction(event));
+                        relayed.add(event);
+                    }
+                    case CREDIT_ACCRUED -> {
+                        CreditAccruedPayload payload = read(event, CreditAccruedPayload.class);
+                        creditAccruals.merge(payload.ownerId(), Money.ofCents(payload.amountInCents()), Money::plus);
+                        creditAccrualEvents.computeIfAbsent(payload.ownerId(), ownerId -> new ArrayList<>()).add(event);
+                    }
+                }
+            } catch (IllegalStateException e) {
+                fail(event, e.getMessage());
+            }
+        }
+
+        transactionService.saveTransactions(transactions);
+
+        creditAccruals.forEach((ownerId, amount) -> {
+            try {
+                creditService.addAmountToCredit(userService.getUserReferenceById(ownerId), amount);
+                relayed.addAll(creditAccrualEvents.get(ownerId));
+            } catch (CreditDoNotExistException e) {
+                creditAccrualEvents.get(ownerId).forEach(event -> fail(event, e.getMessage()));
+            }
+        });
+
+        outboxEventRepository.deleteAllInBatch(relayed);
+
+        log.info("Relayed [%d] outbox events into [%d] transactions and [%d] credit accruals, [%d] failed".formatted(relayed.size(), transactions.size(), creditAccruals.size(), events.size() - relayed.size()));
+        return events.size();
+    }
+
+    private void fail(OutboxEvent event, String reason) {
+
+        log.error("Outbox event with id [%s] can not be relayed and is flagged as failed: %s".formatted(event.getId(), reason));
+        event.setFailedOn(LocalDateTime.now());
+        event.setFailureReason(reason.length() > 500 ? reason.substring(0, 500) : reason);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private Transaction toReceiverTransaction(OutboxEvent event) {
+
+        TransferReceivedPayload payload = read(event, TransferReceivedPayload.class);
+
+        // Stamped with the relay's insert time rather than the event's: the transaction rollup only reads rows created
+        // after its watermark, and a backdated row could land behind it and never be rolled up.
+        return transactionService.buildTransaction(
+                userService.getUserReferenceById(payload.receiverId()),
+                payload.sender(),
+                payload.receiver(),
+                Money.ofCents(payload.amountInCents()),
+                Money.ofCents(payload.balanceLeftInCents()),
+                TransactionType.DEPOSIT,
+                payload.description(),
+                TransactionStatus.SUCCEEDED,
+                TransactionTypeStatus.SECONDARY,
+                null
+        );
+    }
+
+    private <T> T read(OutboxEvent event, Class<T> payloadType) {
+
+        try {
+            return objectMapper.readValue(event.getPayload(), payloadType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox event with id [%s] has an unreadable payload.".formatted(event.getId()), e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package app.outbox.service;
+
+import app.money.Money;
+import app.outbox.model.CreditAccruedPayload;
+import app.outbox.model.OutboxEvent;
+import app.outbox.model.OutboxEventType;
+import app.outbox.model.OutboxPayload;
+import app.outbox.model.PendingCreditAccruals;
+import app.outbox.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Must be called inside the transaction that changes the balance, so the event is committed or rolled back with it.
+    public OutboxEvent enqueue(OutboxEventType type, OutboxPayload payload) {
+        return outboxEventRepository.save(buildEvent(type, payload));
+    }
+
+    public List<OutboxEvent> enqueueAll(OutboxEventType type, List<? extends OutboxPayload> payloads) {
+        return outboxEventRepository.saveAll(payloads.stream().map(payload -> buildEvent(type, payload)).toList());
+    }
+
+    // Credit accruals of the owner that are still waiting for the relay. Unreadable ones are left to the relay,
+    // which flags them.
+    public PendingCreditAccruals findPendingCreditAccruals(UUID ownerId) {
+
+        List<UUID> eventIds = new ArrayList<>();
+        Money amount = Money.ZERO;
+
+        for (OutboxEvent event : outboxEventRepository.findPendingByOwnerIdAndType(ownerId, OutboxEventType.CREDIT_ACCRUED)) {
+            try {
+                CreditAccruedPayload payload = objectMapper.readValue(event.getPayload(), CreditAccruedPayload.class);
+                amount = amount.plus(Money.ofCents(payload.amountInCents()));
+                eventIds.add(event.getId());
+            } catch (JsonProcessingException e) {
+                log.warn("Outbox event with id [%s] has an unreadable payload and is left to the relay.".formatted(event.getId()));
+            }
+        }
+
+        return new PendingCreditAccruals(eventIds, amount);
+    }
+
+    // Owners among the given ones that have credit accruals still waiting for the relay.
+    public Set<UUID> findOwnerIdsWithPendingCreditAccruals(Collection<UUID> ownerIds) {
+
+        if (ownerIds.isEmpty()) {
+            return Set.of();
+        }
+
+        return new HashSet<>(outboxEventRepository.findOwnerIdsWithPending(ownerIds, OutboxEventType.CREDIT_ACCRUED));
+    }
+
+    // Deletes accruals that the caller applied to the credit itself. If the relay took any of them in the meantime,
+    // the caller's transaction fails with a concurrency failure and is retried on a fresh credit.
+    public void deletePendingCreditAccruals(PendingCreditAccruals pendingCreditAccruals) {
+
+        if (pendingCreditAccruals.isEmpty()) {
+            return;
+        }
+
+        int deleted = outboxEventRepository.deleteAllByIds(pendingCreditAccruals.eventIds());
+        if (deleted != pendingCreditAccruals.eventIds().size()) {
+            throw new ObjectOptimisticLockingFailureException(OutboxEvent.class, pendingCreditAccruals.eventIds());
+        }
+    }
+
+    private OutboxEvent buildEvent(OutboxEventType type, OutboxPayload payload) {
+
+        return OutboxEvent.builder()
+                .type(type)
+                .payload(write(payload))
+                .ownerId(payload.ownerId())
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    private String write(Object payload) {
+
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload [%s] can not be serialized.".formatted(payload), e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package app.report.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@AllArgsConstructor
+public enum RollupGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    public LocalDateTime bucketOf(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+}
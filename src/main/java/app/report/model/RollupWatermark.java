@@ -0,0 +1,31 @@
+package app.report.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position up to which, inclusive, the rollup with this name has aggregated its source rows.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupWatermark {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime rolledUpTo;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedOn;
+}
@@ -0,0 +1,56 @@
+package app.report.model;
+
+import app.money.Money;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Transactions of one type and type status created within the hour or day starting at the bucket start.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_transaction_rollup_bucket", columnNames = {"granularity", "bucket_start", "type", "type_status"}))
+public class TransactionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private TransactionType type;
+
+    @Column(nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private TransactionTypeStatus typeStatus;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false)
+    private Money succeededAmount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedOn;
+}
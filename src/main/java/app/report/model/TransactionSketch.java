@@ -0,0 +1,46 @@
+package app.report.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mergeable sketches of one owner's transactions on one day: a KLL sketch of the succeeded main transaction amounts
+ * in cents and a HyperLogLog sketch of the names appearing as sender or receiver. Sketches of any set of days merge
+ * into the sketch of their union.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_transaction_sketch_owner_bucket_day", columnNames = {"owner_id", "bucket_day"}))
+public class TransactionSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID ownerId;
+
+    @Column(nullable = false)
+    private LocalDate bucketDay;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] amounts;
+
+    // Not kept for the row covering all owners.
+    @Lob
+    private byte[] counterparties;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedOn;
+}
@@ -0,0 +1,19 @@
+package app.report.repository;
+
+import app.report.model.RollupWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+
+    // Holding the watermark row lock keeps two instances from rolling up the same window.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from RollupWatermark w where w.name = :name")
+    Optional<RollupWatermark> findByNameForUpdate(String name);
+}
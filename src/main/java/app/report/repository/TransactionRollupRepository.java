@@ -0,0 +1,25 @@
+package app.report.repository;
+
+import app.report.model.RollupGranularity;
+import app.report.model.TransactionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransactionRollupRepository extends JpaRepository<TransactionRollup, UUID> {
+
+    List<TransactionRollup> findAllByGranularityAndBucketStartIn(RollupGranularity granularity, Collection<LocalDateTime> bucketStarts);
+
+    @Query("""
+            select r from TransactionRollup r
+            where r.granularity = :granularity and r.bucketStart >= :from and r.bucketStart < :to
+            order by r.bucketStart, r.type, r.typeStatus
+            """)
+    List<TransactionRollup> findAllInRange(RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
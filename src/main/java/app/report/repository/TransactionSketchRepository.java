@@ -0,0 +1,24 @@
+package app.report.repository;
+
+import app.report.model.TransactionSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransactionSketchRepository extends JpaRepository<TransactionSketch, UUID> {
+
+    // Locked so sketches flushed by two instances at once are merged one after the other instead of overwritten.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from TransactionSketch s where s.ownerId in :ownerIds and s.bucketDay = :bucketDay")
+    List<TransactionSketch> findAllForUpdate(Collection<UUID> ownerIds, LocalDate bucketDay);
+
+    List<TransactionSketch> findAllByOwnerIdAndBucketDayBetween(UUID ownerId, LocalDate from, LocalDate to);
+}
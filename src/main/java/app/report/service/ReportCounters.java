@@ -0,0 +1,205 @@
+package app.report.service;
+
+import app.money.Money;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.repository.TransactionRepository;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.wallet.repository.WalletRepository;
+import app.web.dto.TransactionsReport;
+import app.web.dto.UsersReport;
+import app.web.dto.WalletsReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory totals behind the admin reports, so reading a report does not scan any table.
+ * Services report their changes here; a change made inside a transaction is only counted once it commits.
+ * The counters are seeded from the database on first use and reconciled with it periodically, which also picks up
+ * rows written outside this instance.
+ */
+@Slf4j
+@Component
+public class ReportCounters {
+
+    private final UserRepository userRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+
+    private final LongAdder users = new LongAdder();
+    private final LongAdder activeUsers = new LongAdder();
+    private final LongAdder admins = new LongAdder();
+
+    private final LongAdder wallets = new LongAdder();
+    private final LongAdder activeWallets = new LongAdder();
+    private final LongAdder walletBalanceInCents = new LongAdder();
+
+    private final LongAdder mainTransactions = new LongAdder();
+    private final LongAdder succeededMainAmountInCents = new LongAdder();
+    private final LongAdder succeededTransactions = new LongAdder();
+    private final LongAdder failedTransactions = new LongAdder();
+
+    private volatile boolean seeded;
+
+    @Autowired
+    public ReportCounters(UserRepository userRepository, WalletRepository walletRepository, TransactionRepository transactionRepository) {
+        this.userRepository = userRepository;
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+    }
+
+    public UsersReport getUsersReport() {
+
+        ensureSeeded();
+        long total = users.sum();
+        long active = activeUsers.sum();
+        long adminCount = admins.sum();
+
+        return UsersReport.builder()
+                .totalUsers(total)
+                .activeUser(active)
+                .inactiveUsers(total - active)
+                .admins(adminCount)
+                .nonAdmins(total - adminCount)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    public WalletsReport getWalletsReport() {
+
+        ensureSeeded();
+        long total = wallets.sum();
+        long active = activeWallets.sum();
+
+        return WalletsReport.builder()
+                .totalWallets(total)
+                .totalWalletsAmount(Money.ofCents(walletBalanceInCents.sum()).toBigDecimal())
+                .activeWallets(active)
+                .inactiveWallets(total - active)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    public TransactionsReport getTransactionsReport() {
+
+        ensureSeeded();
+
+        return TransactionsReport.builder()
+                .totalTransactions(mainTransactions.sum())
+                .totalTransactionAmount(Money.ofCents(succeededMainAmountInCents.sum()).toBigDecimal())
+                .successfulTransactions(succeededTransactions.sum())
+                .unsuccessfulTransactions(failedTransactions.sum())
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    public void userRegistered(User user) {
+
+        AfterCommit.run(() -> {
+            users.increment();
+            if (user.isActive()) {
+                activeUsers.increment();
+            }
+            if (user.getRole() == UserRole.ADMIN) {
+                admins.increment();
+            }
+        });
+    }
+
+    public void userStatusChanged(boolean active) {
+        AfterCommit.run(() -> activeUsers.add(active ? 1 : -1));
+    }
+
+    public void walletsCreated(Collection<Wallet> createdWallets) {
+
+        AfterCommit.run(() -> createdWallets.forEach(wallet -> {
+            wallets.increment();
+            if (wallet.getStatus() == WalletStatus.ACTIVE) {
+                activeWallets.increment();
+            }
+            walletBalanceInCents.add(wallet.getBalance().cents());
+        }));
+    }
+
+    public void walletStatusChanged(WalletStatus status) {
+        AfterCommit.run(() -> activeWallets.add(status == WalletStatus.ACTIVE ? 1 : -1));
+    }
+
+    // Only money entering or leaving the system changes the total; transfers between wallets leave it as is.
+    public void walletBalancesChanged(long deltaInCents) {
+        AfterCommit.run(() -> walletBalanceInCents.add(deltaInCents));
+    }
+
+    public void transactionsRecorded(Collection<Transaction> transactions) {
+
+        AfterCommit.run(() -> transactions.forEach(transaction -> {
+            boolean main = transaction.getTypeStatus() == TransactionTypeStatus.MAIN;
+            if (main) {
+                mainTransactions.increment();
+            }
+            if (transaction.getStatus() == TransactionStatus.SUCCEEDED) {
+                succeededTransactions.increment();
+                if (main) {
+                    succeededMainAmountInCents.add(transaction.getAmount().cents());
+                }
+            } else if (transaction.getStatus() == TransactionStatus.FAILED) {
+                failedTransactions.increment();
+            }
+        }));
+    }
+
+    // Replaces the counters with the database aggregates. Changes committed while the aggregates are read may be
+    // counted twice or missed until the next reconciliation.
+    public synchronized void reconcile() {
+
+        UsersReport usersReport = userRepository.getReport();
+        WalletsReport walletsReport = walletRepository.getReport();
+        TransactionsReport transactionsReport = transactionRepository.getReport();
+        long balanceInCents = Money.of(walletsReport.getTotalWalletsAmount()).cents();
+
+        if (seeded && (users.sum() != usersReport.getTotalUsers()
+                || wallets.sum() != walletsReport.getTotalWallets()
+                || walletBalanceInCents.sum() != balanceInCents
+                || mainTransactions.sum() != transactionsReport.getTotalTransactions())) {
+            log.warn("Report counters drifted from the database and were reset.");
+        }
+
+        reset(users, usersReport.getTotalUsers());
+        reset(activeUsers, usersReport.getActiveUser());
+        reset(admins, usersReport.getAdmins());
+
+        reset(wallets, walletsReport.getTotalWallets());
+        reset(activeWallets, walletsReport.getActiveWallets());
+        reset(walletBalanceInCents, balanceInCents);
+
+        reset(mainTransactions, transactionsReport.getTotalTransactions());
+        reset(succeededMainAmountInCents, Money.of(transactionsReport.getTotalTransactionAmount()).cents());
+        reset(succeededTransactions, transactionsReport.getSuccessfulTransactions());
+        reset(failedTransactions, transactionsReport.getUnsuccessfulTransactions());
+
+        seeded = true;
+        log.info("Report counters reconciled with [%d] users, [%d] wallets and [%d] main transactions.".formatted(usersReport.getTotalUsers(), walletsReport.getTotalWallets(), transactionsReport.getTotalTransactions()));
+    }
+
+    private void ensureSeeded() {
+
+        if (!seeded) {
+            reconcile();
+        }
+    }
+
+    private static void reset(LongAdder counter, long value) {
+        counter.reset();
+        counter.add(value);
+    }
+}
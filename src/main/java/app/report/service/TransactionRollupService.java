@@ -0,0 +1,146 @@
+package app.report.service;
+
+import app.money.Money;
+import app.report.model.RollupGranularity;
+import app.report.model.RollupWatermark;
+import app.report.model.TransactionRollup;
+import app.report.repository.RollupWatermarkRepository;
+import app.report.repository.TransactionRollupRepository;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.repository.TransactionVolume;
+import app.web.dto.TransactionVolumeBucket;
+import app.web.dto.TransactionVolumeReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class TransactionRollupService {
+
+    static final String WATERMARK = "transaction_rollup";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionRollupRepository transactionRollupRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+    private final Duration rollupLag;
+
+    @Autowired
+    public TransactionRollupService(TransactionRepository transactionRepository, TransactionRollupRepository transactionRollupRepository, RollupWatermarkRepository rollupWatermarkRepository, @Value("${reports.rollup.lag:PT1M}") Duration rollupLag) {
+        this.transactionRepository = transactionRepository;
+        this.transactionRollupRepository = transactionRollupRepository;
+        this.rollupWatermarkRepository = rollupWatermarkRepository;
+        this.rollupLag = rollupLag;
+    }
+
+    // Adds the transactions created since the previous run to the hourly and daily rollups. Like the balance
+    // snapshots, the window ends a lag behind now so transactions that have not committed yet are picked up
+    // by the next run instead of being skipped.
+    @Transactional
+    public int rollUp() {
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(rollupLag);
+        Optional<RollupWatermark> watermark = rollupWatermarkRepository.findByNameForUpdate(WATERMARK);
+        Optional<LocalDateTime> previousCutoff = watermark.map(RollupWatermark::getRolledUpTo);
+
+        if (previousCutoff.isPresent() && !previousCutoff.get().isBefore(cutoff)) {
+            return 0;
+        }
+
+        List<TransactionVolume> volumes = previousCutoff
+                .map(after -> transactionRepository.sumVolumeByHourCreatedBetween(after, cutoff))
+                .orElseGet(() -> transactionRepository.sumVolumeByHourCreatedUpTo(cutoff));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            mergeIntoRollups(granularity, volumes, now);
+        }
+
+        RollupWatermark rolledUp = watermark.orElseGet(() -> RollupWatermark.builder().name(WATERMARK).build());
+        rolledUp.setRolledUpTo(cutoff);
+        rolledUp.setUpdatedOn(now);
+        rollupWatermarkRepository.save(rolledUp);
+
+        log.info("Transaction rollups updated with [%d] hourly volumes up to [%s]".formatted(volumes.size(), cutoff));
+        return volumes.size();
+    }
+
+    private void mergeIntoRollups(RollupGranularity granularity, List<TransactionVolume> volumes, LocalDateTime now) {
+
+        if (volumes.isEmpty()) {
+            return;
+        }
+
+        List<LocalDateTime> bucketStarts = volumes.stream()
+                .map(volume -> granularity.bucketOf(volume.getHourStart()))
+                .distinct()
+                .toList();
+
+        Map<RollupKey, TransactionRollup> rollups = transactionRollupRepository.findAllByGranularityAndBucketStartIn(granularity, bucketStarts)
+                .stream()
+                .collect(Collectors.toMap(rollup -> new RollupKey(rollup.getBucketStart(), rollup.getType(), rollup.getTypeStatus()), Function.identity()));
+
+        for (TransactionVolume volume : volumes) {
+            LocalDateTime bucketStart = granularity.bucketOf(volume.getHourStart());
+            TransactionRollup rollup = rollups.computeIfAbsent(new RollupKey(bucketStart, volume.getType(), volume.getTypeStatus()), key -> emptyRollup(granularity, key));
+
+            rollup.setTransactionCount(rollup.getTransactionCount() + volume.getTransactionCount());
+            rollup.setSucceededAmount(rollup.getSucceededAmount().plus(Money.of(volume.getSucceededAmount())));
+            rollup.setFailedCount(rollup.getFailedCount() + volume.getFailedCount());
+            rollup.setUpdatedOn(now);
+        }
+
+        transactionRollupRepository.saveAll(rollups.values());
+    }
+
+    private TransactionRollup emptyRollup(RollupGranularity granularity, RollupKey key) {
+
+        return TransactionRollup.builder()
+                .granularity(granularity)
+                .bucketStart(key.bucketStart())
+                .type(key.type())
+                .typeStatus(key.typeStatus())
+                .succeededAmount(Money.ZERO)
+                .build();
+    }
+
+    // The bucket containing from is included whole, to is exclusive.
+    @Transactional(readOnly = true)
+    public TransactionVolumeReport getTransactionVolume(LocalDateTime from, LocalDateTime to, RollupGranularity granularity) {
+
+        List<TransactionVolumeBucket> buckets = transactionRollupRepository.findAllInRange(granularity, granularity.bucketOf(from), to)
+                .stream()
+                .map(rollup -> TransactionVolumeBucket.builder()
+                        .bucketStart(rollup.getBucketStart())
+                        .type(rollup.getType())
+                        .typeStatus(rollup.getTypeStatus())
+                        .transactionCount(rollup.getTransactionCount())
+                        .succeededAmount(rollup.getSucceededAmount().toBigDecimal())
+                        .failedCount(rollup.getFailedCount())
+                        .build())
+                .toList();
+
+        return TransactionVolumeReport.builder()
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .rolledUpTo(rollupWatermarkRepository.findById(WATERMARK).map(RollupWatermark::getRolledUpTo).orElse(null))
+                .buckets(buckets)
+                .build();
+    }
+
+    private record RollupKey(LocalDateTime bucketStart, TransactionType type, TransactionTypeStatus typeStatus) {
+    }
+}
@@ -0,0 +1,222 @@
+package app.report.service;
+
+import app.money.Money;
+import app.report.model.TransactionSketch;
+import app.report.repository.TransactionSketchRepository;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionTypeStatus;
+import app.web.dto.TransactionSketchReport;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.hll.Union;
+import org.apache.datasketches.kll.KllDoublesSketch;
+import org.apache.datasketches.memory.Memory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approximate amount percentiles and distinct counterparty counts, kept as mergeable sketches per owner and day.
+ * Recorded transactions are sketched in memory and merged into the stored sketches by a periodic flush, so writing a
+ * transaction never waits on a sketch row; transactions not flushed yet are missing from the reports, and are lost
+ * if the instance stops before its next flush.
+ */
+@Slf4j
+@Service
+public class TransactionSketchService {
+
+    // Owner of the sketch row that covers the amounts of all owners.
+    public static final UUID ALL_OWNERS = new UUID(0L, 0L);
+
+    // Roughly 1.3% rank error for the amount percentiles and 1.6% error for the distinct counts.
+    private static final int AMOUNTS_K = 200;
+    private static final int COUNTERPARTIES_LG_K = 12;
+
+    private final TransactionSketchRepository transactionSketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<SketchKey, PendingSketch> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TransactionSketchService(TransactionSketchRepository transactionSketchRepository, PlatformTransactionManager transactionManager) {
+        this.transactionSketchRepository = transactionSketchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void transactionsRecorded(Collection<Transaction> transactions) {
+        AfterCommit.run(() -> transactions.forEach(this::sketch));
+    }
+
+    // Every transaction names its owner as the sender or the receiver, so the owner is always one of the
+    // counterparties sketched and is subtracted when the distinct count is read.
+    private void sketch(Transaction transaction) {
+
+        LocalDate day = transaction.getCreatedOn().toLocalDate();
+        boolean succeededMain = transaction.getStatus() == TransactionStatus.SUCCEEDED && transaction.getTypeStatus() == TransactionTypeStatus.MAIN;
+        long amountInCents = transaction.getAmount().cents();
+
+        pending.compute(new SketchKey(transaction.getOwner().getId(), day), (key, sketch) -> {
+            PendingSketch owner = sketch == null ? PendingSketch.forOwner() : sketch;
+            owner.counterparties().update(transaction.getSender());
+            owner.counterparties().update(transaction.getReceiver());
+            if (succeededMain) {
+                owner.amounts().update(amountInCents);
+            }
+            return owner;
+        });
+
+        if (succeededMain) {
+            pending.compute(new SketchKey(ALL_OWNERS, day), (key, sketch) -> {
+                PendingSketch all = sketch == null ? PendingSketch.forAllOwners() : sketch;
+                all.amounts().update(amountInCents);
+                return all;
+            });
+        }
+    }
+
+    public int flush() {
+
+        Map<SketchKey, PendingSketch> drained = new HashMap<>();
+        for (SketchKey key : pending.keySet()) {
+            PendingSketch sketch = pending.remove(key);
+            if (sketch != null) {
+                drained.put(key, sketch);
+            }
+        }
+
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> mergeIntoStoredSketches(drained));
+        } catch (RuntimeException e) {
+            // Handed back so the next flush retries them together with whatever was recorded meanwhile.
+            drained.forEach((key, sketch) -> pending.merge(key, sketch, PendingSketch::mergedWith));
+            throw e;
+        }
+
+        log.info("Flushed transaction sketches of [%d] owner days".formatted(drained.size()));
+        return drained.size();
+    }
+
+    private void mergeIntoStoredSketches(Map<SketchKey, PendingSketch> drained) {
+
+        Map<LocalDate, List<SketchKey>> keysByDay = drained.keySet().stream().collect(Collectors.groupingBy(SketchKey::day));
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Map.Entry<LocalDate, List<SketchKey>> day : keysByDay.entrySet()) {
+            List<UUID> ownerIds = day.getValue().stream().map(SketchKey::ownerId).toList();
+            Map<UUID, TransactionSketch> stored = transactionSketchRepository.findAllForUpdate(ownerIds, day.getKey())
+                    .stream()
+                    .collect(Collectors.toMap(TransactionSketch::getOwnerId, Function.identity()));
+
+            List<TransactionSketch> merged = new ArrayList<>();
+            for (SketchKey key : day.getValue()) {
+                PendingSketch sketch = drained.get(key);
+                TransactionSketch row = stored.get(key.ownerId());
+                if (row != null) {
+                    // Merged into the copy read from the row, the drained sketch is left as it was for a retry.
+                    sketch = PendingSketch.of(row).mergedWith(sketch);
+                } else {
+                    row = TransactionSketch.builder().ownerId(key.ownerId()).bucketDay(key.day()).build();
+                }
+                row.setAmounts(sketch.amounts().toByteArray());
+                row.setCounterparties(sketch.counterparties() == null ? null : sketch.counterparties().toCompactByteArray());
+                row.setUpdatedOn(now);
+                merged.add(row);
+            }
+
+            transactionSketchRepository.saveAll(merged);
+        }
+    }
+
+    public TransactionSketchReport getAmountPercentiles(LocalDate from, LocalDate to) {
+        return getReport(ALL_OWNERS, from, to);
+    }
+
+    public TransactionSketchReport getOwnerReport(UUID ownerId, LocalDate from, LocalDate to) {
+        return getReport(ownerId, from, to);
+    }
+
+    private TransactionSketchReport getReport(UUID ownerId, LocalDate from, LocalDate to) {
+
+        KllDoublesSketch amounts = KllDoublesSketch.newHeapInstance(AMOUNTS_K);
+        Union counterparties = new Union(COUNTERPARTIES_LG_K);
+
+        for (TransactionSketch row : transactionSketchRepository.findAllByOwnerIdAndBucketDayBetween(ownerId, from, to)) {
+            amounts.merge(KllDoublesSketch.heapify(Memory.wrap(row.getAmounts())));
+            if (row.getCounterparties() != null) {
+                counterparties.update(HllSketch.heapify(row.getCounterparties()));
+            }
+        }
+
+        boolean allOwners = ALL_OWNERS.equals(ownerId);
+
+        return TransactionSketchReport.builder()
+                .ownerId(allOwners ? null : ownerId)
+                .from(from)
+                .to(to)
+                .transactionCount(amounts.getN())
+                .p50Amount(percentile(amounts, 0.50))
+                .p95Amount(percentile(amounts, 0.95))
+                .p99Amount(percentile(amounts, 0.99))
+                .distinctCounterparties(allOwners ? null : Math.max(0, Math.round(counterparties.getResult().getEstimate()) - 1))
+                .build();
+    }
+
+    private static BigDecimal percentile(KllDoublesSketch amounts, double rank) {
+
+        if (amounts.isEmpty()) {
+            return null;
+        }
+
+        return Money.ofCents(Math.round(amounts.getQuantile(rank))).toBigDecimal();
+    }
+
+    private record SketchKey(UUID ownerId, LocalDate day) {
+    }
+
+    private record PendingSketch(KllDoublesSketch amounts, HllSketch counterparties) {
+
+        static PendingSketch forOwner() {
+            return new PendingSketch(KllDoublesSketch.newHeapInstance(AMOUNTS_K), new HllSketch(COUNTERPARTIES_LG_K));
+        }
+
+        static PendingSketch forAllOwners() {
+            return new PendingSketch(KllDoublesSketch.newHeapInstance(AMOUNTS_K), null);
+        }
+
+        static PendingSketch of(TransactionSketch row) {
+
+            KllDoublesSketch amounts = KllDoublesSketch.heapify(Memory.wrap(row.getAmounts()));
+            HllSketch counterparties = row.getCounterparties() == null ? null : HllSketch.heapify(row.getCounterparties());
+            return new PendingSketch(amounts, counterparties);
+        }
+
+        PendingSketch mergedWith(PendingSketch other) {
+
+            amounts.merge(other.amounts());
+
+            if (other.counterparties() == null) {
+                return this;
+            }
+
+            Union union = new Union(COUNTERPARTIES_LG_K);
+            if (counterparties != null) {
+                union.update(counterparties);
+            }
+            union.update(other.counterparties());
+            return new PendingSketch(amounts, union.getResult());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package app.scheduler;
+
+import app.ledger.service.LedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BalanceSnapshotJob {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Scheduled(cron = "${ledger.snapshot.cron:0 */5 * * * *}")
+    public void takeSnapshots() {
+
+        ledgerService.takeSnapshots();
+    }
+}
@@ -0,0 +1,19 @@
+package app.scheduler;
+
+import app.idempotency.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotencyRecordCleaner {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "0 0 * * * *")
+    public void deleteExpiredRecords() {
+
+        idempotencyService.deleteExpiredRecords();
+    }
+}
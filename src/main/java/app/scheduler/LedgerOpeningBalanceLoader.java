@@ -0,0 +1,53 @@
+package app.scheduler;
+
+import app.ledger.service.LedgerService;
+import app.wallet.service.WalletService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class LedgerOpeningBalanceLoader {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private WalletService walletService;
+
+    // Books the opening entries of wallets created before the ledger, so verifying their balance does not report
+    // the whole balance as drift. Runs again on the next start for wallets that failed.
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        List<UUID> walletIds;
+        try {
+            walletIds = ledgerService.findWalletIdsWithoutOpeningBalance();
+        } catch (RuntimeException e) {
+            log.error("Looking up wallets without an opening ledger entry failed.", e);
+            return;
+        }
+
+        if (walletIds.isEmpty()) {
+            return;
+        }
+
+        int failed = 0;
+        for (UUID walletId : walletIds) {
+            try {
+                walletService.openLedgerBalance(walletId);
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Opening the ledger of wallet with id [%s] failed.".formatted(walletId), e);
+            }
+        }
+
+        log.info("Opened the ledger of [%d] wallets, [%d] failed".formatted(walletIds.size() - failed, failed));
+    }
+}
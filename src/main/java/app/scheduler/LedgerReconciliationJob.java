@@ -0,0 +1,25 @@
+package app.scheduler;
+
+import app.ledger.service.LedgerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LedgerReconciliationJob {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Scheduled(cron = "${ledger.reconcile.cron:0 30 3 * * *}")
+    public void reconcileBalances() {
+
+        try {
+            ledgerService.reconcileBalances();
+        } catch (RuntimeException e) {
+            log.error("Reconciling wallet balances against the ledger failed, it will be retried on the next run.", e);
+        }
+    }
+}
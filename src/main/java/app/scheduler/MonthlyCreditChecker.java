@@ -7,7 +7,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Component
@@ -25,12 +24,8 @@ public class MonthlyCreditChecker {
         List<User> allUsersWithUnpaidCredit = userService.getAllUsersWithUnpaidCredit();
 
         for( User user : allUsersWithUnpaidCredit ) {
-
-            if (!user.getCredit().getAmount().equals(new BigDecimal(0))) {
-                userService.changeUserStatus(user.getId());
-                creditService.changeCreditStatus(user);
-            }
-
+            userService.changeUserStatus(user.getId());
+            creditService.changeCreditStatus(user);
         }
 
     }
@@ -0,0 +1,33 @@
+package app.scheduler;
+
+import app.outbox.service.OutboxRelay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class OutboxRelayJob {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.fixed-delay-ms:1000}")
+    public void relay() {
+
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (outboxRelay.relayBatch() < outboxRelay.getBatchSize()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed, the batch will be retried on the next run.", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package app.scheduler;
+
+import app.report.service.ReportCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class ReportCountersReconciler {
+
+    @Autowired
+    private ReportCounters reportCounters;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${reports.counters.reconcile-delay-ms:600000}", initialDelayString = "${reports.counters.reconcile-delay-ms:600000}")
+    public void reconcile() {
+
+        try {
+            reportCounters.reconcile();
+        } catch (RuntimeException e) {
+            log.error("Reconciling the report counters failed, they will be retried on the next run.", e);
+        }
+    }
+}
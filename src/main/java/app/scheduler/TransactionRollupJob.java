@@ -0,0 +1,19 @@
+package app.scheduler;
+
+import app.report.service.TransactionRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionRollupJob {
+
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+
+    @Scheduled(cron = "${reports.rollup.cron:0 */5 * * * *}")
+    public void rollUp() {
+
+        transactionRollupService.rollUp();
+    }
+}
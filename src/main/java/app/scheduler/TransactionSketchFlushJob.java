@@ -0,0 +1,32 @@
+package app.scheduler;
+
+import app.report.service.TransactionSketchService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class TransactionSketchFlushJob {
+
+    @Autowired
+    private TransactionSketchService transactionSketchService;
+
+    @Scheduled(fixedDelayString = "${reports.sketches.flush-delay-ms:60000}")
+    public void flush() {
+
+        try {
+            transactionSketchService.flush();
+        } catch (RuntimeException e) {
+            log.error("Flushing transaction sketches failed, they will be retried on the next run.", e);
+        }
+    }
+
+    // Runs before the service and the data source are destroyed, so the last sketches still reach the database.
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
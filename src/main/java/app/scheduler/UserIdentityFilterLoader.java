@@ -0,0 +1,26 @@
+package app.scheduler;
+
+import app.user.service.UserIdentityFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class UserIdentityFilterLoader {
+
+    @Autowired
+    private UserIdentityFilter userIdentityFilter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        try {
+            userIdentityFilter.rebuild();
+        } catch (RuntimeException e) {
+            log.error("Building the username and email filter failed, registrations keep checking the database.", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package app.scheduler;
+
+import app.user.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class UserUniqueKeyMigration {
+
+    private static final String UNIQUE_KEYS = """
+            select tc.constraint_name, kcu.column_name
+            from information_schema.table_constraints tc
+            join information_schema.key_column_usage kcu
+                on kcu.constraint_schema = tc.constraint_schema
+                and kcu.constraint_name = tc.constraint_name
+                and kcu.table_name = tc.table_name
+            where tc.constraint_type = 'UNIQUE'
+                and lower(tc.table_name) = 'user'
+                and tc.table_schema in (?, ?)
+            """;
+
+    private static final Map<String, String> KEY_NAMES = Map.of(
+            "username", User.UK_USERNAME,
+            "email", User.UK_EMAIL);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ddl-auto=update adds the named unique keys but leaves the auto-named ones of older schemas on the same columns,
+    // and a duplicate is then reported under a name UserService does not recognise. The named key is added when
+    // missing before any other single-column unique key on username or email is dropped, so the column is never left
+    // unguarded. DROP CONSTRAINT needs MySQL 8.0.19 or later.
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+
+        try {
+            Map<String, List<String>> keysByColumn = findSingleColumnUniqueKeys();
+
+            KEY_NAMES.forEach((column, keyName) -> {
+                List<String> keys = keysByColumn.getOrDefault(column, List.of());
+
+                if (keys.stream().noneMatch(keyName::equalsIgnoreCase)) {
+                    jdbcTemplate.execute("alter table user add constraint %s unique (%s)".formatted(keyName, column));
+                    log.info("Added unique key [%s] on user.%s".formatted(keyName, column));
+                }
+
+                for (String key : keys) {
+                    if (!key.equalsIgnoreCase(keyName)) {
+                        jdbcTemplate.execute("alter table user drop constraint %s".formatted(key));
+                        log.info("Dropped unique key [%s] on user.%s in favour of [%s]".formatted(key, column, keyName));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Migrating the unique keys of the user table failed, it is retried on the next start.", e);
+        }
+    }
+
+    private Map<String, List<String>> findSingleColumnUniqueKeys() {
+
+        String[] schema = jdbcTemplate.execute((ConnectionCallback<String[]>) connection -> new String[]{connection.getCatalog(), connection.getSchema()});
+
+        Map<String, List<String>> columnsByKey = new LinkedHashMap<>();
+        jdbcTemplate.query(UNIQUE_KEYS, resultSet -> {
+            columnsByKey.computeIfAbsent(resultSet.getString(1), key -> new ArrayList<>()).add(resultSet.getString(2).toLowerCase(Locale.ROOT));
+        }, schema[0], schema[1]);
+
+        Map<String, List<String>> keysByColumn = new LinkedHashMap<>();
+        columnsByKey.forEach((key, columns) -> {
+            if (columns.size() == 1) {
+                keysByColumn.computeIfAbsent(columns.getFirst(), column -> new ArrayList<>()).add(key);
+            }
+        });
+
+        return keysByColumn;
+    }
+}
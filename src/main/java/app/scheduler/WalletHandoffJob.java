@@ -0,0 +1,25 @@
+package app.scheduler;
+
+import app.wallet.service.WalletEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class WalletHandoffJob {
+
+    @Autowired
+    private WalletEngine walletEngine;
+
+    @Scheduled(fixedDelayString = "${wallet.engine.handoff-recovery-delay-ms:60000}")
+    public void recoverHandoffs() {
+
+        try {
+            walletEngine.recoverHandoffs();
+        } catch (RuntimeException e) {
+            log.error("Wallet handoff recovery failed, it will be retried on the next run.", e);
+        }
+    }
+}
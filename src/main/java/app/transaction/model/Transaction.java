@@ -1,5 +1,6 @@
 package app.transaction.model;
 
+import app.money.Money;
 import app.user.model.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -7,7 +8,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -16,13 +16,17 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_transaction_owner_created_on_id", columnList = "owner_id, created_on, id"),
+        @Index(name = "idx_transaction_created_on", columnList = "created_on")
+})
 public class Transaction {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(optional = false)
     private User owner;
 
     @Column(nullable = false)
@@ -32,10 +36,10 @@ public class Transaction {
     private String receiver;
 
     @Column(nullable = false)
-    private BigDecimal amount;
+    private Money amount;
 
     @Column(nullable = false)
-    private BigDecimal balanceLeft;
+    private Money balanceLeft;
 
     @Column(nullable = false)
     @Enumerated(value = EnumType.STRING)
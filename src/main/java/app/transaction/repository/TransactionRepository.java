@@ -1,19 +1,66 @@
 package app.transaction.repository;
 
 import app.transaction.model.Transaction;
+import app.web.dto.TransactionsReport;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
-    List<Transaction> findAllTransactionByOwnerId(UUID ownerId);
+    String SELECT_SUMMARY = "select new app.transaction.repository.TransactionSummary(t.id, t.sender, t.receiver, t.amount, t.balanceLeft, t.type, t.status, t.typeStatus, t.description, t.failureReason, t.createdOn) from Transaction t";
 
-    List<Transaction> findAllBySenderOrReceiver(String sender, String receiver);
+    String SELECT_HOURLY_VOLUME = """
+            select new app.transaction.repository.TransactionVolume(
+                year(t.createdOn), month(t.createdOn), day(t.createdOn), hour(t.createdOn), t.type, t.typeStatus,
+                count(t),
+                coalesce(sum(case when t.status = app.transaction.model.TransactionStatus.SUCCEEDED then t.amount end), 0),
+                coalesce(sum(case when t.status = app.transaction.model.TransactionStatus.FAILED then 1 else 0 end), 0))
+            from Transaction t
+            """;
+
+    String GROUP_BY_HOUR = " group by year(t.createdOn), month(t.createdOn), day(t.createdOn), hour(t.createdOn), t.type, t.typeStatus";
 
     Optional<Transaction> findByIdAndOwnerId(UUID id, UUID ownerId);
+
+    @Query(SELECT_SUMMARY + " where t.owner.id = :ownerId order by t.createdOn desc, t.id desc")
+    List<TransactionSummary> findLatestByOwnerId(UUID ownerId, Limit limit);
+
+    @Query(SELECT_SUMMARY + """
+             where t.owner.id = :ownerId and (t.createdOn < :createdOn or (t.createdOn = :createdOn and t.id < :id))
+            order by t.createdOn desc, t.id desc
+            """)
+    List<TransactionSummary> findByOwnerIdBefore(UUID ownerId, LocalDateTime createdOn, UUID id, Limit limit);
+
+    // Fetch size makes the driver hand rows over in chunks instead of reading the whole history into memory.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query(SELECT_SUMMARY + " where t.owner.id = :ownerId order by t.createdOn desc, t.id desc")
+    Stream<TransactionSummary> streamAllByOwnerId(UUID ownerId);
+
+    @Query("""
+            select new app.web.dto.TransactionsReport(
+                coalesce(sum(case when t.typeStatus = app.transaction.model.TransactionTypeStatus.MAIN then 1 else 0 end), 0),
+                coalesce(sum(case when t.typeStatus = app.transaction.model.TransactionTypeStatus.MAIN and t.status = app.transaction.model.TransactionStatus.SUCCEEDED then t.amount end), 0),
+                coalesce(sum(case when t.status = app.transaction.model.TransactionStatus.SUCCEEDED then 1 else 0 end), 0),
+                coalesce(sum(case when t.status = app.transaction.model.TransactionStatus.FAILED then 1 else 0 end), 0),
+                local datetime)
+            from Transaction t
+            """)
+    TransactionsReport getReport();
+
+    @Query(SELECT_HOURLY_VOLUME + " where t.createdOn <= :upTo" + GROUP_BY_HOUR)
+    List<TransactionVolume> sumVolumeByHourCreatedUpTo(LocalDateTime upTo);
+
+    @Query(SELECT_HOURLY_VOLUME + " where t.createdOn > :after and t.createdOn <= :upTo" + GROUP_BY_HOUR)
+    List<TransactionVolume> sumVolumeByHourCreatedBetween(LocalDateTime after, LocalDateTime upTo);
 }
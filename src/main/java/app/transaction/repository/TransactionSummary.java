@@ -0,0 +1,35 @@
+package app.transaction.repository;
+
+import app.money.Money;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns of a transaction shown in the history list, read without the owner and its wallets and credit.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionSummary {
+
+    private UUID id;
+    private String sender;
+    private String receiver;
+    private Money amount;
+    private Money balanceLeft;
+    private TransactionType type;
+    private TransactionStatus status;
+    private TransactionTypeStatus typeStatus;
+    private String description;
+    private String failureReason;
+    private LocalDateTime createdOn;
+}
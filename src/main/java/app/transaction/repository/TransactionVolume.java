@@ -0,0 +1,35 @@
+package app.transaction.repository;
+
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transactions of one type and type status created within one hour, aggregated by the database.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionVolume {
+
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private TransactionType type;
+    private TransactionTypeStatus typeStatus;
+    private long transactionCount;
+    private BigDecimal succeededAmount;
+    private long failedCount;
+
+    public LocalDateTime getHourStart() {
+        return LocalDateTime.of(year, month, day, hour, 0);
+    }
+}
@@ -0,0 +1,37 @@
+package app.transaction.service;
+
+import app.exception.InvalidCursorException;
+import app.transaction.repository.TransactionSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a user's transaction history, newest first. Pages continue strictly after (createdOn, id), so rows
+ * inserted while a user is paging never shift or repeat later pages.
+ */
+public record TransactionCursor(LocalDateTime createdOn, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TransactionCursor of(TransactionSummary transaction) {
+        return new TransactionCursor(transaction.getCreatedOn(), transaction.getId());
+    }
+
+    public static TransactionCursor decode(String cursor) {
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new TransactionCursor(LocalDateTime.parse(decoded.substring(0, separator)), UUID.fromString(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid transaction cursor [%s].".formatted(cursor));
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((createdOn + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
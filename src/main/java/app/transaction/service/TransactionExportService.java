@@ -0,0 +1,104 @@
+package app.transaction.service;
+
+import app.transaction.model.TransactionExportFormat;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.repository.TransactionSummary;
+import app.web.dto.TransactionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,createdOn,type,status,typeStatus,sender,receiver,amount,balanceLeft,description,failureReason";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public TransactionExportService(TransactionRepository transactionRepository, ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Rows are written as they are read from the database, so memory use does not grow with the history.
+    // The output stream belongs to the caller and is flushed but not closed.
+    @Transactional(readOnly = true)
+    public void export(UUID ownerId, TransactionExportFormat format, OutputStream outputStream) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long rows = 0;
+
+        if (format == TransactionExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<TransactionSummary> transactions = transactionRepository.streamAllByOwnerId(ownerId)) {
+            Iterator<TransactionSummary> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                TransactionSummary transaction = iterator.next();
+                writer.write(format == TransactionExportFormat.CSV ? toCsvLine(transaction) : toJsonLine(transaction));
+                writer.write('\n');
+                rows++;
+            }
+        }
+
+        writer.flush();
+        log.info("Exported [%d] transactions of user with id [%s] as [%s]".formatted(rows, ownerId, format));
+    }
+
+    private String toJsonLine(TransactionSummary transaction) throws IOException {
+        return objectMapper.writeValueAsString(TransactionResponse.of(transaction));
+    }
+
+    private String toCsvLine(TransactionSummary transaction) {
+
+        return String.join(",",
+                csvField(transaction.getId()),
+                csvField(transaction.getCreatedOn()),
+                csvField(transaction.getType()),
+                csvField(transaction.getStatus()),
+                csvField(transaction.getTypeStatus()),
+                csvField(transaction.getSender()),
+                csvField(transaction.getReceiver()),
+                csvField(transaction.getAmount()),
+                csvField(transaction.getBalanceLeft()),
+                csvField(transaction.getDescription()),
+                csvField(transaction.getFailureReason()));
+    }
+
+    private static String csvField(Object value) {
+
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+
+        // Keeps spreadsheets from evaluating user supplied text such as a description as a formula.
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            text = "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+
+        return text;
+    }
+}
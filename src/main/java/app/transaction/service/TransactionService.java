@@ -1,51 +1,90 @@
 package app.transaction.service;
 
+import app.dashboard.service.HomeDashboardService;
+import app.money.Money;
+import app.report.service.ReportCounters;
+import app.report.service.TransactionSketchService;
 import app.transaction.model.Transaction;
 import app.transaction.model.TransactionStatus;
 import app.transaction.model.TransactionType;
 import app.transaction.model.TransactionTypeStatus;
 import app.transaction.repository.TransactionRepository;
+import app.transaction.repository.TransactionSummary;
 import app.user.model.User;
+import app.web.dto.TransactionPage;
+import app.web.dto.TransactionResponse;
 import app.web.dto.TransactionsReport;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class TransactionService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
+    private final ReportCounters reportCounters;
+    private final TransactionSketchService transactionSketchService;
+    private final HomeDashboardService homeDashboardService;
 
     @Autowired
-    public TransactionService(TransactionRepository transactionRepository) {
+    public TransactionService(TransactionRepository transactionRepository, ReportCounters reportCounters, TransactionSketchService transactionSketchService, HomeDashboardService homeDashboardService) {
         this.transactionRepository = transactionRepository;
+        this.reportCounters = reportCounters;
+        this.transactionSketchService = transactionSketchService;
+        this.homeDashboardService = homeDashboardService;
     }
 
-    public List<Transaction> getAllUserTransactions(UUID id) {
+    // Newest first. One row more than the page is fetched to tell whether an older page exists.
+    public TransactionPage getUserTransactionsPage(UUID ownerId, String cursor, int size) {
 
-        List<Transaction> transactions = transactionRepository.findAllTransactionByOwnerId(id);
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
 
-        if (!transactions.isEmpty()) {
-            transactions.stream().sorted(Comparator.comparing(Transaction::getCreatedOn)).toList().reversed();
+        List<TransactionSummary> transactions;
+        if (cursor == null || cursor.isBlank()) {
+            transactions = transactionRepository.findLatestByOwnerId(ownerId, limit);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findByOwnerIdBefore(ownerId, position.createdOn(), position.id(), limit);
         }
 
-        return transactions;
+        boolean hasNextPage = transactions.size() > pageSize;
+        List<TransactionSummary> page = hasNextPage ? transactions.subList(0, pageSize) : transactions;
+
+        return TransactionPage.builder()
+                .transactions(page.stream().map(TransactionResponse::of).toList())
+                .nextCursor(hasNextPage ? TransactionCursor.of(page.getLast()).encode() : null)
+                .build();
     }
 
     public Transaction getTransaction(UUID id, UUID ownerId) {
         return transactionRepository.findByIdAndOwnerId(id, ownerId).orElseThrow();
     }
 
-    public Transaction initializeTransaction(User owner, String sender, String receiver, BigDecimal amount, BigDecimal balanceLeft, TransactionType type, String description, TransactionStatus status, TransactionTypeStatus typeStatus, String failureReason) {
+    public Transaction initializeTransaction(User owner, String sender, String receiver, Money amount, Money balanceLeft, TransactionType type, String description, TransactionStatus status, TransactionTypeStatus typeStatus, String failureReason) {
+
+        Transaction transaction = buildTransaction(owner, sender, receiver, amount, balanceLeft, type, description, status, typeStatus, failureReason);
+
+        transactionRepository.save(transaction);
+        reportCounters.transactionsRecorded(List.of(transaction));
+        transactionSketchService.transactionsRecorded(List.of(transaction));
+        homeDashboardService.ownerChanged(owner.getId());
+
+        return transaction;
+    }
+
+    public Transaction buildTransaction(User owner, String sender, String receiver, Money amount, Money balanceLeft, TransactionType type, String description, TransactionStatus status, TransactionTypeStatus typeStatus, String failureReason) {
 
-        Transaction transaction = Transaction.builder()
+        return Transaction.builder()
                 .owner(owner)
                 .sender(sender)
                 .receiver(receiver)
@@ -58,35 +97,19 @@ public class TransactionService {
                 .failureReason(failureReason)
                 .createdOn(LocalDateTime.now())
                 .build();
+    }
 
-        transactionRepository.save(transaction);
+    public List<Transaction> saveTransactions(List<Transaction> transactions) {
 
-        return transaction;
+        List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+        reportCounters.transactionsRecorded(savedTransactions);
+        transactionSketchService.transactionsRecorded(savedTransactions);
+        homeDashboardService.ownersChanged(savedTransactions.stream().map(transaction -> transaction.getOwner().getId()).collect(Collectors.toSet()));
+
+        return savedTransactions;
     }
 
     public TransactionsReport getTransactionsReport() {
-        List<Transaction> allTransactions = transactionRepository.findAll();
-        List<Transaction> totalTransactions = allTransactions.stream()
-                .filter(transaction -> transaction.getTypeStatus() == TransactionTypeStatus.MAIN)
-                .toList();
-        BigDecimal totalTransactionAmount = totalTransactions
-                .stream()
-                .filter(transaction -> transaction.getStatus() == TransactionStatus.SUCCEEDED)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        long successfulTransactions = allTransactions.stream()
-                .filter(transaction -> transaction.getStatus() == TransactionStatus.SUCCEEDED)
-                .count();
-        long unsuccessfulTransactions = allTransactions.stream()
-                .filter(transaction -> transaction.getStatus() == TransactionStatus.FAILED)
-                .count();
-
-        return TransactionsReport.builder()
-                .totalTransactions(totalTransactions.size())
-                .totalTransactionAmount(totalTransactionAmount)
-                .successfulTransactions(successfulTransactions)
-                .unsuccessfulTransactions(unsuccessfulTransactions)
-                .createdOn(LocalDateTime.now())
-                .build();
+        return reportCounters.getTransactionsReport();
     }
 }
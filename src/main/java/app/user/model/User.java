@@ -1,12 +1,14 @@
 package app.user.model;
 
-import app.credit.model.Credit;
 import app.wallet.model.Wallet;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -18,14 +20,22 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")},
+        indexes = @Index(name = "idx_user_created_on", columnList = "created_on"))
+@NamedEntityGraph(name = "User.wallets", attributeNodes = @NamedAttributeNode("wallets"))
 //@Table(name = "users")
 public class User {
 
+    public static final String UK_USERNAME = "uk_user_username";
+    public static final String UK_EMAIL = "uk_user_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
@@ -34,16 +44,13 @@ public class User {
     @Column(length = 1000)
     private String profilePic;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     private String firstName;
 
     private String lastName;
 
-    @OneToOne(fetch = FetchType.EAGER, mappedBy = "owner")
-    private Credit credit;
-
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private UserRole role;
@@ -57,6 +64,10 @@ public class User {
     @Column(nullable = false)
     private boolean isActive;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "owner")
+    // Lazy, so left out of toString, equals and hashCode to keep them from loading the wallets.
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @BatchSize(size = 50)
+    @OneToMany(mappedBy = "owner")
     private List<Wallet> wallets = new ArrayList<>();
 }
@@ -1,57 +1,84 @@
 package app.user.model;
 
+import app.user.repository.UserAuthRecord;
 import lombok.Data;
+import lombok.ToString;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
+// Kept in the session, so it holds only what authorization needs; the password hash is erased after login.
 @Data
-public class UserPrinciple implements UserDetails {
+public class UserPrinciple implements UserDetails, CredentialsContainer {
 
-    private User user;
+    private final UUID id;
+    private final String username;
+    @ToString.Exclude
+    private String password;
+    private final UserRole role;
+    private final boolean isActive;
+
+    public UserPrinciple (UserAuthRecord authRecord) {
+        this.id = authRecord.getId();
+        this.username = authRecord.getUsername();
+        this.password = authRecord.getPassword();
+        this.role = authRecord.getRole();
+        this.isActive = authRecord.isActive();
+    }
 
     public UserPrinciple (User user) {
-        this.user = user;
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.password = user.getPassword();
+        this.role = user.getRole();
+        this.isActive = user.isActive();
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
 
-        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
+        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.name());
 
         return List.of(authority);
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return username;
     }
 
     @Override
     public boolean isAccountNonExpired() {
-        return user.isActive();
+        return isActive;
     }
 
     @Override
     public boolean isAccountNonLocked() {
-        return user.isActive();
+        return isActive;
     }
 
     @Override
     public boolean isCredentialsNonExpired() {
-        return user.isActive();
+        return isActive;
     }
 
     @Override
     public boolean isEnabled() {
-        return user.isActive();
+        return isActive;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
     }
 }
@@ -0,0 +1,51 @@
+package app.user.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What the users cache holds for a user: its columns without the password and the wallets. Being immutable it can be
+ * shared by concurrent requests, each of which is handed its own {@link User} built from it.
+ */
+public record UserSnapshot(UUID id,
+                           String username,
+                           String profilePic,
+                           String email,
+                           String firstName,
+                           String lastName,
+                           UserRole role,
+                           LocalDateTime createdOn,
+                           LocalDateTime updatedOn,
+                           boolean isActive) {
+
+    public static UserSnapshot of(User user) {
+
+        return new UserSnapshot(
+                user.getId(),
+                user.getUsername(),
+                user.getProfilePic(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getRole(),
+                user.getCreatedOn(),
+                user.getUpdatedOn(),
+                user.isActive());
+    }
+
+    public User toUser() {
+
+        return User.builder()
+                .id(id)
+                .username(username)
+                .profilePic(profilePic)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .role(role)
+                .createdOn(createdOn)
+                .updatedOn(updatedOn)
+                .isActive(isActive)
+                .build();
+    }
+}
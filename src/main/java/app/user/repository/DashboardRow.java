@@ -0,0 +1,44 @@
+package app.user.repository;
+
+import app.credit.model.CreditStatus;
+import app.money.Money;
+import app.user.model.UserRole;
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One wallet of a user joined with the user's own columns and credit, so the home dashboard is read in a single query.
+ * The wallet columns are null for a user without wallets.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardRow {
+
+    private UUID userId;
+    private String username;
+    private String email;
+    private String profilePic;
+    private UserRole role;
+    private boolean isActive;
+    private LocalDateTime createdOn;
+
+    private UUID walletId;
+    private WalletType walletType;
+    private WalletStatus walletStatus;
+    private Money walletBalance;
+    private LocalDateTime walletUpdatedOn;
+
+    private CreditStatus creditStatus;
+    private Money creditAmount;
+    private LocalDate nextPaymentOn;
+}
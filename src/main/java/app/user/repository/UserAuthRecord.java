@@ -0,0 +1,28 @@
+package app.user.repository;
+
+import app.user.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The part of a user a login needs, loaded without the user's associations.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserAuthRecord implements Serializable {
+
+    private UUID id;
+    private String username;
+    @ToString.Exclude
+    private String password;
+    private UserRole role;
+    private boolean isActive;
+}
@@ -0,0 +1,16 @@
+package app.user.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserIdentity {
+
+    private String username;
+    private String email;
+}
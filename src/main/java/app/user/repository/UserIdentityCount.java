@@ -0,0 +1,19 @@
+package app.user.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many users already hold a username and an email, counted in one query over both unique columns.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserIdentityCount {
+
+    private long usernames;
+    private long emails;
+}
@@ -1,15 +1,78 @@
 package app.user.repository;
 
 import app.user.model.User;
+import app.web.dto.UsersReport;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    @Query("""
+            select new app.user.repository.UserIdentityCount(
+                (select count(u) from User u where u.username = :username),
+                (select count(u) from User u where u.email = :email))
+            """)
+    UserIdentityCount countByUsernameOrEmail(String username, String email);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new app.user.repository.UserIdentity(u.username, u.email) from User u")
+    Stream<UserIdentity> streamAllIdentities();
+
+    @Query("""
+            select new app.web.dto.UsersReport(
+                count(u),
+                coalesce(sum(case when u.isActive = true then 1 else 0 end), 0),
+                coalesce(sum(case when u.isActive = false then 1 else 0 end), 0),
+                coalesce(sum(case when u.role = app.user.model.UserRole.ADMIN then 1 else 0 end), 0),
+                coalesce(sum(case when u.role = app.user.model.UserRole.USER then 1 else 0 end), 0),
+                local datetime)
+            from User u
+            """)
+    UsersReport getReport();
+
+    @EntityGraph("User.wallets")
+    Optional<User> findWithWalletsById(UUID id);
+
+    @Query("select new app.user.repository.UserAuthRecord(u.id, u.username, u.password, u.role, u.isActive) from User u where u.username = :username")
+    Optional<UserAuthRecord> findAuthRecordByUsername(String username);
+
+    @Query("select u.updatedOn from User u where u.id = :id")
+    Optional<LocalDateTime> findUpdatedOnById(UUID id);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(UUID id, String password);
+
+    @Query("""
+            select new app.user.repository.DashboardRow(
+                u.id, u.username, u.email, u.profilePic, u.role, u.isActive, u.createdOn,
+                w.id, w.type, w.status, w.balance, w.updatedOn,
+                c.status, c.amount, c.nextPaymentOn)
+            from User u
+            left join Wallet w on w.owner = u
+            left join Credit c on c.owner = u
+            where u.id = :id
+            order by w.createdOn
+            """)
+    List<DashboardRow> findDashboardRows(UUID id);
+
+    @Query("select new app.user.repository.UserSummary(u.id, u.username, u.email, u.isActive, u.role, u.createdOn) from User u order by u.createdOn")
+    List<UserSummary> findAllSummaries();
 }
@@ -0,0 +1,27 @@
+package app.user.repository;
+
+import app.user.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns of a user shown in the admin users list, read without the user's wallets and credit.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSummary {
+
+    private UUID id;
+    private String username;
+    private String email;
+    private boolean isActive;
+    private UserRole role;
+    private LocalDateTime createdOn;
+}
@@ -1,29 +1,49 @@
 package app.user.service;
 
-import app.user.model.User;
+import app.config.CacheConfiguration;
 import app.user.model.UserPrinciple;
 import app.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
-public class MyUserDetailService implements UserDetailsService {
+public class MyUserDetailService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserAuthCache userAuthCache;
 
     @Autowired
-    public MyUserDetailService(UserRepository userRepository) {
+    public MyUserDetailService(UserRepository userRepository, UserAuthCache userAuthCache) {
         this.userRepository = userRepository;
+        this.userAuthCache = userAuthCache;
     }
 
+    // A new principle for every login: the authenticated one has its password erased.
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return new UserPrinciple(userAuthCache.get(username));
+    }
+
+    // Called after a successful login whose stored hash has a lower strength than the current one, with the
+    // password rehashed at the current strength.
+    @Override
+    @CacheEvict(value = CacheConfiguration.USERS, key = "#userDetails.id")
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+
+        UserPrinciple userPrinciple = (UserPrinciple) userDetails;
 
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User with username [%s] not found.".formatted(username)));
+        userRepository.updatePassword(userPrinciple.getId(), newPassword);
+        userAuthCache.userChanged(userPrinciple.getUsername());
+        userPrinciple.setPassword(newPassword);
 
-        return new UserPrinciple(user);
+        log.info("Rehashed password of user with id [%s] at the current strength".formatted(userPrinciple.getId()));
+        return userPrinciple;
     }
 }
@@ -0,0 +1,46 @@
+package app.user.service;
+
+import app.config.CacheConfiguration;
+import app.report.service.AfterCommit;
+import app.user.repository.UserAuthRecord;
+import app.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authentication records cached by username, so a login does not load the whole user. Every change to a user's
+ * password, role or status evicts their record; the TTL bounds how long a change committed by another instance
+ * takes to reach logins on this one.
+ */
+@Component
+public class UserAuthCache {
+
+    private final UserRepository userRepository;
+    private final Cache authRecords;
+
+    @Autowired
+    public UserAuthCache(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.authRecords = cacheManager.getCache(CacheConfiguration.USER_AUTH_RECORDS);
+    }
+
+    public UserAuthRecord get(String username) {
+
+        try {
+            return authRecords.get(username, () -> userRepository.findAuthRecordByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User with username [%s] not found.".formatted(username))));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof UsernameNotFoundException usernameNotFoundException) {
+                throw usernameNotFoundException;
+            }
+            throw e;
+        }
+    }
+
+    public void userChanged(String username) {
+        AfterCommit.run(() -> authRecords.evict(username));
+    }
+}
@@ -0,0 +1,111 @@
+package app.user.service;
+
+import app.user.repository.UserIdentity;
+import app.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.datasketches.filters.bloomfilter.BloomFilter;
+import org.apache.datasketches.filters.bloomfilter.BloomFilterBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of the usernames and emails already taken, so registering a fresh username and email skips the
+ * existence query. Names are compared case-insensitively, so a possible hit is never missed because of case.
+ * A name registered on another instance since the last rebuild may be missed; the unique constraints still reject it.
+ * Until the first rebuild every name is reported as possibly taken.
+ */
+@Slf4j
+@Component
+public class UserIdentityFilter {
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    private BloomFilter filter;
+    // Filter being rebuilt; names added meanwhile go into both, so none is lost when it replaces the current one.
+    private BloomFilter rebuilding;
+
+    @Autowired
+    public UserIdentityFilter(UserRepository userRepository,
+                              @Value("${users.identity-filter.expected-users:1000000}") long expectedUsers,
+                              @Value("${users.identity-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public synchronized boolean mightContainUsername(String username) {
+        return filter == null || filter.query(usernameKey(username));
+    }
+
+    public synchronized boolean mightContainEmail(String email) {
+        return filter == null || filter.query(emailKey(email));
+    }
+
+    public void add(String username, String email) {
+        update(usernameKey(username));
+        update(emailKey(email));
+    }
+
+    public void addEmail(String email) {
+        update(emailKey(email));
+    }
+
+    @Transactional(readOnly = true)
+    public void rebuild() {
+
+        // Every user puts a username and an email into the filter.
+        BloomFilter next = BloomFilterBuilder.createByAccuracy(2 * expectedUsers, falsePositiveRate);
+
+        synchronized (this) {
+            rebuilding = next;
+        }
+
+        long users = 0;
+        try (Stream<UserIdentity> identities = userRepository.streamAllIdentities()) {
+            for (UserIdentity identity : (Iterable<UserIdentity>) identities::iterator) {
+                synchronized (this) {
+                    next.update(usernameKey(identity.getUsername()));
+                    next.update(emailKey(identity.getEmail()));
+                }
+                users++;
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuilding = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            filter = next;
+            rebuilding = null;
+        }
+
+        log.info("Rebuilt the username and email filter from [%d] users".formatted(users));
+    }
+
+    private synchronized void update(String key) {
+
+        if (filter != null) {
+            filter.update(key);
+        }
+        if (rebuilding != null) {
+            rebuilding.update(key);
+        }
+    }
+
+    private static String usernameKey(String username) {
+        return "username:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,22 +1,34 @@
 package app.user.service;
 
+import app.config.CacheConfiguration;
 import app.credit.model.Credit;
 import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
 import app.email.service.EmailService;
 import app.exception.EmailAlreadyExistException;
 import app.exception.UsernameAlreadyExistException;
+import app.outbox.service.OutboxService;
+import app.report.service.ReportCounters;
 import app.user.model.User;
 import app.user.model.UserRole;
+import app.user.model.UserSnapshot;
+import app.user.repository.UserIdentityCount;
 import app.user.repository.UserRepository;
+import app.user.repository.UserSummary;
 import app.wallet.model.Wallet;
 import app.wallet.service.WalletService;
 import app.web.dto.EditRequest;
 import app.web.dto.RegisterRequest;
 import app.web.dto.UsersReport;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,7 +38,9 @@ import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -38,55 +52,85 @@ public class UserService {
     private final WalletService walletService;
     private final CreditService creditService;
     private final EmailService emailService;
+    private final ReportCounters reportCounters;
+    private final HomeDashboardService homeDashboardService;
+    private final UserIdentityFilter userIdentityFilter;
+    private final UserAuthCache userAuthCache;
+    private final OutboxService outboxService;
+    private final Cache users;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, WalletService walletService, CreditService creditService, EmailService emailService) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, WalletService walletService, CreditService creditService, EmailService emailService, ReportCounters reportCounters, HomeDashboardService homeDashboardService, UserIdentityFilter userIdentityFilter, UserAuthCache userAuthCache, OutboxService outboxService, CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.walletService = walletService;
         this.creditService = creditService;
         this.emailService = emailService;
+        this.reportCounters = reportCounters;
+        this.homeDashboardService = homeDashboardService;
+        this.userIdentityFilter = userIdentityFilter;
+        this.userAuthCache = userAuthCache;
+        this.outboxService = outboxService;
+        this.users = cacheManager.getCache(CacheConfiguration.USERS);
     }
 
-    @Cacheable("users")
     public List<User> getAllUsers() {
         return userRepository.findAll().stream().sorted(Comparator.comparing(User::getCreatedOn)).toList();
     }
 
+    @Cacheable(CacheConfiguration.USER_SUMMARIES)
+    public List<UserSummary> getUserSummaries() {
+        return userRepository.findAllSummaries();
+    }
+
     public List<User> getAllActiveUsers() {
         return this.getAllUsers().stream().filter(User::isActive).toList();
     }
 
     @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    @CacheEvict(value = CacheConfiguration.USER_SUMMARIES, allEntries = true)
     public User register(RegisterRequest registerRequest) {
 
-        Optional<User> optionalUserByUsername = userRepository.findByUsername(registerRequest.getUsername());
-        Optional<User> optionalUserByEmail = userRepository.findByEmail(registerRequest.getEmail());
+        // Fresh names skip the query; the unique constraints still reject a name the filter has not seen.
+        if (userIdentityFilter.mightContainEmail(registerRequest.getEmail()) || userIdentityFilter.mightContainUsername(registerRequest.getUsername())) {
 
-        if (optionalUserByEmail.isPresent()) {
-            log.info("User with email [%s] already exist.".formatted(registerRequest.getEmail()));
-            throw new EmailAlreadyExistException("User with this email already exist.");
-        }
+            UserIdentityCount taken = userRepository.countByUsernameOrEmail(registerRequest.getUsername(), registerRequest.getEmail());
+
+            if (taken.getEmails() > 0) {
+                log.info("User with email [%s] already exist.".formatted(registerRequest.getEmail()));
+                throw new EmailAlreadyExistException("User with this email already exist.");
+            }
 
-        if (optionalUserByUsername.isPresent()) {
-            log.info("User with username [%s] already exist.".formatted(registerRequest.getUsername()));
-            throw new UsernameAlreadyExistException("User with this username already exist.");
+            if (taken.getUsernames() > 0) {
+                log.info("User with username [%s] already exist.".formatted(registerRequest.getUsername()));
+                throw new UsernameAlreadyExistException("User with this username already exist.");
+            }
         }
 
-        User user = initializeUser(registerRequest);
+        // The user is persisted first, as wallets and credit can not reference a transient owner.
+        User user = userRepository.save(initializeUser(registerRequest));
         List<Wallet> userWallets = walletService.createUserWallets(user);
-        Credit userCredit = creditService.createCredit(user);
+        creditService.createCredit(user);
 
-        user.setCredit(userCredit);
         user.setWallets(userWallets);
-        userRepository.save(user);
+
+        try {
+            userRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw toAlreadyExistException(e);
+        }
+
+        userIdentityFilter.add(user.getUsername(), user.getEmail());
         emailService.saveNotificationSetting(user.getId(), false, user.getEmail());
+        reportCounters.userRegistered(user);
         log.info("User with id [%s] and username [%s] created successfully".formatted(user.getId(), user.getUsername()));
         return user;
     }
 
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfiguration.USERS, key = "#id"),
+            @CacheEvict(value = CacheConfiguration.USER_SUMMARIES, allEntries = true)
+    })
     public User editUser (UUID id, EditRequest editRequest) {
 
         Optional<User> optionalEmail = userRepository.findByEmail(editRequest.getEmail());
@@ -116,12 +160,40 @@ public class UserService {
 
         user.setUpdatedOn(LocalDateTime.now());
 
-        userRepository.save(user);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw toAlreadyExistException(e);
+        }
+
+        if (!editRequest.getEmail().isEmpty()) {
+            userIdentityFilter.addEmail(user.getEmail());
+        }
+        homeDashboardService.ownerChanged(user.getId());
+        userAuthCache.userChanged(user.getUsername());
         log.info("User with id [%s] and username [%s] successfully updated".formatted(user.getId(), user.getUsername()));
 
         return user;
     }
 
+    // Translates a violated unique constraint on the user, which also catches concurrent registrations of the same name.
+    private RuntimeException toAlreadyExistException(DataIntegrityViolationException exception) {
+
+        String constraintName = exception.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase(Locale.ROOT)
+                : "";
+
+        if (constraintName.contains(User.UK_EMAIL)) {
+            return new EmailAlreadyExistException("User with this email already exist.");
+        }
+
+        if (constraintName.contains(User.UK_USERNAME)) {
+            return new UsernameAlreadyExistException("User with this username already exist.");
+        }
+
+        return exception;
+    }
+
     private User initializeUser (RegisterRequest registerRequest) {
 
         return User.builder()
@@ -135,41 +207,71 @@ public class UserService {
                 .build();
     }
 
+    // Built from the cached snapshot, which every change to the user evicts, so each caller gets its own copy. The
+    // snapshot is loaded through the cache, so an eviction racing the load drops the loaded result. It has neither
+    // the password nor the wallets: use getUserWithWalletsById when the wallets are needed.
     public User getUserById(UUID id) {
-        return userRepository.findById(id).orElseThrow(() -> new RuntimeException("User with id [%s] do not exist.".formatted(id)));
+
+        UserSnapshot snapshot = users.get(id, () -> UserSnapshot.of(userRepository.findById(id).orElseThrow(() -> new RuntimeException("User with id [%s] do not exist.".formatted(id)))));
+
+        return snapshot.toUser();
     }
 
-    @CacheEvict(value = "users", allEntries = true)
+    // updatedOn is the user's version stamp: every change to the user moves it, including changes made by other
+    // instances, which this instance's cache does not hear about.
+    public boolean hasChangedSince(User snapshot) {
+        return !userRepository.findUpdatedOnById(snapshot.getId()).map(updatedOn -> updatedOn.equals(snapshot.getUpdatedOn())).orElse(false);
+    }
+
+    @CacheEvict(value = CacheConfiguration.USERS, key = "#id")
+    public void evictUser(UUID id) {
+    }
+
+    // For views that list the user's wallets; the wallets are fetched in the same query.
+    public User getUserWithWalletsById(UUID id) {
+        return userRepository.findWithWalletsById(id).orElseThrow(() -> new RuntimeException("User with id [%s] do not exist.".formatted(id)));
+    }
+
+    // Proxy carrying only the id, for setting associations without loading the user.
+    public User getUserReferenceById(UUID id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfiguration.USERS, key = "#id"),
+            @CacheEvict(value = CacheConfiguration.USER_SUMMARIES, allEntries = true)
+    })
     public void changeUserStatus(UUID id) {
 
-        User user = getUserById(id);
+        User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User with id [%s] do not exist.".formatted(id)));
 
         user.setActive(!user.isActive());
+        user.setUpdatedOn(LocalDateTime.now());
         userRepository.save(user);
+        reportCounters.userStatusChanged(user.isActive());
+        homeDashboardService.ownerChanged(user.getId());
+        userAuthCache.userChanged(user.getUsername());
     }
 
     public UsersReport getUsersReport() {
-
-        List<User> allUsers = userRepository.findAll();
-        long activeUsers = allUsers.stream().filter(User::isActive).count();
-        long inactiveUsers = allUsers.stream().filter(user -> !user.isActive()).count();
-        long adminUsers = allUsers.stream().filter(user -> user.getRole() == UserRole.ADMIN).count();
-        long nonAdmins = allUsers.stream().filter(user -> user.getRole() == UserRole.USER).count();
-
-        return UsersReport.builder()
-                .totalUsers(allUsers.size())
-                .activeUser(activeUsers)
-                .inactiveUsers(inactiveUsers)
-                .admins(adminUsers)
-                .nonAdmins(nonAdmins)
-                .createdOn(LocalDateTime.now())
-                .build();
+        return reportCounters.getUsersReport();
     }
 
+    // A credit reads zero until the relay applies its accruals, so owners with accruals still in the outbox owe
+    // money as well.
     public List<User> getAllUsersWithUnpaidCredit() {
 
         LocalDate date = LocalDate.now().with(TemporalAdjusters.firstDayOfMonth());
-        return getAllActiveUsers().stream().filter(user ->
-                user.getCredit().getNextPaymentOn().isEqual(date)).toList();
+        List<Credit> credits = creditService.getCreditsDueOn(date);
+
+        Set<UUID> ownerIdsWithPendingAccruals = outboxService.findOwnerIdsWithPendingCreditAccruals(credits.stream()
+                .filter(credit -> credit.getAmount().isZero())
+                .map(credit -> credit.getOwner().getId())
+                .toList());
+
+        return credits.stream()
+                .filter(credit -> !credit.getAmount().isZero() || ownerIdsWithPendingAccruals.contains(credit.getOwner().getId()))
+                .map(Credit::getOwner)
+                .toList();
     }
 }
@@ -1,5 +1,6 @@
 package app.wallet.model;
 
+import app.money.Money;
 import app.user.model.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -7,7 +8,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -16,17 +16,18 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_wallet_owner_status", columnList = "owner_id, status"))
 public class Wallet {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(optional = false)
     private User owner;
 
     @Column(nullable = false)
-    private BigDecimal balance;
+    private Money balance;
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -41,4 +42,7 @@ public class Wallet {
 
     @Column(nullable = false)
     private LocalDateTime updatedOn;
+
+    @Version
+    private long version;
 }
@@ -0,0 +1,45 @@
+package app.wallet.model;
+
+import app.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A transfer debited from its sender but not yet credited to its receiver. Written in the sender's batch and deleted
+ * in the batch that credits the receiver, so money in transit is never lost or credited twice.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_wallet_handoff_created_on", columnList = "created_on"))
+public class WalletHandoff {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID receiverWalletId;
+
+    @Column(nullable = false)
+    private Money amount;
+
+    @Column(nullable = false)
+    private String sender;
+
+    @Column(nullable = false)
+    private String receiver;
+
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
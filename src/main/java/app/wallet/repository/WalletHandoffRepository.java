@@ -0,0 +1,22 @@
+package app.wallet.repository;
+
+import app.wallet.model.WalletHandoff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WalletHandoffRepository extends JpaRepository<WalletHandoff, UUID> {
+
+    List<WalletHandoff> findAllByCreatedOnBefore(LocalDateTime cutoff);
+
+    // Returns 0 when the handoff was already applied, so the caller can refuse to credit it again.
+    @Modifying
+    @Query("delete from WalletHandoff h where h.id = :id")
+    int deleteHandoff(UUID id);
+}
@@ -1,9 +1,19 @@
 package app.wallet.repository;
 
+import app.money.Money;
 import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.web.dto.WalletsReport;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,4 +23,36 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     Optional<Wallet> findByIdAndOwnerId(UUID id, UUID ownerId);
 
     List<Wallet> findAllByOwnerUsername(String username);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Wallet w where w.id = :id")
+    Optional<Wallet> findByIdForUpdate(UUID id);
+
+    Optional<Wallet> findFirstByOwnerUsernameAndStatusOrderByCreatedOnAsc(String username, WalletStatus status);
+
+    // Oldest first, so keeping the first wallet per username picks the same wallet as a single transfer does.
+    List<Wallet> findAllByOwnerUsernameInAndStatusOrderByCreatedOnAsc(Collection<String> usernames, WalletStatus status);
+
+    List<Wallet> findAllByOrderByIdAsc(Limit limit);
+
+    List<Wallet> findAllByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    // Writes a wallet held in memory by the wallet engine. Returns 0 when the row was changed since it was loaded.
+    @Modifying
+    @Query("update Wallet w set w.balance = :balance, w.status = :status, w.updatedOn = :updatedOn, w.version = w.version + 1 where w.id = :id and w.version = :version")
+    int updateIfVersionMatches(UUID id, Money balance, WalletStatus status, LocalDateTime updatedOn, long version);
+
+    @Query("""
+            select new app.web.dto.WalletsReport(
+                count(w),
+                coalesce(sum(w.balance), 0),
+                coalesce(sum(case when w.status = app.wallet.model.WalletStatus.ACTIVE then 1 else 0 end), 0),
+                coalesce(sum(case when w.status = app.wallet.model.WalletStatus.INACTIVE then 1 else 0 end), 0),
+                local datetime)
+            from Wallet w
+            """)
+    WalletsReport getReport();
+
+    @Query("select new app.wallet.repository.WalletSummary(w.id, w.type, w.status, w.balance, w.createdOn) from Wallet w where w.owner.id = :ownerId order by w.createdOn")
+    List<WalletSummary> findAllSummariesByOwnerId(UUID ownerId);
 }
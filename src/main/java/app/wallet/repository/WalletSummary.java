@@ -0,0 +1,28 @@
+package app.wallet.repository;
+
+import app.money.Money;
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns of a wallet shown in the wallets page, read without the owner.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WalletSummary {
+
+    private UUID id;
+    private WalletType type;
+    private WalletStatus status;
+    private Money balance;
+    private LocalDateTime createdOn;
+}
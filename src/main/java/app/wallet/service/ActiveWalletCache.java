@@ -0,0 +1,39 @@
+package app.wallet.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class ActiveWalletCache {
+
+    private final Map<String, UUID> activeWalletIds;
+
+    @Autowired
+    public ActiveWalletCache(@Value("${wallet.active-wallet-cache.max-size:10000}") int maxSize) {
+        this.activeWalletIds = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public Optional<UUID> get(String username) {
+        return Optional.ofNullable(activeWalletIds.get(username));
+    }
+
+    public void put(String username, UUID walletId) {
+        activeWalletIds.put(username, walletId);
+    }
+
+    public void evict(String username) {
+        activeWalletIds.remove(username);
+    }
+}
@@ -0,0 +1,77 @@
+package app.wallet.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One operation queued on a wallet shard. It can be cancelled until the shard starts it; once started it is part of a
+ * batch and its outcome is only known when that batch is written.
+ */
+class WalletCommand<T> {
+
+    /**
+     * Reads and checks everything it needs before changing any wallet, so an operation that throws leaves the
+     * shard's wallets untouched. It may run a second time, on reloaded wallets, when its batch fails to be written.
+     */
+    @FunctionalInterface
+    interface Operation<T> {
+        T apply(WalletShard shard, WalletJournal journal);
+    }
+
+    private static final int PENDING = 0;
+    private static final int STARTED = 1;
+    private static final int CANCELLED = 2;
+
+    private final Operation<T> operation;
+    private final boolean client;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private T result;
+
+    WalletCommand(Operation<T> operation, boolean client) {
+        this.operation = operation;
+        this.client = client;
+    }
+
+    boolean isClient() {
+        return client;
+    }
+
+    boolean start() {
+        return state.compareAndSet(PENDING, STARTED);
+    }
+
+    boolean cancel() {
+        return state.compareAndSet(PENDING, CANCELLED);
+    }
+
+    boolean apply(WalletShard shard, WalletJournal journal) {
+
+        try {
+            result = operation.apply(shard, journal);
+            return true;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    void complete() {
+        future.complete(result);
+    }
+
+    void fail(Throwable cause) {
+        future.completeExceptionally(cause);
+    }
+
+    CompletableFuture<T> future() {
+        return future;
+    }
+
+    T await(long timeoutMs) throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+}
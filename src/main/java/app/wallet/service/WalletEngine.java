@@ -0,0 +1,451 @@
+package app.wallet.service;
+
+import app.credit.model.Credit;
+import app.credit.model.CreditStatus;
+import app.credit.service.CreditService;
+import app.exception.WalletDoNotExistException;
+import app.exception.WalletEngineUnavailableException;
+import app.idempotency.model.IdempotencyKey;
+import app.ledger.service.LedgerService;
+import app.money.Money;
+import app.outbox.model.CreditAccruedPayload;
+import app.outbox.model.PendingCreditAccruals;
+import app.outbox.service.OutboxService;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletHandoff;
+import app.wallet.model.WalletStatus;
+import app.wallet.repository.WalletHandoffRepository;
+import app.wallet.repository.WalletRepository;
+import app.web.dto.BulkTransferItem;
+import app.web.dto.BulkTransferItemResult;
+import app.web.dto.BulkTransferRequest;
+import app.web.dto.BulkTransferResponse;
+import app.web.dto.TransferRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Entry point of every wallet mutation. When the engine is disabled the calls go straight to {@link WalletService}
+ * and each runs in its own database transaction.
+ * <p>
+ * When enabled, each wallet is owned by one {@link WalletShard} that keeps its balance in memory and applies the
+ * operations queued for it in batches, writing each batch in one transaction. A transfer between wallets of two
+ * shards is split in two phases: the sender's shard debits the sender and records a {@link WalletHandoff} in its
+ * batch, then the receiver's shard credits the receiver and deletes the handoff in one of its own batches. Handoffs
+ * left by a crash or a failed batch are picked up again by {@link #recoverHandoffs()}.
+ */
+@Slf4j
+@Service
+public class WalletEngine {
+
+    private static final String SENDER = "Trusty Wallet";
+
+    private record BulkTransfer(Money balanceLeft, List<Transaction> transactions) {
+    }
+
+    private final WalletService walletService;
+    private final WalletRepository walletRepository;
+    private final WalletHandoffRepository walletHandoffRepository;
+    private final TransactionService transactionService;
+    private final CreditService creditService;
+    private final OutboxService outboxService;
+    private final boolean enabled;
+    private final long timeoutMs;
+    private final WalletShard[] shards;
+    private final Set<UUID> handoffsInFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public WalletEngine(WalletService walletService,
+                        WalletRepository walletRepository,
+                        WalletHandoffRepository walletHandoffRepository,
+                        TransactionService transactionService,
+                        CreditService creditService,
+                        OutboxService outboxService,
+                        WalletJournalWriter walletJournalWriter,
+                        @Value("${wallet.engine.enabled:false}") boolean enabled,
+                        @Value("${wallet.engine.shards:8}") int shardCount,
+                        @Value("${wallet.engine.queue-capacity:1000}") int queueCapacity,
+                        @Value("${wallet.engine.batch-size:200}") int batchSize,
+                        @Value("${wallet.engine.max-wallets-per-shard:10000}") int maxWalletsPerShard,
+                        @Value("${wallet.engine.timeout-ms:30000}") long timeoutMs) {
+        this.walletService = walletService;
+        this.walletRepository = walletRepository;
+        this.walletHandoffRepository = walletHandoffRepository;
+        this.transactionService = transactionService;
+        this.creditService = creditService;
+        this.outboxService = outboxService;
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+        this.shards = new WalletShard[enabled ? shardCount : 0];
+
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new WalletShard(i, walletRepository, walletJournalWriter, this::handOff, queueCapacity, batchSize, maxWalletsPerShard);
+            shards[i].start();
+        }
+
+        if (enabled) {
+            log.info("Wallet engine started with [%d] shards, queue capacity [%d] and batch size [%d]".formatted(shardCount, queueCapacity, batchSize));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Transaction chargeUpWallet(User owner, UUID walletId, Money amount, IdempotencyKey idempotencyKey) {
+
+        if (!enabled) {
+            return walletService.chargeUpWallet(owner, walletId, amount, idempotencyKey);
+        }
+
+        return execute(walletId, idempotencyKey, (shard, journal) -> {
+
+            Wallet wallet = ownedWallet(shard, walletId, owner);
+            String description = "Charging wallet - %s EUR.".formatted(amount);
+
+            wallet.setBalance(wallet.getBalance().plus(amount));
+            wallet.setUpdatedOn(LocalDateTime.now());
+            journal.changed(wallet);
+            journal.creditAccruals.add(new CreditAccruedPayload(owner.getId(), amount.cents()));
+            journal.balanceChangeInCents += amount.cents();
+
+            Transaction transaction = journal.record(transactionService.buildTransaction(wallet.getOwner(), SENDER, wallet.getOwner().getUsername(), amount, wallet.getBalance(), TransactionType.DEPOSIT, description, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN, null));
+            journal.post(transaction, LedgerService.EXTERNAL_ACCOUNT_ID, wallet.getId(), amount);
+
+            return transaction;
+        });
+    }
+
+    public Transaction makeTransfer(User user, TransferRequest transferRequest, IdempotencyKey idempotencyKey) {
+
+        if (!enabled) {
+            return walletService.makeTransfer(user, transferRequest, idempotencyKey);
+        }
+
+        return execute(transferRequest.getSender(), idempotencyKey, (shard, journal) -> {
+
+            Wallet senderWallet = ownedWallet(shard, transferRequest.getSender(), user);
+            Optional<Wallet> receiverWallet = walletService.findActiveWalletByOwnerUsername(transferRequest.getReceiver());
+
+            return transfer(shard, journal, senderWallet, receiverWallet.orElse(null), transferRequest.getReceiver(), Money.of(transferRequest.getAmount()));
+        });
+    }
+
+    public BulkTransferResponse makeBulkTransfer(User user, BulkTransferRequest bulkTransferRequest) {
+
+        if (!enabled) {
+            return walletService.makeBulkTransfer(user, bulkTransferRequest);
+        }
+
+        BulkTransfer bulkTransfer = execute(bulkTransferRequest.getSender(), (shard, journal) -> {
+
+            Wallet senderWallet = ownedWallet(shard, bulkTransferRequest.getSender(), user);
+            Set<String> receiverUsernames = bulkTransferRequest.getTransfers()
+                    .stream()
+                    .map(BulkTransferItem::getReceiver)
+                    .collect(Collectors.toSet());
+
+            Map<String, Wallet> receiverWallets = new HashMap<>();
+            walletRepository.findAllByOwnerUsernameInAndStatusOrderByCreatedOnAsc(receiverUsernames, WalletStatus.ACTIVE)
+                    .forEach(wallet -> receiverWallets.putIfAbsent(wallet.getOwner().getUsername(), wallet));
+
+            List<Transaction> transactions = bulkTransferRequest.getTransfers()
+                    .stream()
+                    .map(item -> transfer(shard, journal, senderWallet, receiverWallets.get(item.getReceiver()), item.getReceiver(), Money.of(item.getAmount())))
+                    .toList();
+
+            return new BulkTransfer(senderWallet.getBalance(), transactions);
+        });
+
+        // Transaction ids are only assigned when the batch is written, so the results are built afterwards.
+        List<BulkTransferItemResult> results = new ArrayList<>();
+        for (int i = 0; i < bulkTransfer.transactions().size(); i++) {
+            BulkTransferItem item = bulkTransferRequest.getTransfers().get(i);
+            Transaction transaction = bulkTransfer.transactions().get(i);
+            results.add(BulkTransferItemResult.builder()
+                    .receiver(item.getReceiver())
+                    .amount(item.getAmount())
+                    .status(transaction.getStatus())
+                    .transactionId(transaction.getId())
+                    .failureReason(transaction.getFailureReason())
+                    .build());
+        }
+
+        long succeeded = results.stream().filter(result -> result.getStatus() == TransactionStatus.SUCCEEDED).count();
+
+        return BulkTransferResponse.builder()
+                .sender(bulkTransferRequest.getSender())
+                .balanceLeft(bulkTransfer.balanceLeft().toBigDecimal())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    public Transaction payCredit(User user, UUID walletId, IdempotencyKey idempotencyKey) {
+
+        if (!enabled) {
+            return walletService.payCredit(user, walletId, idempotencyKey);
+        }
+
+        return execute(walletId, idempotencyKey, (shard, journal) -> {
+
+            String description = "Paying monthly credit";
+            Wallet wallet = ownedWallet(shard, walletId, user);
+            Credit credit = creditService.getCreditByOwnerId(user.getId());
+            PendingCreditAccruals pendingCreditAccruals = outboxService.findPendingCreditAccruals(user.getId());
+
+            // Charge-ups not relayed yet, including those of this batch, are owed as well.
+            Money accrued = pendingCreditAccruals.amount().plus(journal.takeCreditAccruals(user.getId()));
+            if (!accrued.isZero() || !pendingCreditAccruals.isEmpty()) {
+                credit.setAmount(credit.getAmount().plus(accrued));
+                journal.pendingCreditAccruals.add(pendingCreditAccruals);
+                journal.credits.add(credit);
+            }
+
+            Money amount = credit.getAmount();
+
+            if (amount.isZero()) {
+                return journal.record(transactionService.buildTransaction(wallet.getOwner(), wallet.getOwner().getUsername(), SENDER, amount, wallet.getBalance(), TransactionType.DEPOSIT, description, TransactionStatus.FAILED, TransactionTypeStatus.SECONDARY, "There are no monthly obligations"));
+            }
+
+            if (!walletService.chargeWallet(wallet, amount)) {
+                return journal.record(transactionService.buildTransaction(wallet.getOwner(), wallet.getOwner().getUsername(), SENDER, amount, wallet.getBalance(), TransactionType.DEPOSIT, description, TransactionStatus.FAILED, TransactionTypeStatus.MAIN, "Invalid criteria for transaction"));
+            }
+
+            wallet.setBalance(wallet.getBalance().minus(amount));
+            wallet.setUpdatedOn(LocalDateTime.now());
+            journal.changed(wallet);
+            journal.balanceChangeInCents -= amount.cents();
+
+            credit.setAmount(Money.ZERO);
+            credit.setPayedOn(LocalDateTime.now());
+            credit.setNextPaymentOn(credit.getNextPaymentOn().with(TemporalAdjusters.firstDayOfNextMonth()));
+            if (credit.getStatus() == CreditStatus.UNPAID) {
+                credit.setStatus(CreditStatus.PAYED);
+            }
+            if (!journal.credits.contains(credit)) {
+                journal.credits.add(credit);
+            }
+
+            Transaction transaction = journal.record(transactionService.buildTransaction(wallet.getOwner(), wallet.getOwner().getUsername(), SENDER, amount, wallet.getBalance(), TransactionType.DEPOSIT, description, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN, null));
+            journal.post(transaction, wallet.getId(), LedgerService.EXTERNAL_ACCOUNT_ID, amount);
+
+            return transaction;
+        });
+    }
+
+    public void changeStatus(UUID walletId, User user) {
+
+        if (!enabled) {
+            walletService.changeStatus(walletId, user);
+            return;
+        }
+
+        execute(walletId, (shard, journal) -> {
+
+            Wallet wallet = shard.wallet(walletId);
+            if (wallet == null || !wallet.getOwner().getId().equals(user.getId())) {
+                throw new RuntimeException("Wallet with id [%s] and owner [%s] do not exist.".formatted(walletId, user));
+            }
+
+            wallet.setStatus(wallet.getStatus() == WalletStatus.ACTIVE ? WalletStatus.INACTIVE : WalletStatus.ACTIVE);
+            wallet.setUpdatedOn(LocalDateTime.now());
+            journal.statusChanged(wallet);
+
+            return wallet.getStatus();
+        });
+    }
+
+    // The receiver was looked up from the database; when this shard owns it, its in-memory state is used instead.
+    private Transaction transfer(WalletShard shard, WalletJournal journal, Wallet senderWallet, Wallet receiverRow, String receiverUsername, Money amount) {
+
+        String senderUsername = senderWallet.getOwner().getUsername();
+        String description = "Transferring currency from [%s] to [%s]".formatted(senderUsername, receiverUsername);
+        boolean localReceiver = receiverRow != null && shardFor(receiverRow.getId()) == shard;
+        Wallet receiverWallet = localReceiver ? shard.wallet(receiverRow.getId()) : receiverRow;
+
+        if (receiverWallet == null || receiverWallet.getStatus() != WalletStatus.ACTIVE || !walletService.chargeWallet(senderWallet, amount)) {
+            return journal.record(transactionService.buildTransaction(senderWallet.getOwner(), receiverUsername, senderUsername, amount, senderWallet.getBalance(), TransactionType.DEPOSIT, description, TransactionStatus.FAILED, TransactionTypeStatus.MAIN, "Invalid criteria for transaction"));
+        }
+
+        senderWallet.setBalance(senderWallet.getBalance().minus(amount));
+        senderWallet.setUpdatedOn(LocalDateTime.now());
+        journal.changed(senderWallet);
+
+        Transaction transaction = journal.record(transactionService.buildTransaction(senderWallet.getOwner(), senderUsername, receiverUsername, amount, senderWallet.getBalance(), TransactionType.DEPOSIT, description, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN, null));
+
+        if (localReceiver) {
+            credit(journal, receiverWallet, amount, senderUsername, description);
+            journal.post(transaction, senderWallet.getId(), receiverWallet.getId(), amount);
+            return transaction;
+        }
+
+        journal.post(transaction, senderWallet.getId(), LedgerService.IN_TRANSIT_ACCOUNT_ID, amount);
+        journal.handoffs.add(WalletHandoff.builder()
+                .receiverWalletId(receiverWallet.getId())
+                .amount(amount)
+                .sender(senderUsername)
+                .receiver(receiverUsername)
+                .description(description)
+                .createdOn(LocalDateTime.now())
+                .build());
+
+        return transaction;
+    }
+
+    private Transaction credit(WalletJournal journal, Wallet receiverWallet, Money amount, String senderUsername, String description) {
+
+        receiverWallet.setBalance(receiverWallet.getBalance().plus(amount));
+        receiverWallet.setUpdatedOn(LocalDateTime.now());
+        journal.changed(receiverWallet);
+
+        return journal.record(transactionService.buildTransaction(receiverWallet.getOwner(), senderUsername, receiverWallet.getOwner().getUsername(), amount, receiverWallet.getBalance(), TransactionType.DEPOSIT, description, TransactionStatus.SUCCEEDED, TransactionTypeStatus.SECONDARY, null));
+    }
+
+    // Second phase of a transfer between shards, run on the receiver's shard once the sender's batch is written.
+    private Transaction creditHandoff(WalletShard shard, WalletJournal journal, WalletHandoff handoff) {
+
+        Wallet receiverWallet = shard.wallet(handoff.getReceiverWalletId());
+        if (receiverWallet == null) {
+            throw new WalletDoNotExistException("Wallet with id [%s] do not exist in database.".formatted(handoff.getReceiverWalletId()));
+        }
+
+        Transaction transaction = credit(journal, receiverWallet, handoff.getAmount(), handoff.getSender(), handoff.getDescription());
+        journal.post(transaction, LedgerService.IN_TRANSIT_ACCOUNT_ID, receiverWallet.getId(), handoff.getAmount());
+        journal.completedHandoffs.add(handoff.getId());
+
+        return transaction;
+    }
+
+    private void handOff(WalletJournal journal) {
+        journal.handoffs.forEach(this::submitHandoff);
+    }
+
+    private void submitHandoff(WalletHandoff handoff) {
+
+        if (!handoffsInFlight.add(handoff.getId())) {
+            return;
+        }
+
+        WalletCommand<Transaction> command = new WalletCommand<>((shard, journal) -> creditHandoff(shard, journal, handoff), false);
+        command.future().whenComplete((transaction, failure) -> {
+            handoffsInFlight.remove(handoff.getId());
+            if (failure != null) {
+                log.warn("Handoff with id [%s] to wallet with id [%s] failed and will be retried.".formatted(handoff.getId(), handoff.getReceiverWalletId()), failure);
+            }
+        });
+
+        shardFor(handoff.getReceiverWalletId()).submit(command);
+    }
+
+    // Credits handoffs older than the operation timeout, which were lost by a crash or whose credit failed. A handoff
+    // credited in the meantime is refused when its row is deleted, so it is never credited twice.
+    public void recoverHandoffs() {
+
+        List<WalletHandoff> handoffs = walletHandoffRepository.findAllByCreatedOnBefore(LocalDateTime.now().minusNanos(timeoutMs * 1_000_000));
+
+        if (handoffs.isEmpty()) {
+            return;
+        }
+
+        log.info("Recovering [%d] wallet handoffs".formatted(handoffs.size()));
+
+        for (WalletHandoff handoff : handoffs) {
+            if (enabled) {
+                submitHandoff(handoff);
+                continue;
+            }
+            try {
+                walletService.creditHandoff(handoff);
+            } catch (RuntimeException e) {
+                log.warn("Handoff with id [%s] to wallet with id [%s] failed and will be retried.".formatted(handoff.getId(), handoff.getReceiverWalletId()), e);
+            }
+        }
+    }
+
+    private Wallet ownedWallet(WalletShard shard, UUID walletId, User owner) {
+
+        Wallet wallet = shard.wallet(walletId);
+
+        if (wallet == null || !wallet.getOwner().getId().equals(owner.getId())) {
+            throw new WalletDoNotExistException("Wallet with id [%s] do not exist in database.".formatted(walletId));
+        }
+
+        return wallet;
+    }
+
+    // The key's record is written in the batch that writes the transaction.
+    private Transaction execute(UUID walletId, IdempotencyKey idempotencyKey, WalletCommand.Operation<Transaction> operation) {
+
+        return execute(walletId, (shard, journal) -> {
+            Transaction transaction = operation.apply(shard, journal);
+            journal.idempotent(idempotencyKey, transaction);
+            return transaction;
+        });
+    }
+
+    // A command still queued when the caller gives up is cancelled and never applied; one already started is part of
+    // a batch that may still be written, so its outcome is unknown to the caller.
+    private <T> T execute(UUID walletId, WalletCommand.Operation<T> operation) {
+
+        WalletCommand<T> command = new WalletCommand<>(operation, true);
+
+        if (!shardFor(walletId).submit(command)) {
+            log.warn("Wallet engine queue for wallet with id [%s] is full.".formatted(walletId));
+            throw new WalletEngineUnavailableException("Wallet engine is overloaded, please try again later.");
+        }
+
+        try {
+            return command.await(timeoutMs);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw timedOut(command, walletId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw timedOut(command, walletId);
+        }
+    }
+
+    private WalletEngineUnavailableException timedOut(WalletCommand<?> command, UUID walletId) {
+
+        if (command.cancel()) {
+            return new WalletEngineUnavailableException("Wallet operation for wallet with id [%s] timed out and was cancelled, please try again later.".formatted(walletId));
+        }
+
+        return new WalletEngineUnavailableException("Wallet operation for wallet with id [%s] timed out and may still complete, please check your transactions.".formatted(walletId));
+    }
+
+    private WalletShard shardFor(UUID walletId) {
+        return shards[Math.floorMod(walletId.hashCode(), shards.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        for (WalletShard shard : shards) {
+            shard.stop();
+        }
+    }
+}
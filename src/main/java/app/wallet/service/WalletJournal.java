@@ -0,0 +1,95 @@
+package app.wallet.service;
+
+import app.credit.model.Credit;
+import app.idempotency.model.IdempotencyKey;
+import app.money.Money;
+import app.outbox.model.CreditAccruedPayload;
+import app.outbox.model.PendingCreditAccruals;
+import app.transaction.model.Transaction;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletHandoff;
+import app.wallet.model.WalletStatus;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Everything a batch of wallet engine operations changed, written by {@link WalletJournalWriter} in one transaction.
+ * A wallet changed by many operations of the batch is written once with its final balance.
+ */
+class WalletJournal {
+
+    record LedgerLeg(Transaction transaction, UUID debitWalletId, UUID creditWalletId, Money amount) {
+    }
+
+    record StatusChange(Wallet wallet, WalletStatus status) {
+    }
+
+    record IdempotentResult(IdempotencyKey idempotencyKey, Transaction transaction) {
+    }
+
+    final Map<UUID, Wallet> wallets = new LinkedHashMap<>();
+    final List<StatusChange> statusChanges = new ArrayList<>();
+    final List<Transaction> transactions = new ArrayList<>();
+    final List<LedgerLeg> legs = new ArrayList<>();
+    final List<CreditAccruedPayload> creditAccruals = new ArrayList<>();
+    final List<Credit> credits = new ArrayList<>();
+    final List<PendingCreditAccruals> pendingCreditAccruals = new ArrayList<>();
+    final List<WalletHandoff> handoffs = new ArrayList<>();
+    final List<UUID> completedHandoffs = new ArrayList<>();
+    final List<IdempotentResult> idempotentResults = new ArrayList<>();
+    long balanceChangeInCents;
+
+    void changed(Wallet wallet) {
+        wallets.put(wallet.getId(), wallet);
+    }
+
+    void statusChanged(Wallet wallet) {
+        changed(wallet);
+        statusChanges.add(new StatusChange(wallet, wallet.getStatus()));
+    }
+
+    Transaction record(Transaction transaction) {
+        transactions.add(transaction);
+        return transaction;
+    }
+
+    void idempotent(IdempotencyKey idempotencyKey, Transaction transaction) {
+        if (idempotencyKey != null) {
+            idempotentResults.add(new IdempotentResult(idempotencyKey, transaction));
+        }
+    }
+
+    // Removes the owner's accruals of this batch, which are then applied to the credit instead of being enqueued.
+    Money takeCreditAccruals(UUID ownerId) {
+
+        Money amount = Money.ZERO;
+        Iterator<CreditAccruedPayload> accruals = creditAccruals.iterator();
+        while (accruals.hasNext()) {
+            CreditAccruedPayload accrual = accruals.next();
+            if (accrual.ownerId().equals(ownerId)) {
+                amount = amount.plus(Money.ofCents(accrual.amountInCents()));
+                accruals.remove();
+            }
+        }
+
+        return amount;
+    }
+
+    void post(Transaction transaction, UUID debitWalletId, UUID creditWalletId, Money amount) {
+        legs.add(new LedgerLeg(transaction, debitWalletId, creditWalletId, amount));
+    }
+
+    boolean isEmpty() {
+        return wallets.isEmpty() && transactions.isEmpty() && credits.isEmpty() && completedHandoffs.isEmpty();
+    }
+
+    // The rows were written with their version incremented by one.
+    void committed() {
+        wallets.values().forEach(wallet -> wallet.setVersion(wallet.getVersion() + 1));
+    }
+}
@@ -0,0 +1,107 @@
+package app.wallet.service;
+
+import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
+import app.idempotency.service.IdempotencyService;
+import app.ledger.model.Posting;
+import app.ledger.service.LedgerService;
+import app.outbox.model.OutboxEventType;
+import app.outbox.service.OutboxService;
+import app.report.service.ReportCounters;
+import app.transaction.service.TransactionService;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletHandoff;
+import app.wallet.repository.WalletHandoffRepository;
+import app.wallet.repository.WalletRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class WalletJournalWriter {
+
+    private final WalletRepository walletRepository;
+    private final WalletHandoffRepository walletHandoffRepository;
+    private final TransactionService transactionService;
+    private final CreditService creditService;
+    private final LedgerService ledgerService;
+    private final OutboxService outboxService;
+    private final ActiveWalletCache activeWalletCache;
+    private final ReportCounters reportCounters;
+    private final HomeDashboardService homeDashboardService;
+    private final IdempotencyService idempotencyService;
+
+    @Autowired
+    public WalletJournalWriter(WalletRepository walletRepository, WalletHandoffRepository walletHandoffRepository, TransactionService transactionService, CreditService creditService, LedgerService ledgerService, OutboxService outboxService, ActiveWalletCache activeWalletCache, ReportCounters reportCounters, HomeDashboardService homeDashboardService, IdempotencyService idempotencyService) {
+        this.walletRepository = walletRepository;
+        this.walletHandoffRepository = walletHandoffRepository;
+        this.transactionService = transactionService;
+        this.creditService = creditService;
+        this.ledgerService = ledgerService;
+        this.outboxService = outboxService;
+        this.activeWalletCache = activeWalletCache;
+        this.reportCounters = reportCounters;
+        this.homeDashboardService = homeDashboardService;
+        this.idempotencyService = idempotencyService;
+    }
+
+    // Wallets are written version checked and in ascending id order, so a wallet changed outside the engine since it
+    // was loaded fails the whole batch instead of being overwritten.
+    @Transactional
+    public void write(WalletJournal journal) {
+
+        List<Wallet> wallets = journal.wallets.values()
+                .stream()
+                .sorted(Comparator.comparing(Wallet::getId))
+                .toList();
+
+        for (Wallet wallet : wallets) {
+            int updated = walletRepository.updateIfVersionMatches(wallet.getId(), wallet.getBalance(), wallet.getStatus(), wallet.getUpdatedOn(), wallet.getVersion());
+            if (updated != 1) {
+                throw new ObjectOptimisticLockingFailureException(Wallet.class, wallet.getId());
+            }
+        }
+
+        for (UUID handoffId : journal.completedHandoffs) {
+            if (walletHandoffRepository.deleteHandoff(handoffId) != 1) {
+                throw new ObjectOptimisticLockingFailureException(WalletHandoff.class, handoffId);
+            }
+        }
+
+        // Transactions get their ids here, so the postings referring to them are built afterwards.
+        transactionService.saveTransactions(journal.transactions);
+
+        List<Posting> postings = journal.legs.stream()
+                .flatMap(leg -> ledgerService.buildTransferPostings(leg.transaction().getId(), leg.debitWalletId(), leg.creditWalletId(), leg.amount()).stream())
+                .toList();
+        ledgerService.recordPostings(postings);
+
+        // A key already used by a committed operation fails the batch, which is then written operation by operation.
+        idempotencyService.recordAll(journal.idempotentResults.stream()
+                .map(result -> result.idempotencyKey().toRecord(result.transaction().getId()))
+                .toList());
+
+        walletHandoffRepository.saveAll(journal.handoffs);
+        journal.pendingCreditAccruals.forEach(outboxService::deletePendingCreditAccruals);
+        journal.credits.forEach(creditService::updateCredit);
+
+        if (!journal.creditAccruals.isEmpty()) {
+            outboxService.enqueueAll(OutboxEventType.CREDIT_ACCRUED, journal.creditAccruals);
+        }
+
+        if (journal.balanceChangeInCents != 0) {
+            reportCounters.walletBalancesChanged(journal.balanceChangeInCents);
+        }
+
+        for (WalletJournal.StatusChange statusChange : journal.statusChanges) {
+            activeWalletCache.evict(statusChange.wallet().getOwner().getUsername());
+            reportCounters.walletStatusChanged(statusChange.status());
+            homeDashboardService.ownerChanged(statusChange.wallet().getOwner().getId());
+        }
+    }
+}
@@ -2,9 +2,20 @@ package app.wallet.service;
 
 import app.credit.model.Credit;
 import app.credit.model.CreditStatus;
-import app.credit.repository.CreditRepository;
 import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
 import app.exception.WalletDoNotExistException;
+import app.idempotency.model.IdempotencyKey;
+import app.idempotency.service.IdempotencyService;
+import app.ledger.model.Posting;
+import app.ledger.service.LedgerService;
+import app.money.Money;
+import app.outbox.model.CreditAccruedPayload;
+import app.outbox.model.OutboxEventType;
+import app.outbox.model.PendingCreditAccruals;
+import app.outbox.model.TransferReceivedPayload;
+import app.outbox.service.OutboxService;
+import app.report.service.ReportCounters;
 import app.transaction.model.Transaction;
 import app.transaction.model.TransactionStatus;
 import app.transaction.model.TransactionType;
@@ -12,20 +23,30 @@ import app.transaction.model.TransactionTypeStatus;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
 import app.wallet.model.Wallet;
+import app.wallet.model.WalletHandoff;
 import app.wallet.model.WalletStatus;
 import app.wallet.model.WalletType;
+import app.wallet.repository.WalletHandoffRepository;
 import app.wallet.repository.WalletRepository;
+import app.wallet.repository.WalletSummary;
+import app.web.dto.BulkTransferItem;
+import app.web.dto.BulkTransferItemResult;
+import app.web.dto.BulkTransferRequest;
+import app.web.dto.BulkTransferResponse;
 import app.web.dto.TransferRequest;
 import app.web.dto.WalletsReport;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -34,29 +55,45 @@ public class WalletService {
     private static final String SENDER = "Trusty Wallet";
 
     private final WalletRepository walletRepository;
+    private final WalletHandoffRepository walletHandoffRepository;
     private final TransactionService transactionService;
     private final CreditService creditService;
+    private final ActiveWalletCache activeWalletCache;
+    private final LedgerService ledgerService;
+    private final OutboxService outboxService;
+    private final ReportCounters reportCounters;
+    private final HomeDashboardService homeDashboardService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public WalletService(WalletRepository walletRepository, TransactionService transactionService, CreditService creditService, CreditRepository creditRepository) {
+    public WalletService(WalletRepository walletRepository, WalletHandoffRepository walletHandoffRepository, TransactionService transactionService, CreditService creditService, ActiveWalletCache activeWalletCache, LedgerService ledgerService, OutboxService outboxService, ReportCounters reportCounters, HomeDashboardService homeDashboardService, IdempotencyService idempotencyService) {
         this.walletRepository = walletRepository;
+        this.walletHandoffRepository = walletHandoffRepository;
         this.transactionService = transactionService;
         this.creditService = creditService;
+        this.activeWalletCache = activeWalletCache;
+        this.ledgerService = ledgerService;
+        this.outboxService = outboxService;
+        this.reportCounters = reportCounters;
+        this.homeDashboardService = homeDashboardService;
+        this.idempotencyService = idempotencyService;
     }
 
     public List<Wallet> createUserWallets(User user) {
 
-        Wallet defaultWallet = initializeWallet(user, new BigDecimal(10), WalletType.DEFAULT, WalletStatus.ACTIVE);
-        Wallet savingWallet = initializeWallet(user, new BigDecimal(0), WalletType.SAVING, WalletStatus.INACTIVE);
-        Wallet payableWallet = initializeWallet(user, new BigDecimal(0), WalletType.PAYABLE, WalletStatus.INACTIVE);
+        Wallet defaultWallet = initializeWallet(user, Money.of(10), WalletType.DEFAULT, WalletStatus.ACTIVE);
+        Wallet savingWallet = initializeWallet(user, Money.ZERO, WalletType.SAVING, WalletStatus.INACTIVE);
+        Wallet payableWallet = initializeWallet(user, Money.ZERO, WalletType.PAYABLE, WalletStatus.INACTIVE);
         List<Wallet> userWallets = new ArrayList<>(List.of(defaultWallet, savingWallet, payableWallet));
         walletRepository.saveAll(userWallets);
+        ledgerService.recordOpeningBalances(userWallets);
+        reportCounters.walletsCreated(userWallets);
 
         log.info("Default Wallet with id [%s], Saving Wallet with id [%s], Payable Wallet with id [%s] successfully create for user with username [%s] and id [%s]".formatted(defaultWallet.getId(), savingWallet.getId(), payableWallet.getId(), user.getUsername(), user.getId()));
         return userWallets;
     }
 
-    private Wallet initializeWallet (User user, BigDecimal amount, WalletType type, WalletStatus status) {
+    private Wallet initializeWallet (User user, Money amount, WalletType type, WalletStatus status) {
 
         return Wallet.builder()
                 .owner(user)
@@ -79,23 +116,27 @@ public class WalletService {
         }
 
         walletRepository.save(wallet);
+        activeWalletCache.evict(user.getUsername());
+        reportCounters.walletStatusChanged(wallet.getStatus());
+        homeDashboardService.ownerChanged(user.getId());
 
         return wallet;
     }
 
     @Transactional
-    public Transaction chargeUpWallet(User owner, UUID walletId, BigDecimal amount) {
+    @Retryable(retryFor = ConcurrencyFailureException.class, maxAttemptsExpression = "${wallet.retry.max-attempts:3}", backoff = @Backoff(delayExpression = "${wallet.retry.backoff-ms:25}", multiplier = 2, random = true))
+    public Transaction chargeUpWallet(User owner, UUID walletId, Money amount, IdempotencyKey idempotencyKey) {
 
         Wallet wallet = walletRepository.findByIdAndOwnerId(walletId, owner.getId()).orElseThrow(() ->new WalletDoNotExistException("Wallet with id [%s] do not exist in database.".formatted(walletId)));
-        String description = "Charging wallet - %.2f EUR.".formatted(amount.doubleValue());
+        String description = "Charging wallet - %s EUR.".formatted(amount);
 
-        wallet.setBalance(wallet.getBalance().add(amount));
+        wallet.setBalance(wallet.getBalance().plus(amount));
         wallet.setUpdatedOn(LocalDateTime.now());
         walletRepository.save(wallet);
 
-        creditService.addAmountToCredit(owner, amount);
+        outboxService.enqueue(OutboxEventType.CREDIT_ACCRUED, new CreditAccruedPayload(owner.getId(), amount.cents()));
 
-        return transactionService.initializeTransaction(
+        Transaction transaction = transactionService.initializeTransaction(
                 wallet.getOwner(),
                 SENDER,
                 wallet.getOwner().getUsername(),
@@ -107,25 +148,29 @@ public class WalletService {
                 TransactionTypeStatus.MAIN,
                 null
         );
+        ledgerService.recordTransfer(transaction.getId(), LedgerService.EXTERNAL_ACCOUNT_ID, wallet.getId(), amount);
+        reportCounters.walletBalancesChanged(amount.cents());
+        idempotencyService.record(idempotencyKey, transaction);
+
+        return transaction;
     }
 
     @Transactional
-    public Transaction makeTransfer(User user,TransferRequest transferRequest) {
+    @Retryable(retryFor = ConcurrencyFailureException.class, maxAttemptsExpression = "${wallet.retry.max-attempts:3}", backoff = @Backoff(delayExpression = "${wallet.retry.backoff-ms:25}", multiplier = 2, random = true))
+    public Transaction makeTransfer(User user, TransferRequest transferRequest, IdempotencyKey idempotencyKey) {
 
         Wallet senderWallet = walletRepository.findByIdAndOwnerId(transferRequest.getSender(), user.getId()).orElseThrow(() ->new WalletDoNotExistException("Wallet with id [%s] do not exist in database.".formatted(transferRequest.getSender())));
-        Optional<Wallet> optionalReceiverWallet = walletRepository.findAllByOwnerUsername(transferRequest.getReceiver())
-                .stream()
-                .filter(wallet -> wallet.getStatus() == WalletStatus.ACTIVE)
-                .findFirst();
+        Optional<Wallet> optionalReceiverWallet = findActiveWalletByOwnerUsername(transferRequest.getReceiver());
+        Money amount = Money.of(transferRequest.getAmount());
         String descriptionOfTransaction = "Transferring currency from [%s] to [%s]".formatted(senderWallet.getOwner().getUsername(), transferRequest.getReceiver());
-        boolean walletCanHandleTransaction = chargeWallet(senderWallet, transferRequest.getAmount());
+        boolean walletCanHandleTransaction = chargeWallet(senderWallet, amount);
 
         if (optionalReceiverWallet.isEmpty() || !walletCanHandleTransaction) {
-            return transactionService.initializeTransaction(
+            Transaction failedTransaction = transactionService.initializeTransaction(
                     senderWallet.getOwner(),
                     transferRequest.getReceiver(),
                     senderWallet.getOwner().getUsername(),
-                    transferRequest.getAmount(),
+                    amount,
                     senderWallet.getBalance(),
                     TransactionType.DEPOSIT,
                     descriptionOfTransaction,
@@ -133,54 +178,188 @@ public class WalletService {
                     TransactionTypeStatus.MAIN,
                     "Invalid criteria for transaction"
             );
+            idempotencyService.record(idempotencyKey, failedTransaction);
+
+            return failedTransaction;
         }
 
         Wallet receiverWallet = optionalReceiverWallet.get();
-        receiverWallet.setBalance(receiverWallet.getBalance().add(transferRequest.getAmount()));
+        receiverWallet.setBalance(receiverWallet.getBalance().plus(amount));
         receiverWallet.setUpdatedOn(LocalDateTime.now());
-        walletRepository.save(receiverWallet);
+        senderWallet.setBalance(senderWallet.getBalance().minus(amount));
+        senderWallet.setUpdatedOn(LocalDateTime.now());
+        saveInLockOrder(senderWallet, receiverWallet);
 
-        transactionService.initializeTransaction(
-                receiverWallet.getOwner(),
+        outboxService.enqueue(OutboxEventType.TRANSFER_RECEIVED, toTransferReceivedPayload(senderWallet, receiverWallet, amount, descriptionOfTransaction));
+
+        Transaction transaction = transactionService.initializeTransaction(
+                senderWallet.getOwner(),
                 senderWallet.getOwner().getUsername(),
                 receiverWallet.getOwner().getUsername(),
-                transferRequest.getAmount(),
-                receiverWallet.getBalance(),
+                amount,
+                senderWallet.getBalance(),
                 TransactionType.DEPOSIT,
                 descriptionOfTransaction,
                 TransactionStatus.SUCCEEDED,
-                TransactionTypeStatus.SECONDARY,
+                TransactionTypeStatus.MAIN,
                 null
         );
+        ledgerService.recordTransfer(transaction.getId(), senderWallet.getId(), receiverWallet.getId(), amount);
+        idempotencyService.record(idempotencyKey, transaction);
 
-        senderWallet.setBalance(senderWallet.getBalance().subtract(transferRequest.getAmount()));
-        senderWallet.setUpdatedOn(LocalDateTime.now());
-        walletRepository.save(senderWallet);
+        return transaction;
+    }
 
-        return transactionService.initializeTransaction(
-                senderWallet.getOwner(),
+    @Transactional
+    @Retryable(retryFor = ConcurrencyFailureException.class, maxAttemptsExpression = "${wallet.retry.max-attempts:3}", backoff = @Backoff(delayExpression = "${wallet.retry.backoff-ms:25}", multiplier = 2, random = true))
+    public BulkTransferResponse makeBulkTransfer(User user, BulkTransferRequest bulkTransferRequest) {
+
+        Wallet senderWallet = walletRepository.findByIdAndOwnerId(bulkTransferRequest.getSender(), user.getId()).orElseThrow(() ->new WalletDoNotExistException("Wallet with id [%s] do not exist in database.".formatted(bulkTransferRequest.getSender())));
+        String senderUsername = senderWallet.getOwner().getUsername();
+        Set<String> receiverUsernames = bulkTransferRequest.getTransfers()
+                .stream()
+                .map(BulkTransferItem::getReceiver)
+                .collect(Collectors.toSet());
+
+        Map<String, Wallet> receiverWallets = new HashMap<>();
+        walletRepository.findAllByOwnerUsernameInAndStatusOrderByCreatedOnAsc(receiverUsernames, WalletStatus.ACTIVE)
+                .forEach(wallet -> receiverWallets.putIfAbsent(wallet.getOwner().getUsername(), wallet));
+
+        Map<UUID, Wallet> changedWallets = new LinkedHashMap<>();
+        List<TransferReceivedPayload> receivedTransfers = new ArrayList<>();
+        List<Transaction> senderTransactions = new ArrayList<>();
+        List<Wallet> creditedWallets = new ArrayList<>();
+
+        for (BulkTransferItem item : bulkTransferRequest.getTransfers()) {
+
+            Wallet receiverWallet = receiverWallets.get(item.getReceiver());
+            Money amount = Money.of(item.getAmount());
+            String descriptionOfTransaction = "Transferring currency from [%s] to [%s]".formatted(senderUsername, item.getReceiver());
+            boolean walletCanHandleTransaction = chargeWallet(senderWallet, amount);
+
+            if (receiverWallet == null || !walletCanHandleTransaction) {
+                Transaction failedTransaction = transactionService.buildTransaction(
+                        senderWallet.getOwner(),
+                        item.getReceiver(),
+                        senderUsername,
+                        amount,
+                        senderWallet.getBalance(),
+                        TransactionType.DEPOSIT,
+                        descriptionOfTransaction,
+                        TransactionStatus.FAILED,
+                        TransactionTypeStatus.MAIN,
+                        "Invalid criteria for transaction"
+                );
+                senderTransactions.add(failedTransaction);
+                creditedWallets.add(null);
+                continue;
+            }
+
+            senderWallet.setBalance(senderWallet.getBalance().minus(amount));
+            receiverWallet.setBalance(receiverWallet.getBalance().plus(amount));
+            receiverWallet.setUpdatedOn(LocalDateTime.now());
+            changedWallets.put(receiverWallet.getId(), receiverWallet);
+
+            receivedTransfers.add(toTransferReceivedPayload(senderWallet, receiverWallet, amount, descriptionOfTransaction));
+
+            Transaction senderTransaction = transactionService.buildTransaction(
+                    senderWallet.getOwner(),
+                    senderUsername,
+                    item.getReceiver(),
+                    amount,
+                    senderWallet.getBalance(),
+                    TransactionType.DEPOSIT,
+                    descriptionOfTransaction,
+                    TransactionStatus.SUCCEEDED,
+                    TransactionTypeStatus.MAIN,
+                    null
+            );
+            senderTransactions.add(senderTransaction);
+            creditedWallets.add(receiverWallet);
+        }
+
+        if (!changedWallets.isEmpty()) {
+            senderWallet.setUpdatedOn(LocalDateTime.now());
+            changedWallets.put(senderWallet.getId(), senderWallet);
+            saveInLockOrder(changedWallets.values().toArray(Wallet[]::new));
+        }
+
+        transactionService.saveTransactions(senderTransactions);
+        if (!receivedTransfers.isEmpty()) {
+            outboxService.enqueueAll(OutboxEventType.TRANSFER_RECEIVED, receivedTransfers);
+        }
+
+        List<BulkTransferItemResult> results = new ArrayList<>();
+        List<Posting> postings = new ArrayList<>();
+        for (int i = 0; i < senderTransactions.size(); i++) {
+            BulkTransferItem item = bulkTransferRequest.getTransfers().get(i);
+            Transaction senderTransaction = senderTransactions.get(i);
+            results.add(toBulkTransferItemResult(item, senderTransaction));
+
+            if (creditedWallets.get(i) != null) {
+                postings.addAll(ledgerService.buildTransferPostings(senderTransaction.getId(), senderWallet.getId(), creditedWallets.get(i).getId(), Money.of(item.getAmount())));
+            }
+        }
+
+        if (!postings.isEmpty()) {
+            ledgerService.recordPostings(postings);
+        }
+
+        long succeeded = results.stream().filter(result -> result.getStatus() == TransactionStatus.SUCCEEDED).count();
+        log.info("Bulk transfer from wallet with id [%s] completed with [%d] succeeded and [%d] failed transfers".formatted(senderWallet.getId(), succeeded, results.size() - succeeded));
+
+        return BulkTransferResponse.builder()
+                .sender(senderWallet.getId())
+                .balanceLeft(senderWallet.getBalance().toBigDecimal())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    private TransferReceivedPayload toTransferReceivedPayload(Wallet senderWallet, Wallet receiverWallet, Money amount, String description) {
+
+        return new TransferReceivedPayload(
+                receiverWallet.getOwner().getId(),
                 senderWallet.getOwner().getUsername(),
                 receiverWallet.getOwner().getUsername(),
-                transferRequest.getAmount(),
-                senderWallet.getBalance(),
-                TransactionType.DEPOSIT,
-                descriptionOfTransaction,
-                TransactionStatus.SUCCEEDED,
-                TransactionTypeStatus.MAIN,
-                null
+                amount.cents(),
+                receiverWallet.getBalance().cents(),
+                description
         );
     }
 
+    private BulkTransferItemResult toBulkTransferItemResult(BulkTransferItem item, Transaction transaction) {
+
+        return BulkTransferItemResult.builder()
+                .receiver(item.getReceiver())
+                .amount(item.getAmount())
+                .status(transaction.getStatus())
+                .transactionId(transaction.getId())
+                .failureReason(transaction.getFailureReason())
+                .build();
+    }
+
     @Transactional
-    public Transaction payCredit(User user, UUID walletId) {
+    @Retryable(retryFor = ConcurrencyFailureException.class, maxAttemptsExpression = "${wallet.retry.max-attempts:3}", backoff = @Backoff(delayExpression = "${wallet.retry.backoff-ms:25}", multiplier = 2, random = true))
+    public Transaction payCredit(User user, UUID walletId, IdempotencyKey idempotencyKey) {
 
         String description = "Paying monthly credit";
         Credit credit = creditService.getCreditByOwnerId(user.getId());
         Wallet wallet = getWalletByIdAndOwner(walletId, user);
-        BigDecimal amount = credit.getAmount();
 
-        if (credit.getAmount().compareTo(new BigDecimal(0)) == 0) {
-            return transactionService.initializeTransaction(
+        // Charge-ups not relayed yet are owed as well, so they are applied to the credit here instead of by the relay.
+        PendingCreditAccruals pendingCreditAccruals = outboxService.findPendingCreditAccruals(user.getId());
+        if (!pendingCreditAccruals.isEmpty()) {
+            outboxService.deletePendingCreditAccruals(pendingCreditAccruals);
+            credit.setAmount(credit.getAmount().plus(pendingCreditAccruals.amount()));
+            creditService.updateCredit(credit);
+        }
+
+        Money amount = credit.getAmount();
+
+        if (amount.isZero()) {
+            Transaction failedTransaction = transactionService.initializeTransaction(
                     wallet.getOwner(),
                     wallet.getOwner().getUsername(),
                     "Trusty Wallet",
@@ -191,16 +370,19 @@ public class WalletService {
                     TransactionStatus.FAILED,
                     TransactionTypeStatus.SECONDARY,
                     "There are no monthly obligations");
+            idempotencyService.record(idempotencyKey, failedTransaction);
+
+            return failedTransaction;
         }
 
         boolean walletCanHandleTransaction = chargeWallet(wallet, amount);
 
         if (walletCanHandleTransaction) {
-            wallet.setBalance(wallet.getBalance().subtract(amount));
+            wallet.setBalance(wallet.getBalance().minus(amount));
             wallet.setUpdatedOn(LocalDateTime.now());
             walletRepository.save(wallet);
 
-            credit.setAmount(new BigDecimal(0));
+            credit.setAmount(Money.ZERO);
             credit.setPayedOn(LocalDateTime.now());
             credit.setNextPaymentOn(credit.getNextPaymentOn().with(TemporalAdjusters.firstDayOfNextMonth()));
 
@@ -210,7 +392,7 @@ public class WalletService {
 
             creditService.updateCredit(credit);
 
-            return transactionService.initializeTransaction(
+            Transaction transaction = transactionService.initializeTransaction(
                     wallet.getOwner(),
                     wallet.getOwner().getUsername(),
                     "Trusty Wallet",
@@ -222,9 +404,14 @@ public class WalletService {
                     TransactionTypeStatus.MAIN,
                     null
             );
+            ledgerService.recordTransfer(transaction.getId(), wallet.getId(), LedgerService.EXTERNAL_ACCOUNT_ID, amount);
+            reportCounters.walletBalancesChanged(-amount.cents());
+            idempotencyService.record(idempotencyKey, transaction);
+
+            return transaction;
         }
 
-        return transactionService.initializeTransaction(
+        Transaction failedTransaction = transactionService.initializeTransaction(
                 wallet.getOwner(),
                 wallet.getOwner().getUsername(),
                 "Trusty Wallet",
@@ -236,13 +423,85 @@ public class WalletService {
                 TransactionTypeStatus.MAIN,
                 "Invalid criteria for transaction"
         );
+        idempotencyService.record(idempotencyKey, failedTransaction);
+
+        return failedTransaction;
+    }
+
+    // Credits a transfer handed off by the wallet engine while the engine is disabled. Deleting the handoff first
+    // locks it, and a handoff already credited elsewhere is left alone.
+    @Transactional
+    @Retryable(retryFor = ConcurrencyFailureException.class, maxAttemptsExpression = "${wallet.retry.max-attempts:3}", backoff = @Backoff(delayExpression = "${wallet.retry.backoff-ms:25}", multiplier = 2, random = true))
+    public void creditHandoff(WalletHandoff handoff) {
+
+        if (walletHandoffRepository.deleteHandoff(handoff.getId()) != 1) {
+            return;
+        }
+
+        Wallet receiverWallet = walletRepository.findById(handoff.getReceiverWalletId()).orElseThrow(() -> new WalletDoNotExistException("Wallet with id [%s] do not exist in database.".formatted(handoff.getReceiverWalletId())));
+        receiverWallet.setBalance(receiverWallet.getBalance().plus(handoff.getAmount()));
+        receiverWallet.setUpdatedOn(LocalDateTime.now());
+        walletRepository.save(receiverWallet);
+
+        Transaction transaction = transactionService.initializeTransaction(
+                receiverWallet.getOwner(),
+                handoff.getSender(),
+                handoff.getReceiver(),
+                handoff.getAmount(),
+                receiverWallet.getBalance(),
+                TransactionType.DEPOSIT,
+                handoff.getDescription(),
+                TransactionStatus.SUCCEEDED,
+                TransactionTypeStatus.SECONDARY,
+                null
+        );
+        ledgerService.recordTransfer(transaction.getId(), LedgerService.IN_TRANSIT_ACCOUNT_ID, receiverWallet.getId(), handoff.getAmount());
+    }
+
+    // Opens the ledger of a wallet created before it, see LedgerService.recordMissingOpeningBalance.
+    @Transactional
+    public void openLedgerBalance(UUID walletId) {
+
+        Wallet wallet = walletRepository.findByIdForUpdate(walletId).orElseThrow(() -> new WalletDoNotExistException("Wallet with id [%s] do not exist in database.".formatted(walletId)));
+
+        if (ledgerService.hasOpeningBalance(walletId)) {
+            return;
+        }
+
+        ledgerService.recordMissingOpeningBalance(wallet);
+    }
+
+    Optional<Wallet> findActiveWalletByOwnerUsername(String username) {
+
+        Optional<Wallet> cachedWallet = activeWalletCache.get(username)
+                .flatMap(walletRepository::findById)
+                .filter(wallet -> wallet.getStatus() == WalletStatus.ACTIVE);
+
+        if (cachedWallet.isPresent()) {
+            return cachedWallet;
+        }
+
+        Optional<Wallet> activeWallet = walletRepository.findFirstByOwnerUsernameAndStatusOrderByCreatedOnAsc(username, WalletStatus.ACTIVE);
+        activeWallet.ifPresentOrElse(wallet -> activeWalletCache.put(username, wallet.getId()), () -> activeWalletCache.evict(username));
+
+        return activeWallet;
     }
 
-    public boolean chargeWallet (Wallet wallet, BigDecimal amount) {
+    // Saving only merges the wallets: their rows are updated, and row locked, when the transaction flushes. The lock
+    // order comes from hibernate.order_updates, which sorts those updates by id, so two transfers touching the same
+    // pair of wallets lock the rows in the same order and can not deadlock each other. The saves follow that order.
+    private void saveInLockOrder(Wallet... wallets) {
+
+        Arrays.stream(wallets)
+                .sorted(Comparator.comparing(Wallet::getId))
+                .forEach(walletRepository::save);
+    }
+
+    public boolean chargeWallet (Wallet wallet, Money amount) {
 
         boolean canHandleTransaction = true;
 
-        if (wallet.getStatus() == WalletStatus.INACTIVE || wallet.getBalance().compareTo(amount) < 0) {
+        if (wallet.getStatus() == WalletStatus.INACTIVE || wallet.getBalance().isLessThan(amount)) {
             canHandleTransaction = false;
             return canHandleTransaction;
         }
@@ -252,24 +511,14 @@ public class WalletService {
     }
 
     public WalletsReport getWalletsReport() {
-
-        List<Wallet> allWallets = walletRepository.findAll();
-        BigDecimal totalWalletsAmount = allWallets.stream()
-                .map(Wallet::getBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        long activeWallets = allWallets.stream().filter(wallet -> wallet.getStatus() == WalletStatus.ACTIVE).count();
-        long inactiveWallets = allWallets.stream().filter(wallet -> wallet.getStatus() == WalletStatus.INACTIVE).count();
-
-        return WalletsReport.builder()
-                .totalWallets(allWallets.size())
-                .totalWalletsAmount(totalWalletsAmount)
-                .activeWallets(activeWallets)
-                .inactiveWallets(inactiveWallets)
-                .createdOn(LocalDateTime.now())
-                .build();
+        return reportCounters.getWalletsReport();
     }
 
     public Wallet getWalletByIdAndOwner(UUID id, User user) {
         return walletRepository.findByIdAndOwnerId(id, user.getId()).orElseThrow();
     }
+
+    public List<WalletSummary> getWalletSummaries(UUID ownerId) {
+        return walletRepository.findAllSummariesByOwnerId(ownerId);
+    }
 }
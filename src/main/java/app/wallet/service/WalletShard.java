@@ -0,0 +1,229 @@
+package app.wallet.service;
+
+import app.wallet.model.Wallet;
+import app.wallet.repository.WalletRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Owns a slice of the wallets: their balances and statuses are held in memory and changed only by this shard's
+ * thread. Queued operations are applied in batches and each batch is written in a single transaction before any of
+ * its callers is answered. Wallets are loaded on first use and the least recently used ones are dropped between
+ * batches; a wallet of a batch that failed to be written is reloaded. Operations are queued on a lock-free queue, so
+ * submitters never contend on a lock with the shard's thread, which parks while the queue is empty.
+ */
+@Slf4j
+class WalletShard {
+
+    private final int index;
+    private final WalletRepository walletRepository;
+    private final WalletJournalWriter walletJournalWriter;
+    private final Consumer<WalletJournal> onCommit;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int maxWallets;
+
+    // Handoffs from other shards must not be refused, so only client commands count against the capacity.
+    private final ConcurrentLinkedQueue<WalletCommand<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedClientCommands = new AtomicInteger();
+    private final Map<UUID, Wallet> wallets = new LinkedHashMap<>(16, 0.75f, true);
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean parked;
+
+    WalletShard(int index, WalletRepository walletRepository, WalletJournalWriter walletJournalWriter, Consumer<WalletJournal> onCommit, int queueCapacity, int batchSize, int maxWallets) {
+        this.index = index;
+        this.walletRepository = walletRepository;
+        this.walletJournalWriter = walletJournalWriter;
+        this.onCommit = onCommit;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.maxWallets = maxWallets;
+        this.thread = new Thread(this::run, "wallet-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    boolean submit(WalletCommand<?> command) {
+
+        if (command.isClient() && queuedClientCommands.incrementAndGet() > queueCapacity) {
+            queuedClientCommands.decrementAndGet();
+            return false;
+        }
+
+        queue.add(command);
+
+        // The shard's thread sets parked before it checks the queue a last time, so either it sees this command or
+        // this sees it parked.
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    // Only called from operations running on this shard's thread.
+    Wallet wallet(UUID walletId) {
+
+        Wallet wallet = wallets.get(walletId);
+
+        if (wallet == null) {
+            wallet = walletRepository.findById(walletId).orElse(null);
+            if (wallet != null) {
+                wallets.put(walletId, wallet);
+            }
+        }
+
+        return wallet;
+    }
+
+    private void run() {
+
+        List<WalletCommand<?>> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                WalletCommand<?> command = queue.poll();
+                if (command == null) {
+                    park();
+                    continue;
+                }
+                do {
+                    batch.add(command);
+                } while (batch.size() < batchSize && (command = queue.poll()) != null);
+                process(batch);
+            } catch (RuntimeException e) {
+                log.error("Wallet shard [%d] failed to process a batch.".formatted(index), e);
+            } finally {
+                batch.clear();
+                trim();
+            }
+        }
+
+        for (WalletCommand<?> command = queue.poll(); command != null; command = queue.poll()) {
+            command.fail(new IllegalStateException("Wallet engine is shutting down."));
+        }
+    }
+
+    // Parks with a timeout, so a stop is noticed even if no submitter wakes the thread.
+    private void park() {
+
+        parked = true;
+        try {
+            if (queue.isEmpty()) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        } finally {
+            parked = false;
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            running = false;
+        }
+    }
+
+    private void process(List<WalletCommand<?>> batch) {
+
+        WalletJournal journal = new WalletJournal();
+        List<WalletCommand<?>> applied = new ArrayList<>(batch.size());
+
+        for (WalletCommand<?> command : batch) {
+            if (command.isClient()) {
+                queuedClientCommands.decrementAndGet();
+            }
+            if (command.start() && command.apply(this, journal)) {
+                applied.add(command);
+            }
+        }
+
+        if (applied.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(journal);
+            applied.forEach(WalletCommand::complete);
+            return;
+        } catch (RuntimeException e) {
+            if (applied.size() == 1) {
+                applied.getFirst().fail(e);
+                return;
+            }
+            log.warn("Wallet shard [%d] failed to write a batch of [%d] operations, writing them one by one.".formatted(index, applied.size()), e);
+        }
+
+        // One conflicting operation must not fail the whole batch, so each is applied again to reloaded wallets.
+        for (WalletCommand<?> command : applied) {
+            WalletJournal single = new WalletJournal();
+            if (!command.apply(this, single)) {
+                continue;
+            }
+            try {
+                write(single);
+                command.complete();
+            } catch (RuntimeException e) {
+                command.fail(e);
+            }
+        }
+    }
+
+    private void write(WalletJournal journal) {
+
+        if (journal.isEmpty()) {
+            return;
+        }
+
+        try {
+            walletJournalWriter.write(journal);
+        } catch (RuntimeException e) {
+            journal.wallets.keySet().forEach(wallets::remove);
+            throw e;
+        }
+
+        journal.committed();
+
+        try {
+            onCommit.accept(journal);
+        } catch (RuntimeException e) {
+            log.error("Wallet shard [%d] failed to hand off a written batch.".formatted(index), e);
+        }
+    }
+
+    private void trim() {
+
+        Iterator<UUID> eldest = wallets.keySet().iterator();
+        while (wallets.size() > maxWallets && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    void stop() {
+
+        running = false;
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
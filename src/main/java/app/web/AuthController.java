@@ -1,15 +1,19 @@
 package app.web;
 
+import app.exception.PasswordVerificationOverloadedException;
 import app.user.service.UserService;
 import app.web.dto.LoginRequest;
 import app.web.dto.RegisterRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.WebAttributes;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.SessionAttribute;
 import org.springframework.web.servlet.ModelAndView;
 
 @Controller
@@ -49,14 +53,17 @@ public class AuthController {
 
 
     @GetMapping("/login")
-    public ModelAndView getLoginPage(@RequestParam(value = "error", required = false) String errorParam) {
+    public ModelAndView getLoginPage(@RequestParam(value = "error", required = false) String errorParam,
+                                     @SessionAttribute(name = WebAttributes.AUTHENTICATION_EXCEPTION, required = false) AuthenticationException authenticationException) {
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("login");
         modelAndView.addObject("loginRequest", new LoginRequest());
 
         if (errorParam != null) {
-            modelAndView.addObject("errorMessage", "Incorrect username or password!");
+            modelAndView.addObject("errorMessage", authenticationException instanceof PasswordVerificationOverloadedException
+                    ? authenticationException.getMessage()
+                    : "Incorrect username or password!");
         }
         return modelAndView;
     }
@@ -0,0 +1,56 @@
+package app.web;
+
+import app.user.model.User;
+import app.user.model.UserPrinciple;
+import app.user.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Supplies {@link CurrentUser} parameters from the cached user snapshot. The snapshot is checked against the user's
+ * version stamp, a single-column primary key lookup, and reloaded only when the user changed since it was cached,
+ * which also covers changes made on other instances. Every request gets its own copy.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UserService userService;
+
+    // Lazy because the MVC configuration that registers this resolver is itself needed to build the Feign clients
+    // behind UserService.
+    @Autowired
+    public CurrentUserArgumentResolver(@Lazy UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class) && User.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public User resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrinciple userPrinciple)) {
+            throw new IllegalStateException("No authenticated user to resolve the current user from.");
+        }
+
+        User user = userService.getUserById(userPrinciple.getId());
+
+        if (userService.hasChangedSince(user)) {
+            userService.evictUser(user.getId());
+            user = userService.getUserById(user.getId());
+        }
+
+        return user;
+    }
+}
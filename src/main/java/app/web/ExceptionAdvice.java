@@ -1,7 +1,11 @@
 package app.web;
 
 import app.exception.EmailAlreadyExistException;
+import app.exception.IdempotencyKeyReusedException;
+import app.exception.InvalidCursorException;
+import app.exception.PasswordHashingOverloadedException;
 import app.exception.UsernameAlreadyExistException;
+import app.exception.WalletEngineUnavailableException;
 import app.user.model.UserPrinciple;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
@@ -29,6 +33,7 @@ public class ExceptionAdvice {
             MethodArgumentTypeMismatchException.class,
             MissingRequestValueException.class,
             HttpRequestMethodNotSupportedException.class,
+            InvalidCursorException.class,
     })
     public ModelAndView handleNotFoundExceptions (Exception exception) {
 
@@ -56,7 +61,34 @@ public class ExceptionAdvice {
             return new ModelAndView("redirect:/register");
         }
 
-        UUID id = userPrinciple.getUser().getId();
+        UUID id = userPrinciple.getId();
         return new ModelAndView("redirect:/users/" + id + "/profile");
     }
+
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ModelAndView handlePasswordHashingOverloadedException(RedirectAttributes redirectAttributes, PasswordHashingOverloadedException exception) {
+
+        redirectAttributes.addFlashAttribute("registrationUnavailableMessage", exception.getMessage());
+
+        return new ModelAndView("redirect:/register");
+    }
+
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ModelAndView handleIdempotencyKeyReusedException(IdempotencyKeyReusedException exception) {
+
+        ModelAndView modelAndView = new ModelAndView("request-rejected");
+        modelAndView.addObject("errorMessage", exception.getMessage());
+
+        return modelAndView;
+    }
+
+    @ExceptionHandler(WalletEngineUnavailableException.class)
+    public ModelAndView handleWalletEngineUnavailableException(RedirectAttributes redirectAttributes, WalletEngineUnavailableException exception) {
+
+        // The transaction history shows whether an operation that timed out was applied after all.
+        redirectAttributes.addFlashAttribute("walletUnavailableMessage", exception.getMessage());
+
+        return new ModelAndView("redirect:/transactions");
+    }
 }
@@ -1,36 +1,55 @@
 package app.web;
 
-import app.credit.model.Credit;
-import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
+import app.report.model.RollupGranularity;
+import app.report.service.TransactionRollupService;
+import app.report.service.TransactionSketchService;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
 import app.user.model.UserPrinciple;
 import app.user.service.UserService;
 import app.wallet.service.WalletService;
+import app.web.dto.HomeDashboard;
+import app.web.dto.TransactionSketchReport;
+import app.web.dto.TransactionVolumeReport;
 import app.web.dto.TransactionsReport;
 import app.web.dto.UsersReport;
 import app.web.dto.WalletsReport;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 public class IndexController {
 
     private final UserService userService;
-    private final CreditService creditService;
+    private final HomeDashboardService homeDashboardService;
     private final WalletService walletService;
     private final TransactionService transactionService;
+    private final TransactionRollupService transactionRollupService;
+    private final TransactionSketchService transactionSketchService;
+    private final ParallelCalls parallelCalls;
 
     @Autowired
-    public IndexController(UserService userService, CreditService creditService, WalletService walletService, TransactionService transactionService) {
+    public IndexController(UserService userService, HomeDashboardService homeDashboardService, WalletService walletService, TransactionService transactionService, TransactionRollupService transactionRollupService, TransactionSketchService transactionSketchService, ParallelCalls parallelCalls) {
         this.userService = userService;
-        this.creditService = creditService;
+        this.homeDashboardService = homeDashboardService;
         this.walletService = walletService;
         this.transactionService = transactionService;
+        this.transactionRollupService = transactionRollupService;
+        this.transactionSketchService = transactionSketchService;
+        this.parallelCalls = parallelCalls;
     }
 
     @GetMapping("/")
@@ -46,34 +65,68 @@ public class IndexController {
     @GetMapping("/home")
     public ModelAndView getHomePage(@AuthenticationPrincipal UserPrinciple userPrinciple) {
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
-        Credit credit = creditService.getCreditByOwnerId(user.getId());
+        HomeDashboard dashboard = homeDashboardService.getHomeDashboard(userPrinciple.getId());
         ModelAndView modelAndView = new ModelAndView();
 
         modelAndView.setViewName("home");
-        modelAndView.addObject("user", user);
-        modelAndView.addObject("credit", credit);
+        modelAndView.addObject("dashboard", dashboard);
 
         return modelAndView;
     }
 
+    @GetMapping("/home/dashboard")
+    @ResponseBody
+    public HomeDashboard getHomeDashboard(@AuthenticationPrincipal UserPrinciple userPrinciple) {
+        return homeDashboardService.getHomeDashboard(userPrinciple.getId());
+    }
+
     @GetMapping("/reports")
     @PreAuthorize("hasRole('ADMIN')")
-    public ModelAndView getReports(@AuthenticationPrincipal UserPrinciple userPrinciple) {
+    public ModelAndView getReports(@CurrentUser User user) {
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
-        ModelAndView modelAndView = new ModelAndView();
+        // The percentiles are the only report read from the database: they are merged from 30 days of sketches while
+        // the counter reports are read, and left out of the page if that fails or times out.
+        LocalDate today = LocalDate.now();
+        CompletableFuture<TransactionSketchReport> amountsReport = parallelCalls.submit("amountsReport", () -> transactionSketchService.getAmountPercentiles(today.minusDays(29), today), null);
 
         UsersReport usersReport = userService.getUsersReport();
         WalletsReport walletsReport = walletService.getWalletsReport();
         TransactionsReport transactionsReport = transactionService.getTransactionsReport();
 
+        ModelAndView modelAndView = new ModelAndView();
+
         modelAndView.setViewName("reports");
         modelAndView.addObject("user", user);
         modelAndView.addObject("usersReport", usersReport);
         modelAndView.addObject("walletsReport", walletsReport);
         modelAndView.addObject("transactionsReport", transactionsReport);
+        modelAndView.addObject("amountsReport", amountsReport.join());
 
         return modelAndView;
     }
+
+    @GetMapping("/reports/transactions/volume")
+    @ResponseBody
+    @PreAuthorize("hasRole('ADMIN')")
+    public TransactionVolumeReport getTransactionVolume(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestParam(defaultValue = "DAY") RollupGranularity granularity) {
+
+        return transactionRollupService.getTransactionVolume(from, to, granularity);
+    }
+
+    // Percentiles of all owners unless an owner is given, whose distinct counterparties are then included.
+    @GetMapping("/reports/transactions/sketches")
+    @ResponseBody
+    @PreAuthorize("hasRole('ADMIN')")
+    public TransactionSketchReport getTransactionSketches(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                          @RequestParam(required = false) UUID ownerId) {
+
+        if (ownerId == null) {
+            return transactionSketchService.getAmountPercentiles(from, to);
+        }
+
+        return transactionSketchService.getOwnerReport(ownerId, from, to);
+    }
 }
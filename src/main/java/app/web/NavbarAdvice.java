@@ -0,0 +1,20 @@
+package app.web;
+
+import app.user.model.UserPrinciple;
+import app.user.model.UserRole;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+
+/**
+ * Gives the navbar the role of the signed-in user, so it does not depend on what a page puts under "user", which is
+ * another user on a profile opened by an admin.
+ */
+@ControllerAdvice
+public class NavbarAdvice {
+
+    @ModelAttribute("navbarRole")
+    public UserRole navbarRole(@AuthenticationPrincipal UserPrinciple userPrinciple) {
+        return userPrinciple != null ? userPrinciple.getRole() : null;
+    }
+}
@@ -4,10 +4,8 @@ import app.email.client.dto.Notification;
 import app.email.client.dto.NotificationPreferenceResponse;
 import app.email.service.EmailService;
 import app.user.model.User;
-import app.user.model.UserPrinciple;
 import app.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,11 +27,10 @@ public class NotificationController {
     private EmailService emailService;
 
     @GetMapping
-    public ModelAndView getNotificationView(@AuthenticationPrincipal UserPrinciple userPrinciple) {
+    public ModelAndView getNotificationView(@CurrentUser User user) {
 
         ModelAndView modelAndView = new ModelAndView();
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
         List<Notification> notificationsHistory = emailService.getNotificationHistory(user.getId());
 
         NotificationPreferenceResponse notificationSetting = emailService.getNotificationSettings(user.getId());
@@ -0,0 +1,69 @@
+package app.web;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent service calls of one request concurrently on virtual threads, so a page that aggregates several
+ * of them waits for the slowest call instead of their sum. Every call is bounded by a timeout and completes with its
+ * fallback when it fails or times out, letting the page render whatever did arrive. Access denied and authentication
+ * failures are not fallen back from: join() rethrows them wrapped in a CompletionException, which the exception
+ * handlers and the security filters unwrap, so the request is refused as if the call had run on its thread.
+ */
+@Slf4j
+@Component
+public class ParallelCalls {
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    @Autowired
+    public ParallelCalls(@Value("${web.parallel-calls.timeout:PT2S}") Duration timeout) {
+        // The caller's security context is carried over, so @PreAuthorize checks inside the calls still apply.
+        this.executor = new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+        this.timeout = timeout;
+    }
+
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> call, T fallback) {
+        return submit(name, call, fallback, timeout);
+    }
+
+    // A timed out call is abandoned rather than interrupted; it keeps its virtual thread until it returns.
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> call, T fallback, Duration timeout) {
+
+        return CompletableFuture.supplyAsync(call, executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof AccessDeniedException || cause instanceof AuthenticationException) {
+                        throw new CompletionException(cause);
+                    }
+                    if (cause instanceof TimeoutException) {
+                        log.warn("Call [%s] did not complete within [%s], falling back.".formatted(name, timeout));
+                    } else {
+                        log.warn("Call [%s] failed, falling back.".formatted(name), cause);
+                    }
+                    return fallback;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
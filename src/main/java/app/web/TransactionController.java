@@ -1,20 +1,27 @@
 package app.web;
 
 import app.transaction.model.Transaction;
+import app.transaction.model.TransactionExportFormat;
+import app.transaction.service.TransactionExportService;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
 import app.user.model.UserPrinciple;
 import app.user.service.UserService;
+import app.web.dto.TransactionPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/transactions")
@@ -22,31 +29,88 @@ public class TransactionController {
 
     private final UserService userService;
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
     @Autowired
-    public TransactionController(TransactionService transactionService, UserService userService) {
+    public TransactionController(TransactionService transactionService, UserService userService, TransactionExportService transactionExportService) {
         this.transactionService = transactionService;
         this.userService = userService;
+        this.transactionExportService = transactionExportService;
     }
 
     @GetMapping
-    public ModelAndView getTransactionsPage (@AuthenticationPrincipal UserPrinciple userPrinciple) {
+    public ModelAndView getTransactionsPage (@CurrentUser User user,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "${transactions.page-size:20}") int size) {
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
-        List<Transaction> transactions = transactionService.getAllUserTransactions(user.getId());
+        TransactionPage transactionPage = transactionService.getUserTransactionsPage(user.getId(), cursor, size);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("transactions");
         modelAndView.addObject("user", user);
-        modelAndView.addObject("transactions", transactions);
+        modelAndView.addObject("transactions", transactionPage.getTransactions());
+        modelAndView.addObject("nextCursor", transactionPage.getNextCursor());
+        modelAndView.addObject("size", size);
 
         return modelAndView;
     }
 
+    @GetMapping("/history")
+    @ResponseBody
+    public TransactionPage getTransactionHistory(@AuthenticationPrincipal UserPrinciple userPrinciple,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "${transactions.page-size:20}") int size) {
+
+        return transactionService.getUserTransactionsPage(userPrinciple.getId(), cursor, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@AuthenticationPrincipal UserPrinciple userPrinciple,
+                                                                    @RequestParam(defaultValue = "CSV") TransactionExportFormat format,
+                                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        return exportResponse(userPrinciple.getId(), format, acceptEncoding);
+    }
+
+    @GetMapping("/export/{ownerId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUserTransactions(@PathVariable UUID ownerId,
+                                                                        @RequestParam(defaultValue = "CSV") TransactionExportFormat format,
+                                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        return exportResponse(ownerId, format, acceptEncoding);
+    }
+
+    // The body is written after the handler returns, straight into the (optionally gzipped) response stream.
+    private ResponseEntity<StreamingResponseBody> exportResponse(UUID ownerId, TransactionExportFormat format, String acceptEncoding) {
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = outputStream -> {
+            if (!gzip) {
+                transactionExportService.export(ownerId, format, outputStream);
+                return;
+            }
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+            transactionExportService.export(ownerId, format, gzipOutputStream);
+            gzipOutputStream.finish();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("transactions." + format.getFileExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
-    public ModelAndView getTransactionResultPage(@PathVariable UUID id, @AuthenticationPrincipal UserPrinciple userPrinciple) {
+    public ModelAndView getTransactionResultPage(@PathVariable UUID id, @CurrentUser User user) {
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
         Transaction transaction = transactionService.getTransaction(id, user.getId());
 
         ModelAndView modelAndView = new ModelAndView();
@@ -1,11 +1,14 @@
 package app.web;
 
 import app.credit.service.CreditService;
-import app.transaction.model.Transaction;
+import app.idempotency.model.IdempotencyKey;
+import app.idempotency.service.IdempotencyService;
 import app.user.model.User;
 import app.user.model.UserPrinciple;
 import app.user.service.UserService;
-import app.wallet.service.WalletService;
+import app.wallet.service.WalletEngine;
+import app.web.dto.BulkTransferRequest;
+import app.web.dto.BulkTransferResponse;
 import app.web.dto.CreditRequest;
 import app.web.dto.TransferRequest;
 import jakarta.validation.Valid;
@@ -13,30 +16,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.util.UUID;
+
 @Controller
 @RequestMapping("/transfers")
 public class TransferController {
 
     private final UserService userService;
-    private final WalletService walletService;
     private final CreditService creditService;
+    private final WalletEngine walletEngine;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public TransferController(UserService userService, WalletService walletService, CreditService creditService) {
+    public TransferController(UserService userService, CreditService creditService, WalletEngine walletEngine, IdempotencyService idempotencyService) {
         this.userService = userService;
-        this.walletService = walletService;
         this.creditService = creditService;
+        this.walletEngine = walletEngine;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
     public ModelAndView getTransferPage(@AuthenticationPrincipal UserPrinciple userPrinciple) {
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
+        User user = userService.getUserWithWalletsById(userPrinciple.getId());
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("transfer");
@@ -46,17 +51,32 @@ public class TransferController {
     }
 
     @PostMapping
-    public ModelAndView createTransfer(@Valid TransferRequest transferRequest, BindingResult bindingResult, @AuthenticationPrincipal UserPrinciple userPrinciple) {
+    public ModelAndView createTransfer(@Valid TransferRequest transferRequest, BindingResult bindingResult, @CurrentUser User user) {
+
+        if (bindingResult.hasErrors()) {
+            ModelAndView modelAndView = new ModelAndView("transfer");
+            modelAndView.addObject("user", userService.getUserWithWalletsById(user.getId()));
+            return modelAndView;
+        }
+
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(user.getId(), transferRequest.getIdempotencyKey(),
+                "transfer", transferRequest.getSender(), transferRequest.getReceiver(), transferRequest.getAmount());
+        UUID transactionId = idempotencyService.execute(idempotencyKey,
+                () -> walletEngine.makeTransfer(user, transferRequest, idempotencyKey));
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
-        Transaction transaction = walletService.makeTransfer(user, transferRequest);
+        return new ModelAndView("redirect:/transactions/" + transactionId);
+    }
+
+    @PostMapping("/bulk")
+    @ResponseBody
+    public BulkTransferResponse createBulkTransfer(@Valid @RequestBody BulkTransferRequest bulkTransferRequest, @CurrentUser User user) {
 
-        return new ModelAndView("redirect:/transactions/" + transaction.getId());
+        return walletEngine.makeBulkTransfer(user, bulkTransferRequest);
     }
 
     @GetMapping("/credit")
     public ModelAndView getPayCreditView(@AuthenticationPrincipal UserPrinciple userPrinciple) {
-        User user = userService.getUserById(userPrinciple.getUser().getId());
+        User user = userService.getUserWithWalletsById(userPrinciple.getId());
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("credit");
@@ -66,12 +86,20 @@ public class TransferController {
     }
 
     @PostMapping("/credit")
-    public ModelAndView payCredit(@AuthenticationPrincipal UserPrinciple userPrinciple, @Valid CreditRequest creditRequest, BindingResult bindingResult) {
-        User user = userService.getUserById(userPrinciple.getUser().getId());
+    public ModelAndView payCredit(@CurrentUser User user, @Valid CreditRequest creditRequest, BindingResult bindingResult) {
+
+        if (bindingResult.hasErrors()) {
+            ModelAndView modelAndView = new ModelAndView("credit");
+            modelAndView.addObject("user", userService.getUserWithWalletsById(user.getId()));
+            return modelAndView;
+        }
 
-        Transaction transaction = walletService.payCredit(user, creditRequest.getSender());
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(user.getId(), creditRequest.getIdempotencyKey(),
+                "credit", creditRequest.getSender());
+        UUID transactionId = idempotencyService.execute(idempotencyKey,
+                () -> walletEngine.payCredit(user, creditRequest.getSender(), idempotencyKey));
 
-        return new ModelAndView("redirect:/transactions/" + transaction.getId());
+        return new ModelAndView("redirect:/transactions/" + transactionId);
     }
 
 }
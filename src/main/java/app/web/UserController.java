@@ -1,13 +1,12 @@
 package app.web;
 
 import app.user.model.User;
-import app.user.model.UserPrinciple;
+import app.user.repository.UserSummary;
 import app.user.service.UserService;
 import app.web.dto.EditRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -32,11 +31,9 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ModelAndView getAllUsers(@AuthenticationPrincipal UserPrinciple userPrinciple) {
+    public ModelAndView getAllUsers(@CurrentUser User user) {
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
-
-        List<User> users = userService.getAllUsers();
+        List<UserSummary> users = userService.getUserSummaries();
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("users");
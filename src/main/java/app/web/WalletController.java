@@ -1,14 +1,15 @@
 package app.web;
 
-import app.transaction.model.Transaction;
+import app.idempotency.model.IdempotencyKey;
+import app.idempotency.service.IdempotencyService;
+import app.money.Money;
 import app.user.model.User;
-import app.user.model.UserPrinciple;
 import app.user.service.UserService;
+import app.wallet.service.WalletEngine;
 import app.wallet.service.WalletService;
 import app.web.dto.ChargeOwnWalletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,41 +26,51 @@ public class WalletController {
 
     private final UserService userService;
     private final WalletService walletService;
+    private final WalletEngine walletEngine;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public WalletController(UserService userService, WalletService walletService) {
+    public WalletController(UserService userService, WalletService walletService, WalletEngine walletEngine, IdempotencyService idempotencyService) {
         this.userService = userService;
         this.walletService = walletService;
+        this.walletEngine = walletEngine;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
-    public ModelAndView getWalletPage (@AuthenticationPrincipal UserPrinciple userPrinciple) {
-
-        User user = userService.getUserById(userPrinciple.getUser().getId());
+    public ModelAndView getWalletPage (@CurrentUser User user) {
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("wallets");
         modelAndView.addObject("user", user);
+        modelAndView.addObject("wallets", walletService.getWalletSummaries(user.getId()));
         modelAndView.addObject("chargeOwnWalletRequest", new ChargeOwnWalletRequest());
         return modelAndView;
     }
 
     @PutMapping("/{id}/status")
-    public ModelAndView changeWalletStatus(@PathVariable UUID id, @AuthenticationPrincipal UserPrinciple userPrinciple) {
-
-        User user = userService.getUserById(userPrinciple.getUser().getId());
+    public ModelAndView changeWalletStatus(@PathVariable UUID id, @CurrentUser User user) {
 
-        walletService.changeStatus(id, user);
+        walletEngine.changeStatus(id, user);
 
         return new ModelAndView("redirect:/wallets");
     }
 
     @PutMapping("/{id}/charge")
-    public ModelAndView chargeWalletUp(@PathVariable UUID id ,@Valid ChargeOwnWalletRequest chargeOwnWalletRequest, BindingResult bindingResult, @AuthenticationPrincipal UserPrinciple userPrinciple) {
+    public ModelAndView chargeWalletUp(@PathVariable UUID id ,@Valid ChargeOwnWalletRequest chargeOwnWalletRequest, BindingResult bindingResult, @CurrentUser User user) {
+
+        if (bindingResult.hasErrors()) {
+            ModelAndView modelAndView = new ModelAndView("wallets");
+            modelAndView.addObject("user", user);
+            modelAndView.addObject("wallets", walletService.getWalletSummaries(user.getId()));
+            return modelAndView;
+        }
 
-        User user = userService.getUserById(userPrinciple.getUser().getId());
-        Transaction transaction = walletService.chargeUpWallet(user, id, chargeOwnWalletRequest.getAmount());
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(user.getId(), chargeOwnWalletRequest.getIdempotencyKey(),
+                "charge", id, chargeOwnWalletRequest.getAmount());
+        UUID transactionId = idempotencyService.execute(idempotencyKey,
+                () -> walletEngine.chargeUpWallet(user, id, Money.of(chargeOwnWalletRequest.getAmount()), idempotencyKey));
 
-        return new ModelAndView("redirect:/transactions/" + transaction.getId());
+        return new ModelAndView("redirect:/transactions/" + transactionId);
     }
 }
@@ -0,0 +1,26 @@
+package app.web.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransferItem {
+
+    @NotNull
+    private String receiver;
+
+    @NotNull
+    @Positive
+    @Digits(integer = 15, fraction = 2)
+    private BigDecimal amount;
+}
@@ -0,0 +1,23 @@
+package app.web.dto;
+
+import app.transaction.model.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransferItemResult {
+
+    private String receiver;
+    private BigDecimal amount;
+    private TransactionStatus status;
+    private UUID transactionId;
+    private String failureReason;
+}
@@ -0,0 +1,28 @@
+package app.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransferRequest {
+
+    @NotNull
+    private UUID sender;
+
+    @Valid
+    @NotEmpty
+    @Size(max = 1000)
+    private List<BulkTransferItem> transfers;
+}
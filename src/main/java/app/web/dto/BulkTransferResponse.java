@@ -0,0 +1,23 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransferResponse {
+
+    private UUID sender;
+    private BigDecimal balanceLeft;
+    private long succeeded;
+    private long failed;
+    private List<BulkTransferItemResult> results;
+}
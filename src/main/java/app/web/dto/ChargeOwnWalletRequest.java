@@ -1,7 +1,9 @@
 package app.web.dto;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,6 +17,10 @@ public class ChargeOwnWalletRequest {
 
     @NotNull
     @Positive
+    @Digits(integer = 15, fraction = 2)
     public BigDecimal amount;
 
+    @Size(max = 64)
+    private String idempotencyKey;
+
 }
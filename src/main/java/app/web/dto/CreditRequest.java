@@ -1,6 +1,7 @@
 package app.web.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,4 +17,7 @@ public class CreditRequest {
 
     @NotNull
     private UUID sender;
+
+    @Size(max = 64)
+    private String idempotencyKey;
 }
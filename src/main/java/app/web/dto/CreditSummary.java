@@ -0,0 +1,21 @@
+package app.web.dto;
+
+import app.credit.model.CreditStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreditSummary {
+
+    private CreditStatus status;
+    private BigDecimal amount;
+    private LocalDate nextPaymentOn;
+}
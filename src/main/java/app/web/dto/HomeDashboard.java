@@ -0,0 +1,34 @@
+package app.web.dto;
+
+import app.user.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HomeDashboard {
+
+    private UUID id;
+    private String username;
+    private String email;
+    private String profilePic;
+    private UserRole role;
+    private boolean isActive;
+    private LocalDateTime createdOn;
+
+    private List<WalletBalance> wallets;
+
+    // Null for a user without a credit.
+    private CreditSummary credit;
+
+    // Newest first.
+    private List<TransactionResponse> recentTransactions;
+}
@@ -0,0 +1,20 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionPage {
+
+    private List<TransactionResponse> transactions;
+
+    // Opaque cursor of the next, older page; null on the last page.
+    private String nextCursor;
+}
@@ -0,0 +1,68 @@
+package app.web.dto;
+
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.repository.TransactionSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionResponse {
+
+    private UUID id;
+    private String sender;
+    private String receiver;
+    private BigDecimal amount;
+    private BigDecimal balanceLeft;
+    private TransactionType type;
+    private TransactionStatus status;
+    private TransactionTypeStatus typeStatus;
+    private String description;
+    private String failureReason;
+    private LocalDateTime createdOn;
+
+    public static TransactionResponse of(Transaction transaction) {
+
+        return TransactionResponse.builder()
+                .id(transaction.getId())
+                .sender(transaction.getSender())
+                .receiver(transaction.getReceiver())
+                .amount(transaction.getAmount().toBigDecimal())
+                .balanceLeft(transaction.getBalanceLeft().toBigDecimal())
+                .type(transaction.getType())
+                .status(transaction.getStatus())
+                .typeStatus(transaction.getTypeStatus())
+                .description(transaction.getDescription())
+                .failureReason(transaction.getFailureReason())
+                .createdOn(transaction.getCreatedOn())
+                .build();
+    }
+
+    public static TransactionResponse of(TransactionSummary transaction) {
+
+        return TransactionResponse.builder()
+                .id(transaction.getId())
+                .sender(transaction.getSender())
+                .receiver(transaction.getReceiver())
+                .amount(transaction.getAmount().toBigDecimal())
+                .balanceLeft(transaction.getBalanceLeft().toBigDecimal())
+                .type(transaction.getType())
+                .status(transaction.getStatus())
+                .typeStatus(transaction.getTypeStatus())
+                .description(transaction.getDescription())
+                .failureReason(transaction.getFailureReason())
+                .createdOn(transaction.getCreatedOn())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionSketchReport {
+
+    // Null when the report covers all owners.
+    private UUID ownerId;
+    private LocalDate from;
+    private LocalDate to;
+
+    // Succeeded main transactions the amount percentiles are estimated from; the percentiles are null when zero.
+    private long transactionCount;
+    private BigDecimal p50Amount;
+    private BigDecimal p95Amount;
+    private BigDecimal p99Amount;
+
+    // Estimated distinct senders and receivers the owner dealt with; null when the report covers all owners.
+    private Long distinctCounterparties;
+}
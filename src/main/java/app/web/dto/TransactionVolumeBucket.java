@@ -0,0 +1,25 @@
+package app.web.dto;
+
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionVolumeBucket {
+
+    private LocalDateTime bucketStart;
+    private TransactionType type;
+    private TransactionTypeStatus typeStatus;
+    private long transactionCount;
+    private BigDecimal succeededAmount;
+    private long failedCount;
+}
@@ -0,0 +1,26 @@
+package app.web.dto;
+
+import app.report.model.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionVolumeReport {
+
+    private RollupGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // Transactions created after this point are not rolled up yet; null before the first rollup.
+    private LocalDateTime rolledUpTo;
+
+    private List<TransactionVolumeBucket> buckets;
+}
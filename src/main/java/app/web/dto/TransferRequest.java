@@ -1,7 +1,9 @@
 package app.web.dto;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,5 +26,9 @@ public class TransferRequest {
 
     @NotNull
     @Positive
+    @Digits(integer = 15, fraction = 2)
     private BigDecimal amount;
+
+    @Size(max = 64)
+    private String idempotencyKey;
 }
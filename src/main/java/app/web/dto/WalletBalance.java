@@ -0,0 +1,25 @@
+package app.web.dto;
+
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WalletBalance {
+
+    private UUID id;
+    private WalletType type;
+    private WalletStatus status;
+    private BigDecimal balance;
+    private LocalDateTime updatedOn;
+}
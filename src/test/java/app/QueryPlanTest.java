@@ -0,0 +1,203 @@
+package app;
+
+import app.credit.repository.CreditRepository;
+import app.idempotency.repository.IdempotencyRecordRepository;
+import app.ledger.repository.BalanceSnapshotRepository;
+import app.ledger.repository.PostingRepository;
+import app.outbox.model.OutboxEventType;
+import app.outbox.repository.OutboxEventRepository;
+import app.report.model.RollupGranularity;
+import app.report.repository.RollupWatermarkRepository;
+import app.report.repository.TransactionRollupRepository;
+import app.report.repository.TransactionSketchRepository;
+import app.transaction.repository.TransactionRepository;
+import app.user.repository.UserRepository;
+import app.wallet.model.WalletStatus;
+import app.wallet.repository.WalletRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every declared repository query, captures the SQL Hibernate generated for it and fails when H2 plans
+ * any of those statements as a full table scan. The whole-table report aggregates read every row by design and
+ * are covered by {@link ReportQueryTest} instead.
+ */
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=app.QueryPlanTest$SqlRecorder"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostingRepository postingRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionRollupRepository transactionRollupRepository;
+
+    @Autowired
+    private RollupWatermarkRepository rollupWatermarkRepository;
+
+    @Autowired
+    private TransactionSketchRepository transactionSketchRepository;
+
+    @Test
+    void transactionQueries_useIndexes() {
+
+        UUID ownerId = UUID.randomUUID();
+
+        assertNoTableScan(() -> transactionRepository.findByIdAndOwnerId(UUID.randomUUID(), ownerId));
+        assertNoTableScan(() -> transactionRepository.findLatestByOwnerId(ownerId, Limit.of(20)));
+        assertNoTableScan(() -> transactionRepository.findByOwnerIdBefore(ownerId, LocalDateTime.now(), UUID.randomUUID(), Limit.of(20)));
+        assertNoTableScan(() -> transactionRepository.streamAllByOwnerId(ownerId).close());
+    }
+
+    @Test
+    void walletQueries_useIndexes() {
+
+        assertNoTableScan(() -> walletRepository.findByIdAndOwnerId(UUID.randomUUID(), UUID.randomUUID()));
+        assertNoTableScan(() -> walletRepository.findAllByOwnerUsername("username"));
+        assertNoTableScan(() -> walletRepository.findFirstByOwnerUsernameAndStatusOrderByCreatedOnAsc("username", WalletStatus.ACTIVE));
+        assertNoTableScan(() -> walletRepository.findAllByOwnerUsernameInAndStatusOrderByCreatedOnAsc(List.of("first", "second"), WalletStatus.ACTIVE));
+        assertNoTableScan(() -> walletRepository.findAllSummariesByOwnerId(UUID.randomUUID()));
+        assertNoTableScan(() -> walletRepository.findAllByIdGreaterThanOrderByIdAsc(UUID.randomUUID(), Limit.of(500)));
+    }
+
+    @Test
+    void userAndCreditQueries_useIndexes() {
+
+        assertNoTableScan(() -> userRepository.findByUsername("username"));
+        assertNoTableScan(() -> userRepository.findByEmail("user@example.com"));
+        assertNoTableScan(() -> userRepository.countByUsernameOrEmail("username", "user@example.com"));
+        assertNoTableScan(() -> userRepository.findAllSummaries());
+        assertNoTableScan(() -> userRepository.findWithWalletsById(UUID.randomUUID()));
+        assertNoTableScan(() -> userRepository.findDashboardRows(UUID.randomUUID()));
+        assertNoTableScan(() -> userRepository.findUpdatedOnById(UUID.randomUUID()));
+        assertNoTableScan(() -> userRepository.findAuthRecordByUsername("username"));
+        assertNoTableScan(() -> creditRepository.findByOwnerId(UUID.randomUUID()));
+        assertNoTableScan(() -> creditRepository.findAllByNextPaymentOnAndOwnerIsActiveTrue(LocalDate.now()));
+    }
+
+    @Test
+    void ledgerQueries_useIndexes() {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        assertNoTableScan(() -> postingRepository.sumByWalletId(UUID.randomUUID()));
+        assertNoTableScan(() -> postingRepository.sumByWalletIdCreatedAfter(UUID.randomUUID(), now.minusDays(1)));
+        assertNoTableScan(() -> postingRepository.sumByWalletIdCreatedUpTo(now));
+        assertNoTableScan(() -> postingRepository.sumByWalletIdCreatedBetween(now.minusDays(1), now));
+        assertNoTableScan(() -> postingRepository.sumByWalletIdInAfterSnapshot(List.of(UUID.randomUUID())));
+        assertNoTableScan(() -> balanceSnapshotRepository.findFirstByOrderByCutoffDesc());
+    }
+
+    @Test
+    void idempotencyAndOutboxQueries_useIndexes() {
+
+        assertNoTableScan(() -> idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(UUID.randomUUID(), "key"));
+        assertNoTableScan(() -> idempotencyRecordRepository.deleteAllCreatedBefore(LocalDateTime.now()));
+        assertNoTableScan(() -> outboxEventRepository.findBatchForUpdate(PageRequest.of(0, 500)));
+        assertNoTableScan(() -> outboxEventRepository.findOwnerIdsWithPending(List.of(UUID.randomUUID()), OutboxEventType.CREDIT_ACCRUED));
+    }
+
+    @Test
+    void rollupQueries_useIndexes() {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        assertNoTableScan(() -> transactionRepository.sumVolumeByHourCreatedBetween(now.minusMinutes(5), now));
+        assertNoTableScan(() -> transactionRollupRepository.findAllByGranularityAndBucketStartIn(RollupGranularity.HOUR, List.of(now.minusHours(1), now)));
+        assertNoTableScan(() -> transactionRollupRepository.findAllInRange(RollupGranularity.DAY, now.minusDays(30), now));
+        assertNoTableScan(() -> rollupWatermarkRepository.findByNameForUpdate("transaction_rollup"));
+    }
+
+    @Test
+    void sketchQueries_useIndexes() {
+
+        LocalDate today = LocalDate.now();
+
+        assertNoTableScan(() -> transactionSketchRepository.findAllForUpdate(List.of(UUID.randomUUID(), UUID.randomUUID()), today));
+        assertNoTableScan(() -> transactionSketchRepository.findAllByOwnerIdAndBucketDayBetween(UUID.randomUUID(), today.minusDays(30), today));
+    }
+
+    private void assertNoTableScan(Runnable query) {
+
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        List<String> statements = List.copyOf(SqlRecorder.STATEMENTS);
+
+        assertFalse(statements.isEmpty(), "The query did not execute any SQL.");
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), "Full table scan for [%s]:%n%s".formatted(sql, plan));
+        }
+    }
+
+    // The plan does not depend on the parameter values, so every placeholder is bound to null.
+    private String explain(String sql) {
+
+        return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                statement.setObject(i, null);
+            }
+        }, resultSet -> {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append(System.lineSeparator());
+            }
+            return plan.toString();
+        });
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package app;
+
+import app.money.Money;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.repository.TransactionVolume;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
+import app.wallet.repository.WalletRepository;
+import app.web.dto.TransactionsReport;
+import app.web.dto.UsersReport;
+import app.web.dto.WalletsReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the aggregate report queries against H2, since their counting and summing happens in SQL rather than
+ * in code that a Mockito test could exercise.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReportQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+
+        User admin = entityManager.persist(aUser("admin", UserRole.ADMIN, true));
+        User user = entityManager.persist(aUser("user", UserRole.USER, true));
+        entityManager.persist(aUser("inactive", UserRole.USER, false));
+
+        entityManager.persist(aWallet(admin, new BigDecimal("10.50"), WalletStatus.ACTIVE));
+        entityManager.persist(aWallet(user, new BigDecimal("20.25"), WalletStatus.ACTIVE));
+        entityManager.persist(aWallet(user, new BigDecimal("5.00"), WalletStatus.INACTIVE));
+
+        entityManager.persist(aTransaction(user, new BigDecimal("10.10"), TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN));
+        entityManager.persist(aTransaction(user, new BigDecimal("2.20"), TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN));
+        entityManager.persist(aTransaction(user, new BigDecimal("7.00"), TransactionStatus.FAILED, TransactionTypeStatus.MAIN));
+        entityManager.persist(aTransaction(admin, new BigDecimal("10.10"), TransactionStatus.SUCCEEDED, TransactionTypeStatus.SECONDARY));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getUsersReport_countsUsersByStatusAndRole() {
+
+        UsersReport report = userRepository.getReport();
+
+        assertEquals(3, report.getTotalUsers());
+        assertEquals(2, report.getActiveUser());
+        assertEquals(1, report.getInactiveUsers());
+        assertEquals(1, report.getAdmins());
+        assertEquals(2, report.getNonAdmins());
+        assertNotNull(report.getCreatedOn());
+    }
+
+    @Test
+    void getWalletsReport_sumsBalancesAndCountsWalletsByStatus() {
+
+        WalletsReport report = walletRepository.getReport();
+
+        assertEquals(3, report.getTotalWallets());
+        assertEquals(new BigDecimal("35.75"), report.getTotalWalletsAmount());
+        assertEquals(2, report.getActiveWallets());
+        assertEquals(1, report.getInactiveWallets());
+    }
+
+    @Test
+    void getTransactionsReport_sumsSucceededMainTransactionsAndCountsByStatus() {
+
+        TransactionsReport report = transactionRepository.getReport();
+
+        assertEquals(3, report.getTotalTransactions());
+        assertEquals(new BigDecimal("12.30"), report.getTotalTransactionAmount());
+        assertEquals(3, report.getSuccessfulTransactions());
+        assertEquals(1, report.getUnsuccessfulTransactions());
+    }
+
+    @Test
+    void sumVolumeByHourCreatedUpTo_groupsTransactionsByHourTypeAndTypeStatus() {
+
+        List<TransactionVolume> volumes = transactionRepository.sumVolumeByHourCreatedUpTo(LocalDateTime.now());
+
+        long transactions = volumes.stream().mapToLong(TransactionVolume::getTransactionCount).sum();
+        BigDecimal succeededAmount = volumes.stream().map(TransactionVolume::getSucceededAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        long failed = volumes.stream().mapToLong(TransactionVolume::getFailedCount).sum();
+
+        assertEquals(4, transactions);
+        assertEquals(0, new BigDecimal("22.40").compareTo(succeededAmount));
+        assertEquals(1, failed);
+        assertTrue(volumes.stream().allMatch(volume -> volume.getHourStart().isBefore(LocalDateTime.now())));
+    }
+
+    private User aUser(String username, UserRole role, boolean active) {
+
+        return User.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@example.com")
+                .role(role)
+                .isActive(active)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+
+    private Wallet aWallet(User owner, BigDecimal balance, WalletStatus status) {
+
+        return Wallet.builder()
+                .owner(owner)
+                .balance(Money.of(balance))
+                .type(WalletType.DEFAULT)
+                .status(status)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+
+    private Transaction aTransaction(User owner, BigDecimal amount, TransactionStatus status, TransactionTypeStatus typeStatus) {
+
+        return Transaction.builder()
+                .owner(owner)
+                .sender("sender")
+                .receiver("receiver")
+                .amount(Money.of(amount))
+                .balanceLeft(Money.ZERO)
+                .type(TransactionType.WITHDRAWAL)
+                .status(status)
+                .typeStatus(typeStatus)
+                .description("description")
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+}
@@ -2,18 +2,23 @@ package app;
 
 import app.credit.model.Credit;
 import app.credit.model.CreditStatus;
+import app.money.Money;
 import app.transaction.model.Transaction;
 import app.transaction.model.TransactionStatus;
 import app.transaction.model.TransactionType;
 import app.transaction.model.TransactionTypeStatus;
 import app.user.model.User;
 import app.user.model.UserRole;
+import app.user.repository.UserSummary;
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
 import app.web.dto.*;
 import lombok.experimental.UtilityClass;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @UtilityClass
@@ -53,18 +58,55 @@ public class TestBuilder {
                 .build();
     }
 
+    public static UserSummary aRandomUserSummary () {
+
+        return UserSummary.builder()
+                .id(UUID.randomUUID())
+                .email("randomEmail@gmail.com")
+                .username("randomUsername")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
     public static Credit aRandomCredit () {
 
         return Credit.builder()
                 .id(UUID.randomUUID())
                 .owner(aRandomUser())
                 .status(CreditStatus.PAYED)
-                .amount(new BigDecimal(0))
+                .amount(Money.of(0))
                 .payedOn(null)
                 .nextPaymentOn(LocalDate.now())
                 .build();
     }
 
+    public static HomeDashboard aRandomHomeDashboard (User user) {
+
+        return HomeDashboard.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .isActive(user.isActive())
+                .createdOn(user.getCreatedOn())
+                .wallets(List.of(WalletBalance.builder()
+                        .id(UUID.randomUUID())
+                        .type(WalletType.DEFAULT)
+                        .status(WalletStatus.ACTIVE)
+                        .balance(new BigDecimal("20.00"))
+                        .updatedOn(LocalDateTime.now())
+                        .build()))
+                .credit(CreditSummary.builder()
+                        .status(CreditStatus.PAYED)
+                        .amount(new BigDecimal("0.00"))
+                        .nextPaymentOn(LocalDate.now())
+                        .build())
+                .recentTransactions(List.of(TransactionResponse.of(aRandomTransaction())))
+                .build();
+    }
+
     public static RegisterRequest aRandomRegisterRequest() {
 
         return RegisterRequest.builder()
@@ -135,8 +177,8 @@ public class TestBuilder {
                 .owner(aRandomUser())
                 .sender("sender")
                 .receiver("receiver")
-                .amount(new BigDecimal(50))
-                .balanceLeft(new BigDecimal(40))
+                .amount(Money.of(50))
+                .balanceLeft(Money.of(40))
                 .type(TransactionType.DEPOSIT)
                 .description("description")
                 .status(TransactionStatus.SUCCEEDED)
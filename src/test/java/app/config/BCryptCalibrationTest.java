@@ -0,0 +1,42 @@
+package app.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BCryptCalibrationTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void givenTargetFourTimesTheMinimumHashTime_whenStrengthFor_thenStrengthIsRaisedByTwo() {
+        assertEquals(12, BCryptCalibration.strengthFor(200 * MILLIS, 50 * MILLIS, 10, 14));
+    }
+
+    @Test
+    void givenTargetBetweenTwoStrengths_whenStrengthFor_thenTheLowerOneIsPicked() {
+        assertEquals(11, BCryptCalibration.strengthFor(150 * MILLIS, 50 * MILLIS, 10, 14));
+    }
+
+    @Test
+    void givenSlowHost_whenStrengthFor_thenMinimumStrengthIsKept() {
+        assertEquals(10, BCryptCalibration.strengthFor(100 * MILLIS, 400 * MILLIS, 10, 14));
+    }
+
+    @Test
+    void givenFastHost_whenStrengthFor_thenMaximumStrengthIsNotExceeded() {
+        assertEquals(14, BCryptCalibration.strengthFor(10_000 * MILLIS, MILLIS, 10, 14));
+    }
+
+    @Test
+    void givenOneOutlierSample_whenMedian_thenItIsIgnored() {
+        assertEquals(50 * MILLIS, BCryptCalibration.median(new long[]{52 * MILLIS, 48 * MILLIS, 900 * MILLIS, 50 * MILLIS, 49 * MILLIS}));
+    }
+
+    @Test
+    void givenZeroTarget_whenCalibrate_thenMinimumStrengthIsPicked() {
+        assertEquals(4, BCryptCalibration.calibrate(Duration.ZERO, 4, 6));
+    }
+}
@@ -0,0 +1,117 @@
+package app.config;
+
+import app.exception.PasswordHashingOverloadedException;
+import app.exception.PasswordVerificationOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void givenEncodedPassword_whenMatches_thenItIsVerifiedOnThePool() {
+
+        passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 10, 5000, meterRegistry);
+
+        String encoded = passwordEncoder.encode("password");
+
+        assertTrue(passwordEncoder.matches("password", encoded));
+        assertFalse(passwordEncoder.matches("wrong", encoded));
+        assertEquals(1, meterRegistry.get("executor.pool.core").tag("name", BoundedPasswordEncoder.METRICS_NAME).gauge().value());
+    }
+
+    @Test
+    void givenHashOfLowerStrength_whenUpgradeEncoding_thenItNeedsRehashing() {
+
+        passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 10, 5000, meterRegistry);
+
+        assertTrue(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertFalse(passwordEncoder.upgradeEncoding(passwordEncoder.encode("password")));
+    }
+
+    @Test
+    void givenFullQueue_whenEncode_thenTheCallIsShedAndCounted() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, 5000, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+        awaitQueued();
+
+        assertThrows(PasswordHashingOverloadedException.class, () -> passwordEncoder.encode("third"));
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+    }
+
+    @Test
+    void givenSlowHash_whenTimeoutPasses_thenTheCallIsShed() {
+
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1), new CountDownLatch(1)), 1, 1, 50, meterRegistry);
+
+        assertThrows(PasswordHashingOverloadedException.class, () -> passwordEncoder.encode("password"));
+    }
+
+    @Test
+    void givenSlowVerification_whenTimeoutPasses_thenTheLoginFailsWithAnAuthenticationException() {
+
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1), new CountDownLatch(1)), 1, 1, 50, meterRegistry);
+
+        assertThrows(PasswordVerificationOverloadedException.class, () -> passwordEncoder.matches("password", "password"));
+    }
+
+    private void awaitQueued() throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("executor.queued").tag("name", BoundedPasswordEncoder.METRICS_NAME).gauge().value() < 1) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Second call was never queued.");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
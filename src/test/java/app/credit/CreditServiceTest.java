@@ -4,6 +4,8 @@ import app.credit.model.Credit;
 import app.credit.model.CreditStatus;
 import app.credit.repository.CreditRepository;
 import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
+import app.money.Money;
 import app.user.model.User;
 import app.wallet.model.Wallet;
 import org.junit.jupiter.api.Test;
@@ -27,6 +29,9 @@ public class CreditServiceTest {
     @Mock
     private CreditRepository creditRepository;
 
+    @Mock
+    private HomeDashboardService homeDashboardService;
+
     @InjectMocks
     private CreditService creditService;
 
@@ -39,7 +44,7 @@ public class CreditServiceTest {
         Credit expectedCredit =  Credit.builder()
                 .owner(user)
                 .status(CreditStatus.PAYED)
-                .amount(new BigDecimal(0))
+                .amount(Money.of(0))
                 .payedOn(null)
                 .nextPaymentOn(firstDayOfTheNextMonth)
                 .build();
@@ -56,7 +61,7 @@ public class CreditServiceTest {
     @Test
     void givenAmount_whenAddAmountToCredit_thenTheAmountIsAddedToTheUserCredit() {
 
-        BigDecimal amount = new BigDecimal(20);
+        Money amount = Money.of(20);
         User user = User.builder()
                 .id(UUID.randomUUID())
                 .build();
@@ -65,14 +70,14 @@ public class CreditServiceTest {
                 .id(UUID.randomUUID())
                 .owner(user)
                 .status(CreditStatus.PAYED)
-                .amount(new BigDecimal(0))
+                .amount(Money.of(0))
                 .build();
 
         when(creditRepository.findByOwnerId(user.getId())).thenReturn(Optional.of(credit));
 
         creditService.addAmountToCredit(user, amount);
 
-        assertEquals(credit.getAmount(), new BigDecimal(20));
+        assertEquals(credit.getAmount(), Money.of(20));
         verify(creditRepository, times(1)).save(credit);
     }
 
@@ -0,0 +1,138 @@
+package app.dashboard;
+
+import app.config.CacheConfiguration;
+import app.credit.model.CreditStatus;
+import app.dashboard.service.HomeDashboardService;
+import app.money.Money;
+import app.transaction.repository.TransactionRepository;
+import app.user.model.UserRole;
+import app.user.repository.DashboardRow;
+import app.user.repository.UserRepository;
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
+import app.web.dto.HomeDashboard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HomeDashboardServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private HomeDashboardService homeDashboardService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        homeDashboardService = new HomeDashboardService(userRepository, transactionRepository, new ConcurrentMapCacheManager(CacheConfiguration.HOME_DASHBOARDS), 5);
+    }
+
+    @Test
+    void givenUserWithWalletsAndCredit_whenGetHomeDashboard_thenRowsAreMappedAndCached() {
+
+        when(userRepository.findDashboardRows(userId)).thenReturn(List.of(
+                aRow(WalletType.DEFAULT, Money.of(new BigDecimal("12.50"))),
+                aRow(WalletType.SAVING, Money.of(30))));
+
+        HomeDashboard dashboard = homeDashboardService.getHomeDashboard(userId);
+        HomeDashboard cached = homeDashboardService.getHomeDashboard(userId);
+
+        assertSame(dashboard, cached);
+        assertEquals("username", dashboard.getUsername());
+        assertThat(dashboard.getWallets()).hasSize(2);
+        assertEquals(new BigDecimal("12.50"), dashboard.getWallets().getFirst().getBalance());
+        assertEquals(CreditStatus.UNPAID, dashboard.getCredit().getStatus());
+        assertEquals(new BigDecimal("15.00"), dashboard.getCredit().getAmount());
+        verify(userRepository, times(1)).findDashboardRows(userId);
+        verify(transactionRepository, times(1)).findLatestByOwnerId(eq(userId), any());
+    }
+
+    @Test
+    void givenUserWithoutWalletsAndCredit_whenGetHomeDashboard_thenBothAreEmpty() {
+
+        DashboardRow row = aRow(null, null);
+        row.setWalletId(null);
+        row.setCreditStatus(null);
+        row.setCreditAmount(null);
+        when(userRepository.findDashboardRows(userId)).thenReturn(List.of(row));
+
+        HomeDashboard dashboard = homeDashboardService.getHomeDashboard(userId);
+
+        assertThat(dashboard.getWallets()).isEmpty();
+        assertNull(dashboard.getCredit());
+    }
+
+    @Test
+    void givenUnknownUser_whenGetHomeDashboard_thenExceptionIsThrown() {
+
+        when(userRepository.findDashboardRows(userId)).thenReturn(List.of());
+
+        assertThrows(RuntimeException.class, () -> homeDashboardService.getHomeDashboard(userId));
+    }
+
+    @Test
+    void givenActiveTransaction_whenOwnerChanged_thenDashboardIsEvictedOnlyAfterCommit() {
+
+        when(userRepository.findDashboardRows(userId)).thenReturn(List.of(aRow(WalletType.DEFAULT, Money.of(10))));
+        homeDashboardService.getHomeDashboard(userId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            homeDashboardService.ownerChanged(userId);
+            homeDashboardService.getHomeDashboard(userId);
+
+            verify(userRepository, times(1)).findDashboardRows(userId);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        homeDashboardService.getHomeDashboard(userId);
+
+        verify(userRepository, times(2)).findDashboardRows(userId);
+    }
+
+    private DashboardRow aRow(WalletType type, Money balance) {
+
+        return DashboardRow.builder()
+                .userId(userId)
+                .username("username")
+                .email("email@gmail.com")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .walletId(UUID.randomUUID())
+                .walletType(type)
+                .walletStatus(WalletStatus.ACTIVE)
+                .walletBalance(balance)
+                .walletUpdatedOn(LocalDateTime.now())
+                .creditStatus(CreditStatus.UNPAID)
+                .creditAmount(Money.of(15))
+                .nextPaymentOn(LocalDate.now())
+                .build();
+    }
+}
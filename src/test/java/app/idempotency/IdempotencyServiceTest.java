@@ -0,0 +1,133 @@
+package app.idempotency;
+
+import app.TestBuilder;
+import app.exception.IdempotencyKeyReusedException;
+import app.idempotency.model.IdempotencyKey;
+import app.idempotency.model.IdempotencyRecord;
+import app.idempotency.repository.IdempotencyRecordRepository;
+import app.idempotency.service.IdempotencyCache;
+import app.idempotency.service.IdempotencyService;
+import app.transaction.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyCache idempotencyCache;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyCache = new IdempotencyCache(100, Duration.ofHours(24));
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, idempotencyCache, Duration.ofHours(24));
+    }
+
+    @Test
+    void givenNoIdempotencyKey_whenExecute_thenOperationRunsWithoutTouchingTheStore() {
+
+        Transaction transaction = TestBuilder.aRandomTransaction();
+
+        UUID result = idempotencyService.execute(IdempotencyKey.of(UUID.randomUUID(), null, "transfer"), () -> transaction);
+
+        assertEquals(transaction.getId(), result);
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void givenNewIdempotencyKey_whenExecuteTwice_thenOperationRunsOnceAndSecondCallIsServedFromCache() {
+
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(UUID.randomUUID(), "key", "transfer", new BigDecimal("10.00"));
+        Transaction transaction = TestBuilder.aRandomTransaction();
+        AtomicInteger executions = new AtomicInteger();
+
+        when(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(idempotencyKey.ownerId(), "key")).thenReturn(Optional.empty());
+
+        UUID first = idempotencyService.execute(idempotencyKey, () -> {
+            executions.incrementAndGet();
+            return transaction;
+        });
+        UUID second = idempotencyService.execute(IdempotencyKey.of(idempotencyKey.ownerId(), "key", "transfer", new BigDecimal(10)), () -> {
+            executions.incrementAndGet();
+            return transaction;
+        });
+
+        assertEquals(transaction.getId(), first);
+        assertEquals(transaction.getId(), second);
+        assertEquals(1, executions.get());
+        verify(idempotencyRecordRepository, times(1)).findByOwnerIdAndIdempotencyKey(idempotencyKey.ownerId(), "key");
+    }
+
+    @Test
+    void givenCompletedRecordInDatabase_whenExecute_thenOriginalTransactionIdIsReturned() {
+
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(UUID.randomUUID(), "key", "transfer", new BigDecimal(10));
+        UUID transactionId = UUID.randomUUID();
+
+        when(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(idempotencyKey.ownerId(), "key")).thenReturn(Optional.of(idempotencyKey.toRecord(transactionId)));
+
+        UUID result = idempotencyService.execute(idempotencyKey, () -> fail("operation must not run"));
+
+        assertEquals(transactionId, result);
+        assertEquals(transactionId, idempotencyCache.get(idempotencyKey).orElseThrow().transactionId());
+    }
+
+    @Test
+    void givenRecordOfDifferentRequest_whenExecute_thenIdempotencyKeyReusedExceptionIsThrown() {
+
+        UUID ownerId = UUID.randomUUID();
+        IdempotencyRecord record = IdempotencyKey.of(ownerId, "key", "transfer", new BigDecimal(10)).toRecord(UUID.randomUUID());
+
+        when(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(ownerId, "key")).thenReturn(Optional.of(record));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyService.execute(IdempotencyKey.of(ownerId, "key", "transfer", new BigDecimal(11)), () -> fail("operation must not run")));
+    }
+
+    @Test
+    void givenConcurrentRequestCommittedFirst_whenExecute_thenItsTransactionIdIsReturned() {
+
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(UUID.randomUUID(), "key", "transfer", new BigDecimal(10));
+        UUID transactionId = UUID.randomUUID();
+
+        when(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(idempotencyKey.ownerId(), "key"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(idempotencyKey.toRecord(transactionId)));
+
+        UUID result = idempotencyService.execute(idempotencyKey, () -> {
+            throw new DataIntegrityViolationException("duplicate");
+        });
+
+        assertEquals(transactionId, result);
+    }
+
+    @Test
+    void givenFailingOperation_whenExecute_thenNothingIsRecordedOrCached() {
+
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(UUID.randomUUID(), "key", "transfer", new BigDecimal(10));
+
+        when(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(idempotencyKey.ownerId(), "key")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(idempotencyKey, () -> {
+            throw new IllegalStateException();
+        }));
+        verify(idempotencyRecordRepository, never()).delete(any());
+        assertTrue(idempotencyCache.get(idempotencyKey).isEmpty());
+    }
+}
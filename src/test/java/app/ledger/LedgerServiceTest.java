@@ -0,0 +1,185 @@
+package app.ledger;
+
+import app.ledger.model.BalanceSnapshot;
+import app.ledger.model.Posting;
+import app.ledger.model.PostingDirection;
+import app.ledger.repository.BalanceSnapshotRepository;
+import app.ledger.repository.PostingRepository;
+import app.ledger.repository.WalletBalanceChange;
+import app.ledger.service.LedgerService;
+import app.money.Money;
+import app.wallet.model.Wallet;
+import app.wallet.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerServiceTest {
+
+    @Mock
+    private PostingRepository postingRepository;
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+    @Mock
+    private WalletRepository walletRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(postingRepository, balanceSnapshotRepository, walletRepository, transactionManager, Duration.ofMinutes(1), 2);
+    }
+
+    @Test
+    void givenTransfer_whenBuildTransferPostings_thenBalancedDebitAndCreditAreBuilt() {
+
+        UUID transactionId = UUID.randomUUID();
+        UUID senderWalletId = UUID.randomUUID();
+        UUID receiverWalletId = UUID.randomUUID();
+
+        List<Posting> postings = ledgerService.buildTransferPostings(transactionId, senderWalletId, receiverWalletId, Money.of(10));
+
+        assertEquals(2, postings.size());
+        assertEquals(postings.get(0).getEntryId(), postings.get(1).getEntryId());
+        assertEquals(senderWalletId, postings.get(0).getWalletId());
+        assertEquals(PostingDirection.DEBIT, postings.get(0).getDirection());
+        assertEquals(receiverWalletId, postings.get(1).getWalletId());
+        assertEquals(PostingDirection.CREDIT, postings.get(1).getDirection());
+        assertEquals(1000, postings.get(0).getAmountInCents());
+        assertEquals(1000, postings.get(1).getAmountInCents());
+    }
+
+    @Test
+    void givenSnapshot_whenComputeBalance_thenOnlyLaterPostingsAreAdded() {
+
+        UUID walletId = UUID.randomUUID();
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(5);
+        BalanceSnapshot snapshot = BalanceSnapshot.builder()
+                .walletId(walletId)
+                .balanceInCents(2500)
+                .cutoff(cutoff)
+                .build();
+
+        when(balanceSnapshotRepository.findById(walletId)).thenReturn(Optional.of(snapshot));
+        when(postingRepository.sumByWalletIdCreatedAfter(walletId, cutoff)).thenReturn(-1000L);
+
+        Money balance = ledgerService.computeBalance(walletId);
+
+        assertEquals(Money.of(15), balance);
+        verify(postingRepository, never()).sumByWalletId(any());
+    }
+
+    @Test
+    void givenWalletWhoseBalanceDiffersFromPostings_whenReconcileBalances_thenItIsCountedAsDrifted() {
+
+        Wallet snapshotWallet = Wallet.builder()
+                .id(new UUID(0L, 10L))
+                .balance(Money.of(20))
+                .build();
+        Wallet driftedWallet = Wallet.builder()
+                .id(new UUID(0L, 11L))
+                .balance(Money.of(20))
+                .build();
+        Wallet lastWallet = Wallet.builder()
+                .id(new UUID(0L, 12L))
+                .balance(Money.of(5))
+                .build();
+        BalanceSnapshot snapshot = BalanceSnapshot.builder()
+                .walletId(snapshotWallet.getId())
+                .balanceInCents(2500)
+                .cutoff(LocalDateTime.now().minusMinutes(5))
+                .build();
+
+        when(walletRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(snapshotWallet, driftedWallet));
+        when(walletRepository.findAllByIdGreaterThanOrderByIdAsc(eq(driftedWallet.getId()), any())).thenReturn(List.of(lastWallet));
+        when(walletRepository.findAllByIdGreaterThanOrderByIdAsc(eq(lastWallet.getId()), any())).thenReturn(List.of());
+        when(balanceSnapshotRepository.findAllById(anyList())).thenReturn(List.of(snapshot), List.of());
+        when(postingRepository.sumByWalletIdInAfterSnapshot(anyList()))
+                .thenReturn(List.of(change(snapshotWallet.getId(), -500), change(driftedWallet.getId(), 1000)), List.of(change(lastWallet.getId(), 500)));
+
+        int drifted = ledgerService.reconcileBalances();
+
+        assertEquals(1, drifted);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void givenWalletCreatedBeforeTheLedger_whenRecordMissingOpeningBalance_thenTheDifferenceIsBookedUnderTheWalletId() {
+
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .balance(Money.of(20))
+                .build();
+
+        when(balanceSnapshotRepository.findById(wallet.getId())).thenReturn(Optional.empty());
+        when(postingRepository.sumByWalletId(wallet.getId())).thenReturn(500L);
+        when(postingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Posting> postings = ledgerService.recordMissingOpeningBalance(wallet);
+
+        assertEquals(2, postings.size());
+        assertEquals(wallet.getId(), postings.get(0).getEntryId());
+        assertEquals(LedgerService.EXTERNAL_ACCOUNT_ID, postings.get(0).getWalletId());
+        assertEquals(PostingDirection.DEBIT, postings.get(0).getDirection());
+        assertEquals(wallet.getId(), postings.get(1).getWalletId());
+        assertEquals(PostingDirection.CREDIT, postings.get(1).getDirection());
+        assertEquals(1500, postings.get(1).getAmountInCents());
+    }
+
+    @Test
+    void givenPreviousSnapshots_whenTakeSnapshots_thenTouchedWalletsAreRolledForward() {
+
+        UUID walletId = UUID.randomUUID();
+        UUID newWalletId = UUID.randomUUID();
+        LocalDateTime previousCutoff = LocalDateTime.now().minusMinutes(10);
+        BalanceSnapshot snapshot = BalanceSnapshot.builder()
+                .walletId(walletId)
+                .balanceInCents(2500)
+                .cutoff(previousCutoff)
+                .build();
+
+        when(balanceSnapshotRepository.findFirstByOrderByCutoffDesc()).thenReturn(Optional.of(snapshot));
+        when(postingRepository.sumByWalletIdCreatedBetween(eq(previousCutoff), any())).thenReturn(List.of(change(walletId, -500), change(newWalletId, 500)));
+        when(balanceSnapshotRepository.findAllById(anyList())).thenReturn(List.of(snapshot));
+
+        int snapshots = ledgerService.takeSnapshots();
+
+        assertEquals(2, snapshots);
+        assertEquals(2000, snapshot.getBalanceInCents());
+        assertTrue(snapshot.getCutoff().isAfter(previousCutoff));
+        verify(balanceSnapshotRepository, times(1)).saveAll(argThat(saved -> ((Collection<?>) saved).size() == 2));
+        verify(postingRepository, never()).sumByWalletIdCreatedUpTo(any());
+    }
+
+    private WalletBalanceChange change(UUID walletId, long balanceChangeInCents) {
+
+        return new WalletBalanceChange() {
+            @Override
+            public UUID getWalletId() {
+                return walletId;
+            }
+
+            @Override
+            public long getBalanceChangeInCents() {
+                return balanceChangeInCents;
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package app.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void givenDecimalAmount_whenOf_thenItIsStoredAsCents() {
+
+        Money money = Money.of(new BigDecimal("12.34"));
+
+        assertEquals(1234, money.cents());
+        assertEquals(new BigDecimal("12.34"), money.toBigDecimal());
+        assertEquals("12.34", money.toString());
+    }
+
+    @Test
+    void givenAmountWithMoreThanTwoDecimals_whenOf_thenExceptionIsThrown() {
+
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void givenTwoAmounts_whenPlusAndMinus_thenResultIsExact() {
+
+        Money first = Money.of(new BigDecimal("0.10"));
+        Money second = Money.of(new BigDecimal("0.20"));
+
+        assertEquals(Money.of(new BigDecimal("0.30")), first.plus(second));
+        assertEquals(Money.ofCents(-10), first.minus(second));
+        assertTrue(first.isLessThan(second));
+        assertFalse(first.minus(first).isLessThan(Money.ZERO));
+    }
+
+    @Test
+    void givenOverflowingAmounts_whenPlus_thenExceptionIsThrown() {
+
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+    }
+}
@@ -0,0 +1,125 @@
+package app.outbox;
+
+import app.credit.service.CreditService;
+import app.exception.CreditDoNotExistException;
+import app.money.Money;
+import app.outbox.model.CreditAccruedPayload;
+import app.outbox.model.OutboxEvent;
+import app.outbox.model.OutboxEventType;
+import app.outbox.model.TransferReceivedPayload;
+import app.outbox.repository.OutboxEventRepository;
+import app.outbox.service.OutboxRelay;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private CreditService creditService;
+    @Mock
+    private UserService userService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, transactionService, creditService, userService, objectMapper, 100);
+    }
+
+    @Test
+    void givenNoPendingEvents_whenRelayBatch_thenNothingIsWritten() {
+
+        when(outboxEventRepository.findBatchForUpdate(any())).thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relayBatch());
+        verifyNoInteractions(transactionService, creditService);
+    }
+
+    @Test
+    void givenPendingEvents_whenRelayBatch_thenTransactionsAreSavedOnceAndCreditAccrualsAreSummedPerOwner() throws Exception {
+
+        UUID receiverId = UUID.randomUUID();
+        UUID ownerId = UUID.randomUUID();
+        User receiver = User.builder().id(receiverId).build();
+        User owner = User.builder().id(ownerId).build();
+        List<OutboxEvent> events = List.of(
+                event(OutboxEventType.TRANSFER_RECEIVED, new TransferReceivedPayload(receiverId, "sender", "receiver", 1000, 2500, "description")),
+                event(OutboxEventType.CREDIT_ACCRUED, new CreditAccruedPayload(ownerId, 1000)),
+                event(OutboxEventType.CREDIT_ACCRUED, new CreditAccruedPayload(ownerId, 550))
+        );
+
+        when(outboxEventRepository.findBatchForUpdate(any())).thenReturn(events);
+        when(userService.getUserReferenceById(receiverId)).thenReturn(receiver);
+        when(userService.getUserReferenceById(ownerId)).thenReturn(owner);
+        when(transactionService.buildTransaction(eq(receiver), eq("sender"), eq("receiver"), eq(Money.of(10)), eq(Money.of(25)), any(), eq("description"), any(), eq(TransactionTypeStatus.SECONDARY), isNull()))
+                .thenReturn(new Transaction());
+
+        int relayed = outboxRelay.relayBatch();
+
+        assertEquals(3, relayed);
+        verify(transactionService, times(1)).saveTransactions(argThat(transactions -> transactions.size() == 1));
+        verify(creditService, times(1)).addAmountToCredit(owner, Money.ofCents(1550));
+        verify(outboxEventRepository, times(1)).deleteAllInBatch(events);
+    }
+
+    @Test
+    void givenUnreadableEventAndOwnerWithoutCredit_whenRelayBatch_thenTheyAreFlaggedAndTheRestIsRelayed() throws Exception {
+
+        UUID ownerId = UUID.randomUUID();
+        UUID ownerWithoutCreditId = UUID.randomUUID();
+        User owner = User.builder().id(ownerId).build();
+        User ownerWithoutCredit = User.builder().id(ownerWithoutCreditId).build();
+        OutboxEvent unreadable = event(OutboxEventType.TRANSFER_RECEIVED, "not a transfer");
+        OutboxEvent accrued = event(OutboxEventType.CREDIT_ACCRUED, new CreditAccruedPayload(ownerId, 1000));
+        OutboxEvent withoutCredit = event(OutboxEventType.CREDIT_ACCRUED, new CreditAccruedPayload(ownerWithoutCreditId, 550));
+
+        when(outboxEventRepository.findBatchForUpdate(any())).thenReturn(List.of(unreadable, accrued, withoutCredit));
+        when(userService.getUserReferenceById(ownerId)).thenReturn(owner);
+        when(userService.getUserReferenceById(ownerWithoutCreditId)).thenReturn(ownerWithoutCredit);
+        lenient().doThrow(new CreditDoNotExistException("Credit for owner with id [%s] does not exist.".formatted(ownerWithoutCreditId)))
+                .when(creditService).addAmountToCredit(ownerWithoutCredit, Money.ofCents(550));
+
+        outboxRelay.relayBatch();
+
+        verify(creditService, times(1)).addAmountToCredit(owner, Money.ofCents(1000));
+        verify(outboxEventRepository, times(1)).deleteAllInBatch(List.of(accrued));
+        assertNotNull(unreadable.getFailedOn());
+        assertNotNull(unreadable.getFailureReason());
+        assertNotNull(withoutCredit.getFailedOn());
+        assertNull(accrued.getFailedOn());
+    }
+
+    private OutboxEvent event(OutboxEventType type, Object payload) throws Exception {
+
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .payload(objectMapper.writeValueAsString(payload))
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package app.report;
+
+import app.TestBuilder;
+import app.money.Money;
+import app.report.service.ReportCounters;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.repository.TransactionRepository;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.wallet.repository.WalletRepository;
+import app.web.dto.TransactionsReport;
+import app.web.dto.UsersReport;
+import app.web.dto.WalletsReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportCountersTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private ReportCounters reportCounters;
+
+    @Test
+    void givenCountersNotSeeded_whenGetReports_thenDatabaseIsQueriedOnlyOnce() {
+
+        seedWithRandomReports();
+
+        UsersReport usersReport = reportCounters.getUsersReport();
+        WalletsReport walletsReport = reportCounters.getWalletsReport();
+        TransactionsReport transactionsReport = reportCounters.getTransactionsReport();
+
+        assertEquals(6, usersReport.getTotalUsers());
+        assertEquals(2, usersReport.getInactiveUsers());
+        assertEquals(5, usersReport.getNonAdmins());
+        assertEquals(new BigDecimal("1500.00"), walletsReport.getTotalWalletsAmount());
+        assertEquals(6, walletsReport.getInactiveWallets());
+        assertEquals(new BigDecimal("100.00"), transactionsReport.getTotalTransactionAmount());
+        assertEquals(2, transactionsReport.getUnsuccessfulTransactions());
+        verify(userRepository, times(1)).getReport();
+        verify(walletRepository, times(1)).getReport();
+        verify(transactionRepository, times(1)).getReport();
+    }
+
+    @Test
+    void givenSeededCounters_whenMutationsAreRecorded_thenReportsReflectThem() {
+
+        seedWithRandomReports();
+        reportCounters.reconcile();
+
+        User admin = TestBuilder.aRandomUser();
+        admin.setRole(UserRole.ADMIN);
+        admin.setActive(true);
+        Wallet activeWallet = Wallet.builder().status(WalletStatus.ACTIVE).balance(Money.of(10)).build();
+        Wallet inactiveWallet = Wallet.builder().status(WalletStatus.INACTIVE).balance(Money.ZERO).build();
+
+        reportCounters.userRegistered(admin);
+        reportCounters.userStatusChanged(false);
+        reportCounters.walletsCreated(List.of(activeWallet, inactiveWallet));
+        reportCounters.walletBalancesChanged(-250);
+        reportCounters.transactionsRecorded(List.of(
+                aTransaction(Money.of(20), TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN),
+                aTransaction(Money.of(20), TransactionStatus.SUCCEEDED, TransactionTypeStatus.SECONDARY),
+                aTransaction(Money.of(5), TransactionStatus.FAILED, TransactionTypeStatus.MAIN)));
+
+        UsersReport usersReport = reportCounters.getUsersReport();
+        WalletsReport walletsReport = reportCounters.getWalletsReport();
+        TransactionsReport transactionsReport = reportCounters.getTransactionsReport();
+
+        assertEquals(7, usersReport.getTotalUsers());
+        assertEquals(4, usersReport.getActiveUser());
+        assertEquals(2, usersReport.getAdmins());
+        assertEquals(20, walletsReport.getTotalWallets());
+        assertEquals(13, walletsReport.getActiveWallets());
+        assertEquals(new BigDecimal("1507.50"), walletsReport.getTotalWalletsAmount());
+        assertEquals(8, transactionsReport.getTotalTransactions());
+        assertEquals(new BigDecimal("120.00"), transactionsReport.getTotalTransactionAmount());
+        assertEquals(6, transactionsReport.getSuccessfulTransactions());
+        assertEquals(3, transactionsReport.getUnsuccessfulTransactions());
+    }
+
+    @Test
+    void givenActiveTransaction_whenMutationIsRecorded_thenItIsCountedOnlyAfterCommit() {
+
+        seedWithRandomReports();
+        reportCounters.reconcile();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reportCounters.walletBalancesChanged(1000);
+
+            assertEquals(new BigDecimal("1500.00"), reportCounters.getWalletsReport().getTotalWalletsAmount());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(new BigDecimal("1510.00"), reportCounters.getWalletsReport().getTotalWalletsAmount());
+    }
+
+    @Test
+    void givenDriftedCounters_whenReconcile_thenCountersAreResetToTheDatabaseValues() {
+
+        seedWithRandomReports();
+        reportCounters.reconcile();
+        reportCounters.walletStatusChanged(WalletStatus.ACTIVE);
+        reportCounters.userRegistered(TestBuilder.aRandomUser());
+
+        reportCounters.reconcile();
+
+        assertEquals(12, reportCounters.getWalletsReport().getActiveWallets());
+        assertEquals(6, reportCounters.getUsersReport().getTotalUsers());
+    }
+
+    private void seedWithRandomReports() {
+
+        when(userRepository.getReport()).thenReturn(TestBuilder.aRandomUserReport());
+        when(walletRepository.getReport()).thenReturn(TestBuilder.aRandomWalletsReport());
+        when(transactionRepository.getReport()).thenReturn(TestBuilder.aRandomTransactionsReport());
+    }
+
+    private Transaction aTransaction(Money amount, TransactionStatus status, TransactionTypeStatus typeStatus) {
+
+        Transaction transaction = TestBuilder.aRandomTransaction();
+        transaction.setAmount(amount);
+        transaction.setStatus(status);
+        transaction.setTypeStatus(typeStatus);
+        return transaction;
+    }
+}
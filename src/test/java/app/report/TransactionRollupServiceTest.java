@@ -0,0 +1,173 @@
+package app.report;
+
+import app.money.Money;
+import app.report.model.RollupGranularity;
+import app.report.model.RollupWatermark;
+import app.report.model.TransactionRollup;
+import app.report.repository.RollupWatermarkRepository;
+import app.report.repository.TransactionRollupRepository;
+import app.report.service.TransactionRollupService;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.repository.TransactionVolume;
+import app.web.dto.TransactionVolumeReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionRollupServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionRollupRepository transactionRollupRepository;
+
+    @Mock
+    private RollupWatermarkRepository rollupWatermarkRepository;
+
+    private TransactionRollupService transactionRollupService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRollupService = new TransactionRollupService(transactionRepository, transactionRollupRepository, rollupWatermarkRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void givenNoWatermark_whenRollUp_thenAllTransactionsUpToTheCutoffAreRolledUpIntoHourlyAndDailyBuckets() {
+
+        when(rollupWatermarkRepository.findByNameForUpdate(any())).thenReturn(Optional.empty());
+        when(transactionRepository.sumVolumeByHourCreatedUpTo(any())).thenReturn(List.of(
+                aVolume(9, 3, "10.00", 1),
+                aVolume(14, 2, "5.50", 0)));
+
+        int volumes = transactionRollupService.rollUp();
+
+        assertEquals(2, volumes);
+        verify(transactionRepository, never()).sumVolumeByHourCreatedBetween(any(), any());
+
+        List<TransactionRollup> hourly = savedRollups(RollupGranularity.HOUR);
+        assertThat(hourly).hasSize(2);
+
+        List<TransactionRollup> daily = savedRollups(RollupGranularity.DAY);
+        assertThat(daily).hasSize(1);
+        assertEquals(LocalDateTime.of(2026, 3, 5, 0, 0), daily.getFirst().getBucketStart());
+        assertEquals(5, daily.getFirst().getTransactionCount());
+        assertEquals(Money.of(new BigDecimal("15.50")), daily.getFirst().getSucceededAmount());
+        assertEquals(1, daily.getFirst().getFailedCount());
+
+        ArgumentCaptor<RollupWatermark> watermark = ArgumentCaptor.forClass(RollupWatermark.class);
+        verify(rollupWatermarkRepository).save(watermark.capture());
+        assertThat(watermark.getValue().getRolledUpTo()).isBefore(LocalDateTime.now().minusSeconds(59));
+    }
+
+    @Test
+    void givenWatermark_whenRollUp_thenOnlyNewTransactionsAreAddedToTheExistingBuckets() {
+
+        LocalDateTime previousCutoff = LocalDateTime.now().minusMinutes(10);
+        TransactionRollup existingDay = TransactionRollup.builder()
+                .granularity(RollupGranularity.DAY)
+                .bucketStart(LocalDateTime.of(2026, 3, 5, 0, 0))
+                .type(TransactionType.DEPOSIT)
+                .typeStatus(TransactionTypeStatus.MAIN)
+                .transactionCount(10)
+                .succeededAmount(Money.of(100))
+                .failedCount(2)
+                .build();
+
+        when(rollupWatermarkRepository.findByNameForUpdate(any())).thenReturn(Optional.of(RollupWatermark.builder().rolledUpTo(previousCutoff).build()));
+        when(transactionRepository.sumVolumeByHourCreatedBetween(eq(previousCutoff), any())).thenReturn(List.of(aVolume(9, 3, "10.00", 1)));
+        when(transactionRollupRepository.findAllByGranularityAndBucketStartIn(eq(RollupGranularity.HOUR), any())).thenReturn(List.of());
+        when(transactionRollupRepository.findAllByGranularityAndBucketStartIn(eq(RollupGranularity.DAY), any())).thenReturn(List.of(existingDay));
+
+        transactionRollupService.rollUp();
+
+        verify(transactionRepository, never()).sumVolumeByHourCreatedUpTo(any());
+        assertEquals(13, existingDay.getTransactionCount());
+        assertEquals(Money.of(110), existingDay.getSucceededAmount());
+        assertEquals(3, existingDay.getFailedCount());
+    }
+
+    @Test
+    void givenWatermarkAtTheCutoff_whenRollUp_thenNothingIsQueried() {
+
+        when(rollupWatermarkRepository.findByNameForUpdate(any())).thenReturn(Optional.of(RollupWatermark.builder().rolledUpTo(LocalDateTime.now()).build()));
+
+        int volumes = transactionRollupService.rollUp();
+
+        assertEquals(0, volumes);
+        verifyNoInteractions(transactionRepository, transactionRollupRepository);
+        verify(rollupWatermarkRepository, never()).save(any());
+    }
+
+    @Test
+    void givenRangeStartingMidDay_whenGetTransactionVolume_thenTheWholeFirstDayIsIncluded() {
+
+        LocalDateTime from = LocalDateTime.of(2026, 3, 5, 15, 30);
+        LocalDateTime to = LocalDateTime.of(2026, 3, 7, 0, 0);
+        TransactionRollup rollup = TransactionRollup.builder()
+                .granularity(RollupGranularity.DAY)
+                .bucketStart(LocalDateTime.of(2026, 3, 5, 0, 0))
+                .type(TransactionType.WITHDRAWAL)
+                .typeStatus(TransactionTypeStatus.SECONDARY)
+                .transactionCount(7)
+                .succeededAmount(Money.of(70))
+                .failedCount(0)
+                .build();
+
+        when(transactionRollupRepository.findAllInRange(RollupGranularity.DAY, LocalDateTime.of(2026, 3, 5, 0, 0), to)).thenReturn(List.of(rollup));
+        when(rollupWatermarkRepository.findById(any())).thenReturn(Optional.empty());
+
+        TransactionVolumeReport report = transactionRollupService.getTransactionVolume(from, to, RollupGranularity.DAY);
+
+        assertThat(report.getBuckets()).hasSize(1);
+        assertEquals(7, report.getBuckets().getFirst().getTransactionCount());
+        assertEquals(new BigDecimal("70.00"), report.getBuckets().getFirst().getSucceededAmount());
+        assertEquals(from, report.getFrom());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransactionRollup> savedRollups(RollupGranularity granularity) {
+
+        ArgumentCaptor<Collection<TransactionRollup>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(transactionRollupRepository, times(RollupGranularity.values().length)).saveAll(captor.capture());
+
+        List<TransactionRollup> rollups = new ArrayList<>();
+        captor.getAllValues().forEach(rollups::addAll);
+        return rollups.stream().filter(rollup -> rollup.getGranularity() == granularity).toList();
+    }
+
+    private TransactionVolume aVolume(int hour, long count, String succeededAmount, long failedCount) {
+
+        return TransactionVolume.builder()
+                .year(2026)
+                .month(3)
+                .day(5)
+                .hour(hour)
+                .type(TransactionType.DEPOSIT)
+                .typeStatus(TransactionTypeStatus.MAIN)
+                .transactionCount(count)
+                .succeededAmount(new BigDecimal(succeededAmount))
+                .failedCount(failedCount)
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package app.report;
+
+import app.TestBuilder;
+import app.money.Money;
+import app.report.model.TransactionSketch;
+import app.report.repository.TransactionSketchRepository;
+import app.report.service.TransactionSketchService;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionTypeStatus;
+import app.user.model.User;
+import app.web.dto.TransactionSketchReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionSketchServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 5);
+
+    @Mock
+    private TransactionSketchRepository transactionSketchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionSketchService transactionSketchService;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+
+        transactionSketchService = new TransactionSketchService(transactionSketchRepository, transactionManager);
+        owner = TestBuilder.aRandomUser();
+    }
+
+    @Test
+    void givenRecordedTransactions_whenFlush_thenOwnerAndAllOwnersSketchesAreStored() {
+
+        transactionSketchService.transactionsRecorded(List.of(
+                aTransaction("alice", 10, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN),
+                aTransaction("bob", 20, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN),
+                aTransaction("carol", 30, TransactionStatus.FAILED, TransactionTypeStatus.MAIN)));
+
+        int flushed = transactionSketchService.flush();
+
+        assertEquals(2, flushed);
+        List<TransactionSketch> stored = savedSketches();
+        TransactionSketch ownerSketch = sketchOf(stored, owner.getId());
+        TransactionSketch allSketch = sketchOf(stored, TransactionSketchService.ALL_OWNERS);
+        assertEquals(DAY, ownerSketch.getBucketDay());
+        assertNotNull(ownerSketch.getCounterparties());
+        assertNull(allSketch.getCounterparties());
+        assertEquals(0, transactionSketchService.flush());
+    }
+
+    @Test
+    void givenStoredSketches_whenGetOwnerReport_thenPercentilesAndDistinctCounterpartiesAreEstimated() {
+
+        List<Transaction> transactions = new ArrayList<>(IntStream.rangeClosed(1, 100)
+                .mapToObj(amount -> aTransaction("receiver" + (amount % 5), amount, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN))
+                .toList());
+        transactions.add(aTransaction("stranger", 1000, TransactionStatus.FAILED, TransactionTypeStatus.MAIN));
+        transactionSketchService.transactionsRecorded(transactions);
+        transactionSketchService.flush();
+        TransactionSketch ownerSketch = sketchOf(savedSketches(), owner.getId());
+
+        when(transactionSketchRepository.findAllByOwnerIdAndBucketDayBetween(owner.getId(), DAY, DAY)).thenReturn(List.of(ownerSketch));
+
+        TransactionSketchReport report = transactionSketchService.getOwnerReport(owner.getId(), DAY, DAY);
+
+        assertEquals(100, report.getTransactionCount());
+        assertThat(report.getP50Amount()).isBetween(new BigDecimal("49.00"), new BigDecimal("51.00"));
+        assertThat(report.getP99Amount()).isBetween(new BigDecimal("98.00"), new BigDecimal("100.00"));
+        assertEquals(6, report.getDistinctCounterparties());
+    }
+
+    @Test
+    void givenStoredSketchForTheSameDay_whenFlush_thenPendingSketchIsMergedIntoIt() {
+
+        transactionSketchService.transactionsRecorded(List.of(aTransaction("alice", 10, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN)));
+        transactionSketchService.flush();
+        TransactionSketch stored = sketchOf(savedSketches(), TransactionSketchService.ALL_OWNERS);
+        clearInvocations(transactionSketchRepository);
+
+        when(transactionSketchRepository.findAllForUpdate(any(), eq(DAY))).thenReturn(List.of(stored));
+        transactionSketchService.transactionsRecorded(List.of(aTransaction("bob", 20, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN)));
+        transactionSketchService.flush();
+
+        when(transactionSketchRepository.findAllByOwnerIdAndBucketDayBetween(TransactionSketchService.ALL_OWNERS, DAY, DAY)).thenReturn(List.of(stored));
+        TransactionSketchReport report = transactionSketchService.getAmountPercentiles(DAY, DAY);
+
+        assertEquals(2, report.getTransactionCount());
+        assertNull(report.getOwnerId());
+        assertNull(report.getDistinctCounterparties());
+    }
+
+    @Test
+    void givenFailingFlush_whenFlushedAgain_thenPendingSketchesAreRetried() {
+
+        transactionSketchService.transactionsRecorded(List.of(aTransaction("alice", 10, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN)));
+        when(transactionSketchRepository.saveAll(any())).thenThrow(new RuntimeException("Database is unavailable.")).thenReturn(List.of());
+
+        assertThrows(RuntimeException.class, () -> transactionSketchService.flush());
+
+        assertEquals(2, transactionSketchService.flush());
+    }
+
+    @Test
+    void givenStoredSketchAndFailingFlush_whenFlushedAgain_thenStoredSketchIsCountedOnce() {
+
+        transactionSketchService.transactionsRecorded(List.of(aTransaction("alice", 10, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN)));
+        transactionSketchService.flush();
+        byte[] storedAmounts = sketchOf(savedSketches(), TransactionSketchService.ALL_OWNERS).getAmounts();
+        clearInvocations(transactionSketchRepository);
+
+        // The failed flush rolled back, so the retry reads the row as it was stored before.
+        when(transactionSketchRepository.findAllForUpdate(any(), eq(DAY))).thenAnswer(invocation -> List.of(TransactionSketch.builder()
+                .ownerId(TransactionSketchService.ALL_OWNERS)
+                .bucketDay(DAY)
+                .amounts(storedAmounts)
+                .build()));
+        when(transactionSketchRepository.saveAll(any())).thenThrow(new RuntimeException("Database is unavailable.")).thenReturn(List.of());
+        transactionSketchService.transactionsRecorded(List.of(aTransaction("bob", 20, TransactionStatus.SUCCEEDED, TransactionTypeStatus.MAIN)));
+
+        assertThrows(RuntimeException.class, () -> transactionSketchService.flush());
+        transactionSketchService.flush();
+
+        TransactionSketch retried = sketchOf(savedSketches().reversed(), TransactionSketchService.ALL_OWNERS);
+        when(transactionSketchRepository.findAllByOwnerIdAndBucketDayBetween(TransactionSketchService.ALL_OWNERS, DAY, DAY)).thenReturn(List.of(retried));
+        TransactionSketchReport report = transactionSketchService.getAmountPercentiles(DAY, DAY);
+
+        assertEquals(2, report.getTransactionCount());
+    }
+
+    @Test
+    void givenNoStoredSketches_whenGetAmountPercentiles_thenPercentilesAreEmpty() {
+
+        TransactionSketchReport report = transactionSketchService.getAmountPercentiles(DAY, DAY);
+
+        assertEquals(0, report.getTransactionCount());
+        assertNull(report.getP50Amount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransactionSketch> savedSketches() {
+
+        ArgumentCaptor<Collection<TransactionSketch>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(transactionSketchRepository, atLeastOnce()).saveAll(captor.capture());
+
+        List<TransactionSketch> sketches = new ArrayList<>();
+        captor.getAllValues().forEach(sketches::addAll);
+        return sketches;
+    }
+
+    private TransactionSketch sketchOf(List<TransactionSketch> sketches, UUID ownerId) {
+        return sketches.stream().filter(sketch -> sketch.getOwnerId().equals(ownerId)).findFirst().orElseThrow();
+    }
+
+    private Transaction aTransaction(String receiver, long amount, TransactionStatus status, TransactionTypeStatus typeStatus) {
+
+        Transaction transaction = TestBuilder.aRandomTransaction();
+        transaction.setOwner(owner);
+        transaction.setSender(owner.getUsername());
+        transaction.setReceiver(receiver);
+        transaction.setAmount(Money.of(amount));
+        transaction.setStatus(status);
+        transaction.setTypeStatus(typeStatus);
+        transaction.setCreatedOn(LocalDateTime.of(DAY, LocalDateTime.now().toLocalTime()));
+        return transaction;
+    }
+}
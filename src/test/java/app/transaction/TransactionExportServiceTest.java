@@ -0,0 +1,112 @@
+package app.transaction;
+
+import app.money.Money;
+import app.transaction.model.TransactionExportFormat;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
+import app.transaction.repository.TransactionRepository;
+import app.transaction.repository.TransactionSummary;
+import app.transaction.service.TransactionExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportService(transactionRepository, objectMapper);
+    }
+
+    @Test
+    void givenTransactions_whenExportAsCsv_thenHeaderAndOneEscapedLinePerTransactionAreWritten() throws Exception {
+
+        UUID ownerId = UUID.randomUUID();
+        TransactionSummary transaction = aTransactionSummary("Rent, \"June\"");
+        AtomicBoolean streamClosed = new AtomicBoolean();
+
+        when(transactionRepository.streamAllByOwnerId(ownerId)).thenReturn(Stream.of(transaction).onClose(() -> streamClosed.set(true)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transactionExportService.export(ownerId, TransactionExportFormat.CSV, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,createdOn,type,status"));
+        assertTrue(lines[1].startsWith(transaction.getId() + ","));
+        assertTrue(lines[1].contains(",10.00,150.00,\"Rent, \"\"June\"\"\","));
+        assertTrue(streamClosed.get());
+    }
+
+    @Test
+    void givenDescriptionStartingWithFormula_whenExportAsCsv_thenFieldIsPrefixedWithQuote() throws Exception {
+
+        UUID ownerId = UUID.randomUUID();
+
+        when(transactionRepository.streamAllByOwnerId(ownerId)).thenReturn(Stream.of(aTransactionSummary("=HYPERLINK(1)")));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transactionExportService.export(ownerId, TransactionExportFormat.CSV, outputStream);
+
+        assertTrue(outputStream.toString(StandardCharsets.UTF_8).contains(",'=HYPERLINK(1),"));
+    }
+
+    @Test
+    void givenTransactions_whenExportAsNdjson_thenOneJsonObjectPerLineIsWritten() throws Exception {
+
+        UUID ownerId = UUID.randomUUID();
+        TransactionSummary first = aTransactionSummary("first");
+        TransactionSummary second = aTransactionSummary("second");
+
+        when(transactionRepository.streamAllByOwnerId(ownerId)).thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transactionExportService.export(ownerId, TransactionExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode json = new ObjectMapper().readTree(lines[1]);
+        assertEquals(second.getId().toString(), json.get("id").asText());
+        assertEquals("second", json.get("description").asText());
+        assertEquals(10.00, json.get("amount").asDouble());
+    }
+
+    private TransactionSummary aTransactionSummary(String description) {
+
+        return TransactionSummary.builder()
+                .id(UUID.randomUUID())
+                .sender("sender")
+                .receiver("receiver")
+                .amount(Money.of(10))
+                .balanceLeft(Money.of(150))
+                .type(TransactionType.WITHDRAWAL)
+                .status(TransactionStatus.SUCCEEDED)
+                .typeStatus(TransactionTypeStatus.MAIN)
+                .description(description)
+                .createdOn(LocalDateTime.of(2024, 6, 5, 10, 0))
+                .build();
+    }
+}
@@ -1,18 +1,27 @@
 package app.transaction;
 
+import app.dashboard.service.HomeDashboardService;
+import app.exception.InvalidCursorException;
+import app.money.Money;
+import app.report.service.ReportCounters;
+import app.report.service.TransactionSketchService;
 import app.transaction.model.Transaction;
 import app.transaction.model.TransactionStatus;
 import app.transaction.model.TransactionType;
 import app.transaction.repository.TransactionRepository;
+import app.transaction.repository.TransactionSummary;
+import app.transaction.service.TransactionCursor;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
+import app.web.dto.TransactionPage;
+import app.web.dto.TransactionResponse;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +29,7 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +38,15 @@ public class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private ReportCounters reportCounters;
+
+    @Mock
+    private TransactionSketchService transactionSketchService;
+
+    @Mock
+    private HomeDashboardService homeDashboardService;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -43,8 +62,8 @@ public class TransactionServiceTest {
                 .owner(user)
                 .type(TransactionType.WITHDRAWAL)
                 .status(TransactionStatus.SUCCEEDED)
-                .amount(new BigDecimal(10))
-                .balanceLeft(new BigDecimal(150))
+                .amount(Money.of(10))
+                .balanceLeft(Money.of(150))
                 .build();
 
         when(transactionRepository.findByIdAndOwnerId(transaction.getId(), user.getId())).thenReturn(Optional.of(transaction));
@@ -59,38 +78,52 @@ public class TransactionServiceTest {
     }
 
     @Test
-    void givenHappyPath_whenGetAllUserTransaction() {
+    void givenMoreTransactionsThanPageSize_whenGetUserTransactionsPage_thenNextCursorPointsAfterTheLastReturnedTransaction() {
 
-        User user = User.builder()
-                .id(UUID.randomUUID())
-                .build();
+        UUID ownerId = UUID.randomUUID();
+        TransactionSummary newest = aTransactionCreatedOn(LocalDateTime.of(2024, 6, 5, 10, 0));
+        TransactionSummary older = aTransactionCreatedOn(LocalDateTime.of(2024, 6, 4, 10, 0));
+        TransactionSummary oldest = aTransactionCreatedOn(LocalDateTime.of(2024, 6, 3, 10, 0));
 
-        Transaction firstTransaction = Transaction.builder()
-                .id(UUID.randomUUID())
-                .owner(user)
-                .type(TransactionType.WITHDRAWAL)
-                .status(TransactionStatus.SUCCEEDED)
-                .amount(new BigDecimal(10))
-                .balanceLeft(new BigDecimal(150))
-                .createdOn(LocalDateTime.of(2025, 01, 15, 06, 01))
-                .build();
+        when(transactionRepository.findLatestByOwnerId(ownerId, Limit.of(3))).thenReturn(List.of(newest, older, oldest));
 
-        Transaction secondTransaction = Transaction.builder()
-                .id(UUID.randomUUID())
-                .owner(user)
-                .type(TransactionType.DEPOSIT)
-                .status(TransactionStatus.SUCCEEDED)
-                .amount(new BigDecimal(10))
-                .balanceLeft(new BigDecimal(150))
-                .createdOn(LocalDateTime.of(2024, 06, 05, 01, 59))
-                .build();
+        TransactionPage page = transactionService.getUserTransactionsPage(ownerId, null, 2);
 
-        List<Transaction> userTransactions = List.of(firstTransaction, secondTransaction);
+        assertThat(page.getTransactions()).extracting(TransactionResponse::getId).containsExactly(newest.getId(), older.getId());
+        assertEquals(TransactionCursor.of(older), TransactionCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void givenCursor_whenGetUserTransactionsPage_thenOnlyOlderTransactionsAreQueried() {
 
-        when(transactionRepository.findAllTransactionByOwnerId(user.getId())).thenReturn(userTransactions);
+        UUID ownerId = UUID.randomUUID();
+        TransactionSummary older = aTransactionCreatedOn(LocalDateTime.of(2024, 6, 4, 10, 0));
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2024, 6, 5, 10, 0), UUID.randomUUID());
 
-        List<Transaction> result = transactionService.getAllUserTransactions(user.getId());
+        when(transactionRepository.findByOwnerIdBefore(ownerId, cursor.createdOn(), cursor.id(), Limit.of(3))).thenReturn(List.of(older));
 
-       assertThat(result).hasSize(2);
+        TransactionPage page = transactionService.getUserTransactionsPage(ownerId, cursor.encode(), 2);
+
+        assertThat(page.getTransactions()).hasSize(1);
+        assertNull(page.getNextCursor());
+        verify(transactionRepository, never()).findLatestByOwnerId(any(), any());
+    }
+
+    @Test
+    void givenMalformedCursor_whenGetUserTransactionsPage_thenExceptionIsThrown() {
+
+        assertThrows(InvalidCursorException.class, () -> transactionService.getUserTransactionsPage(UUID.randomUUID(), "not-a-cursor", 2));
+    }
+
+    private TransactionSummary aTransactionCreatedOn(LocalDateTime createdOn) {
+
+        return TransactionSummary.builder()
+                .id(UUID.randomUUID())
+                .type(TransactionType.DEPOSIT)
+                .status(TransactionStatus.SUCCEEDED)
+                .amount(Money.of(10))
+                .balanceLeft(Money.of(150))
+                .createdOn(createdOn)
+                .build();
     }
 }
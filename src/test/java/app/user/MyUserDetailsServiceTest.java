@@ -1,20 +1,27 @@
 package app.user;
 
+import app.config.CacheConfiguration;
 import app.user.model.User;
+import app.user.model.UserPrinciple;
+import app.user.model.UserRole;
+import app.user.repository.UserAuthRecord;
 import app.user.repository.UserRepository;
 import app.user.service.MyUserDetailService;
+import app.user.service.UserAuthCache;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class MyUserDetailsServiceTest {
@@ -22,15 +29,21 @@ public class MyUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
     private MyUserDetailService myUserDetailService;
 
+    @BeforeEach
+    void setUp() {
+
+        UserAuthCache userAuthCache = new UserAuthCache(userRepository, new ConcurrentMapCacheManager(CacheConfiguration.USER_AUTH_RECORDS));
+        myUserDetailService = new MyUserDetailService(userRepository, userAuthCache);
+    }
+
     @Test
     void givenUnExistingUser_whenLoadUserByUsername_thenExceptionIsThrown() {
 
         String username = "username";
 
-        when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
+        when(userRepository.findAuthRecordByUsername(username)).thenReturn(Optional.empty());
 
         assertThrows(UsernameNotFoundException.class, () -> myUserDetailService.loadUserByUsername(username));
     }
@@ -38,17 +51,76 @@ public class MyUserDetailsServiceTest {
     @Test
     void givenHappyPath_whenLoadUserByUsername() {
 
+        UserAuthRecord authRecord = anAuthRecord();
+
+        when(userRepository.findAuthRecordByUsername(authRecord.getUsername())).thenReturn(Optional.of(authRecord));
+
+        UserDetails userDetails = myUserDetailService.loadUserByUsername(authRecord.getUsername());
+
+        assertNotNull(userDetails);
+        assertEquals(authRecord.getUsername(), userDetails.getUsername());
+        assertEquals(authRecord.getPassword(), userDetails.getPassword());
+        assertEquals(authRecord.getId(), ((UserPrinciple) userDetails).getId());
+    }
+
+    @Test
+    void givenCachedRecord_whenLoadUserByUsernameAgain_thenRecordIsNotQueriedAndPrincipleIsNew() {
+
+        UserAuthRecord authRecord = anAuthRecord();
+
+        when(userRepository.findAuthRecordByUsername(authRecord.getUsername())).thenReturn(Optional.of(authRecord));
+
+        UserPrinciple first = (UserPrinciple) myUserDetailService.loadUserByUsername(authRecord.getUsername());
+        first.eraseCredentials();
+        UserDetails second = myUserDetailService.loadUserByUsername(authRecord.getUsername());
+
+        assertEquals(authRecord.getPassword(), second.getPassword());
+        verify(userRepository, times(1)).findAuthRecordByUsername(authRecord.getUsername());
+    }
+
+    @Test
+    void givenOutdatedHash_whenUpdatePassword_thenNewHashIsStoredAndCachedRecordIsEvicted() {
+
+        UserAuthRecord authRecord = anAuthRecord();
+
+        when(userRepository.findAuthRecordByUsername(authRecord.getUsername())).thenReturn(Optional.of(authRecord));
+
+        UserDetails userDetails = myUserDetailService.loadUserByUsername(authRecord.getUsername());
+        UserDetails updated = myUserDetailService.updatePassword(userDetails, "new-hash");
+        myUserDetailService.loadUserByUsername(authRecord.getUsername());
+
+        assertEquals("new-hash", updated.getPassword());
+        verify(userRepository).updatePassword(authRecord.getId(), "new-hash");
+        verify(userRepository, times(2)).findAuthRecordByUsername(authRecord.getUsername());
+    }
+
+    @Test
+    void givenUser_whenPrincipleIsCreated_thenOnlyAuthenticationDetailsAreKept() {
+
         User user = User.builder()
+                .id(UUID.randomUUID())
                 .username("username")
-                .password("1234")
+                .password("hash")
+                .role(UserRole.ADMIN)
+                .isActive(false)
                 .build();
 
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        UserPrinciple principle = new UserPrinciple(user);
 
-        UserDetails userDetails = myUserDetailService.loadUserByUsername(user.getUsername());
+        assertEquals(user.getId(), principle.getId());
+        assertFalse(principle.isEnabled());
+        assertEquals("ROLE_ADMIN", principle.getAuthorities().iterator().next().getAuthority());
+        assertFalse(principle.toString().contains("hash"));
+    }
 
-        assertNotNull(userDetails);
-        assertEquals(user.getUsername(), userDetails.getUsername());
-        assertEquals(user.getPassword(), userDetails.getPassword());
+    private UserAuthRecord anAuthRecord() {
+
+        return UserAuthRecord.builder()
+                .id(UUID.randomUUID())
+                .username("username")
+                .password("1234")
+                .role(UserRole.USER)
+                .isActive(true)
+                .build();
     }
 }
@@ -4,6 +4,7 @@ import app.TestBuilder;
 import app.credit.model.Credit;
 import app.credit.model.CreditStatus;
 import app.credit.service.CreditService;
+import app.email.service.EmailService;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.web.dto.RegisterRequest;
@@ -12,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +29,9 @@ public class RegisterTest {
     @Autowired
     private CreditService creditService;
 
+    @MockitoBean
+    private EmailService emailService;
+
     @Test
     void register_happyPath() {
 
@@ -0,0 +1,154 @@
+package app.user;
+
+import app.TestBuilder;
+import app.config.CacheConfiguration;
+import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
+import app.email.service.EmailService;
+import app.outbox.service.OutboxService;
+import app.report.service.ReportCounters;
+import app.user.model.User;
+import app.user.repository.UserRepository;
+import app.user.service.UserAuthCache;
+import app.user.service.UserIdentityFilter;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.EditRequest;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = UserCacheTest.Config.class)
+class UserCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import({CacheConfiguration.class, UserService.class})
+    static class Config {
+    }
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private WalletService walletService;
+
+    @MockitoBean
+    private CreditService creditService;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private ReportCounters reportCounters;
+
+    @MockitoBean
+    private HomeDashboardService homeDashboardService;
+
+    @MockitoBean
+    private UserIdentityFilter userIdentityFilter;
+
+    @MockitoBean
+    private UserAuthCache userAuthCache;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void givenCachedUser_whenGetUserById_thenRepositoryIsQueriedOnceAndHitsAreRecorded() {
+
+        User user = aStoredUser();
+        CacheStats before = usersCache().getNativeCache().stats();
+
+        User first = userService.getUserById(user.getId());
+        User second = userService.getUserById(user.getId());
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        verify(userRepository, times(1)).findById(user.getId());
+        CacheStats stats = usersCache().getNativeCache().stats().minus(before);
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void givenCachedUsers_whenOneChangesStatus_thenOnlyThatUserIsEvicted() {
+
+        User changed = aStoredUser();
+        User untouched = aStoredUser();
+        userService.getUserById(changed.getId());
+        userService.getUserById(untouched.getId());
+
+        userService.changeUserStatus(changed.getId());
+        userService.getUserById(changed.getId());
+        userService.getUserById(untouched.getId());
+
+        // Once for the first read, once inside changeUserStatus and once after the eviction.
+        verify(userRepository, times(3)).findById(changed.getId());
+        verify(userRepository, times(1)).findById(untouched.getId());
+    }
+
+    @Test
+    void givenCachedUser_whenEdited_thenItIsReloaded() {
+
+        User user = aStoredUser();
+        userService.getUserById(user.getId());
+
+        userService.editUser(user.getId(), EditRequest.builder().firstName("").lastName("").email("").profilePic("").build());
+        userService.getUserById(user.getId());
+
+        verify(userRepository, times(3)).findById(user.getId());
+    }
+
+    @Test
+    void givenUserChangedOnAnotherInstance_whenEvicted_thenItIsReloaded() {
+
+        User user = aStoredUser();
+        userService.getUserById(user.getId());
+
+        userService.evictUser(user.getId());
+        userService.getUserById(user.getId());
+
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    @Test
+    void givenUnknownCacheName_whenGetCache_thenNoCacheIsCreated() {
+        assertNull(cacheManager.getCache("unknown"));
+    }
+
+    private User aStoredUser() {
+
+        User user = TestBuilder.aRandomUser();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    private CaffeineCache usersCache() {
+        return (CaffeineCache) cacheManager.getCache(CacheConfiguration.USERS);
+    }
+}
@@ -0,0 +1,83 @@
+package app.user;
+
+import app.user.repository.UserIdentity;
+import app.user.repository.UserRepository;
+import app.user.service.UserIdentityFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserIdentityFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserIdentityFilter userIdentityFilter;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityFilter = new UserIdentityFilter(userRepository, 1000, 0.001);
+    }
+
+    @Test
+    void givenFilterNotBuiltYet_whenQueried_thenEveryNameMightBeTaken() {
+
+        assertTrue(userIdentityFilter.mightContainUsername("fresh"));
+        assertTrue(userIdentityFilter.mightContainEmail("fresh@example.com"));
+    }
+
+    @Test
+    void givenRebuiltFilter_whenQueried_thenStoredNamesAreHitsIgnoringCase() {
+
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(new UserIdentity("alice", "alice@example.com")));
+
+        userIdentityFilter.rebuild();
+
+        assertTrue(userIdentityFilter.mightContainUsername("Alice"));
+        assertTrue(userIdentityFilter.mightContainEmail("ALICE@example.com"));
+        assertFalse(userIdentityFilter.mightContainUsername("bob"));
+        assertFalse(userIdentityFilter.mightContainEmail("bob@example.com"));
+    }
+
+    @Test
+    void givenRebuiltFilter_whenUsernameIsAlsoAnEmail_thenTheyAreKeptApart() {
+
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(new UserIdentity("alice", "alice@example.com")));
+
+        userIdentityFilter.rebuild();
+
+        assertFalse(userIdentityFilter.mightContainEmail("alice"));
+        assertFalse(userIdentityFilter.mightContainUsername("alice@example.com"));
+    }
+
+    @Test
+    void givenNamesAddedWhileRebuilding_whenRebuildCompletes_thenTheyAreNotLost() {
+
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(new UserIdentity("alice", "alice@example.com"))
+                .peek(identity -> userIdentityFilter.add("bob", "bob@example.com")));
+
+        userIdentityFilter.rebuild();
+
+        assertTrue(userIdentityFilter.mightContainUsername("bob"));
+        assertTrue(userIdentityFilter.mightContainEmail("bob@example.com"));
+    }
+
+    @Test
+    void givenRebuiltFilter_whenEmailIsAdded_thenItIsAHit() {
+
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.empty());
+        userIdentityFilter.rebuild();
+
+        userIdentityFilter.addEmail("carol@example.com");
+
+        assertTrue(userIdentityFilter.mightContainEmail("carol@example.com"));
+    }
+}
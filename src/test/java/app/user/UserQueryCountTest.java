@@ -0,0 +1,207 @@
+package app.user;
+
+import app.config.CacheConfiguration;
+import app.credit.model.Credit;
+import app.credit.model.CreditStatus;
+import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
+import app.email.service.EmailService;
+import app.money.Money;
+import app.outbox.service.OutboxService;
+import app.report.service.ReportCounters;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.service.UserAuthCache;
+import app.user.service.UserIdentityFilter;
+import app.user.service.UserService;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
+import app.wallet.service.WalletService;
+import app.web.dto.HomeDashboard;
+import app.web.dto.UsersReport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the number of SQL statements each user read issues, so an association that turns eager again or a call
+ * site that loses its entity graph shows up as an N+1 here.
+ */
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserService.class, CreditService.class, ReportCounters.class, HomeDashboardService.class, CacheConfiguration.class, UserIdentityFilter.class, UserAuthCache.class})
+class UserQueryCountTest {
+
+    private static final int USERS = 5;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private WalletService walletService;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private HomeDashboardService homeDashboardService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private UUID firstUserId;
+
+    @BeforeEach
+    void setUp() {
+
+        LocalDate nextPaymentOn = LocalDate.now().with(TemporalAdjusters.firstDayOfMonth());
+
+        for (int i = 0; i < USERS; i++) {
+            User user = entityManager.persist(aUser("user" + i));
+            entityManager.persist(aWallet(user, WalletType.DEFAULT));
+            entityManager.persist(aWallet(user, WalletType.SAVING));
+            entityManager.persist(aCredit(user, nextPaymentOn));
+
+            if (firstUserId == null) {
+                firstUserId = user.getId();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getUsersReport_seedsCountersOnceAndThenReadsWithoutQuerying() {
+
+        userService.getUsersReport();
+        long seedingStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        UsersReport report = userService.getUsersReport();
+
+        assertEquals(3, seedingStatements);
+        assertEquals(USERS, report.getTotalUsers());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllUsersWithUnpaidCredit_fetchesOwnersInSameQuery() {
+
+        List<User> users = userService.getAllUsersWithUnpaidCredit();
+        users.forEach(User::getUsername);
+
+        assertThat(users).hasSize(USERS);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUserWithWalletsById_fetchesWalletsInSameQuery() {
+
+        User user = userService.getUserWithWalletsById(firstUserId);
+
+        assertTrue(Hibernate.isInitialized(user.getWallets()));
+        assertThat(user.getWallets()).hasSize(2);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getHomeDashboard_readsUserWalletsAndCreditInOneQueryAndIsThenServedFromTheCache() {
+
+        HomeDashboard dashboard = homeDashboardService.getHomeDashboard(firstUserId);
+        long loadingStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        homeDashboardService.getHomeDashboard(firstUserId);
+
+        assertEquals(2, loadingStatements);
+        assertThat(dashboard.getWallets()).hasSize(2);
+        assertEquals(new BigDecimal("20.00"), dashboard.getCredit().getAmount());
+        assertThat(dashboard.getRecentTransactions()).isEmpty();
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllUsers_loadsWalletsOfAllUsersInOneBatch() {
+
+        List<User> users = userService.getAllUsers();
+        users.forEach(user -> user.getWallets().size());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private User aUser(String username) {
+
+        return User.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@example.com")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+
+    private Wallet aWallet(User owner, WalletType type) {
+
+        return Wallet.builder()
+                .owner(owner)
+                .balance(Money.of(10))
+                .type(type)
+                .status(WalletStatus.ACTIVE)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+
+    private Credit aCredit(User owner, LocalDate nextPaymentOn) {
+
+        return Credit.builder()
+                .owner(owner)
+                .status(CreditStatus.UNPAID)
+                .amount(Money.of(20))
+                .nextPaymentOn(nextPaymentOn)
+                .build();
+    }
+}
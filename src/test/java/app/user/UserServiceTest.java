@@ -1,11 +1,21 @@
 package app.user;
 
+import app.TestBuilder;
+import app.config.CacheConfiguration;
+import app.credit.model.Credit;
 import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
 import app.exception.EmailAlreadyExistException;
 import app.exception.UsernameAlreadyExistException;
+import app.money.Money;
+import app.outbox.service.OutboxService;
+import app.report.service.ReportCounters;
 import app.user.model.User;
 import app.user.model.UserRole;
+import app.user.repository.UserIdentityCount;
 import app.user.repository.UserRepository;
+import app.user.service.UserAuthCache;
+import app.user.service.UserIdentityFilter;
 import app.user.service.UserService;
 import app.wallet.model.Wallet;
 import app.wallet.service.WalletService;
@@ -16,12 +26,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,6 +57,24 @@ public class UserServiceTest {
     @Mock
     private  CreditService creditService;
 
+    @Mock
+    private  ReportCounters reportCounters;
+
+    @Mock
+    private  HomeDashboardService homeDashboardService;
+
+    @Mock
+    private  UserIdentityFilter userIdentityFilter;
+
+    @Mock
+    private  UserAuthCache userAuthCache;
+
+    @Mock
+    private  OutboxService outboxService;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfiguration.USERS);
+
     @InjectMocks
     private UserService userService;
 
@@ -55,13 +87,11 @@ public class UserServiceTest {
                 .password("test")
                 .build();
 
-        User existingUser = User.builder()
-                .username("test")
-                .build();
-
         User newUser = User.builder().build();
 
-        when(userRepository.findByUsername(registerRequest.getUsername())).thenReturn(Optional.of(existingUser));
+        when(userIdentityFilter.mightContainEmail(registerRequest.getEmail())).thenReturn(false);
+        when(userIdentityFilter.mightContainUsername(registerRequest.getUsername())).thenReturn(true);
+        when(userRepository.countByUsernameOrEmail(registerRequest.getUsername(), registerRequest.getEmail())).thenReturn(new UserIdentityCount(1, 0));
 
         assertThrows(UsernameAlreadyExistException.class, () -> userService.register(registerRequest));
         verify(userRepository, never()).save(newUser);
@@ -76,14 +106,10 @@ public class UserServiceTest {
                 .password("test")
                 .build();
 
-
-        User existingUser = User.builder()
-                .email("test@gmail.com")
-                .build();
-
         User newUser = User.builder().build();
 
-        when(userRepository.findByEmail(registerRequest.getEmail())).thenReturn(Optional.of(existingUser));
+        when(userIdentityFilter.mightContainEmail(registerRequest.getEmail())).thenReturn(true);
+        when(userRepository.countByUsernameOrEmail(registerRequest.getUsername(), registerRequest.getEmail())).thenReturn(new UserIdentityCount(1, 1));
 
         assertThrows(EmailAlreadyExistException.class, () -> userService.register(registerRequest));
         verify(userRepository, never()).save(newUser);
@@ -111,9 +137,10 @@ public class UserServiceTest {
                 .wallets(userWallets)
                 .build();
 
-        when(userRepository.findByEmail(registerRequest.getEmail())).thenReturn(Optional.empty());
-        when(userRepository.findByUsername(registerRequest.getUsername())).thenReturn(Optional.empty());
+        when(userIdentityFilter.mightContainEmail(registerRequest.getEmail())).thenReturn(false);
+        when(userIdentityFilter.mightContainUsername(registerRequest.getUsername())).thenReturn(false);
         when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn(hashedPassword);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         User userResult = userService.register(registerRequest);
 
@@ -141,7 +168,7 @@ public class UserServiceTest {
         when(userRepository.findByEmail(editRequest.getEmail())).thenReturn(Optional.of(existingUser));
 
         assertThrows(EmailAlreadyExistException.class, () -> userService.editUser(userId, editRequest));
-        verify(userRepository, never()).save(user);
+        verify(userRepository, never()).saveAndFlush(user);
     }
 
     @Test
@@ -173,7 +200,7 @@ public class UserServiceTest {
         assertEquals(editUser.getLastName(), editRequest.getLastName());
         assertEquals(editUser.getEmail(), editRequest.getEmail());
         assertEquals(editUser.getProfilePic(), editRequest.getProfilePic());
-        verify(userRepository, times(1)).save(editUser);
+        verify(userRepository, times(1)).saveAndFlush(editUser);
     }
 
     @Test
@@ -205,7 +232,7 @@ public class UserServiceTest {
         assertEquals(editUser.getLastName(), user.getLastName());
         assertEquals(editUser.getEmail(), editRequest.getEmail());
         assertEquals(editUser.getProfilePic(), editRequest.getProfilePic());
-        verify(userRepository, times(1)).save(editUser);
+        verify(userRepository, times(1)).saveAndFlush(editUser);
     }
 
     @Test
@@ -237,7 +264,7 @@ public class UserServiceTest {
         assertEquals(editUser.getLastName(), editRequest.getLastName());
         assertEquals(editUser.getEmail(), editRequest.getEmail());
         assertEquals(editUser.getProfilePic(), user.getProfilePic());
-        verify(userRepository, times(1)).save(editUser);
+        verify(userRepository, times(1)).saveAndFlush(editUser);
     }
 
     @Test
@@ -269,7 +296,7 @@ public class UserServiceTest {
         assertEquals(editUser.getLastName(), editRequest.getLastName());
         assertEquals(editUser.getEmail(), user.getEmail());
         assertEquals(editUser.getProfilePic(), editRequest.getProfilePic());
-        verify(userRepository, times(1)).save(editUser);
+        verify(userRepository, times(1)).saveAndFlush(editUser);
     }
 
     @Test
@@ -301,7 +328,7 @@ public class UserServiceTest {
         assertEquals(editUser.getLastName(), editRequest.getLastName());
         assertEquals(editUser.getEmail(), editRequest.getEmail());
         assertEquals(editUser.getProfilePic(), editRequest.getProfilePic());
-        verify(userRepository, times(1)).save(editUser);
+        verify(userRepository, times(1)).saveAndFlush(editUser);
     }
 
     @Test
@@ -352,6 +379,8 @@ public class UserServiceTest {
 
         assertFalse(user.isActive());
         verify(userRepository, times(1)).save(user);
+        verify(reportCounters, times(1)).userStatusChanged(false);
+        verify(userAuthCache, times(1)).userChanged(user.getUsername());
     }
 
     @Test
@@ -371,46 +400,58 @@ public class UserServiceTest {
     }
 
     @Test
-    void givenHappyPath_whenGetUsersReport() {
+    void givenStoredStampMatchesSnapshot_whenHasChangedSince_thenFalse() {
 
-        User firstUser = User.builder()
+        User user = User.builder()
                 .id(UUID.randomUUID())
-                .email("firstUserEmail")
-                .username("firstUserUsername")
-                .password("hashed-password123")
-                .isActive(true)
-                .role(UserRole.ADMIN)
+                .updatedOn(LocalDateTime.of(2026, 3, 5, 10, 0))
                 .build();
 
-        User secondUser = User.builder()
-                .id(UUID.randomUUID())
-                .email("secondUserEmail")
-                .username("secondUserUsername")
-                .password("hashed-password123")
-                .isActive(false)
-                .role(UserRole.USER)
-                .build();
+        when(userRepository.findUpdatedOnById(user.getId())).thenReturn(Optional.of(user.getUpdatedOn()));
 
-        User thirdUser = User.builder()
+        assertFalse(userService.hasChangedSince(user));
+    }
+
+    @Test
+    void givenStoredStampMovedOn_whenHasChangedSince_thenTrue() {
+
+        User user = User.builder()
                 .id(UUID.randomUUID())
-                .email("thirdUserEmail")
-                .username("thirdUserUsername")
-                .password("hashed-password123")
-                .isActive(true)
-                .role(UserRole.USER)
+                .updatedOn(LocalDateTime.of(2026, 3, 5, 10, 0))
                 .build();
 
-        List<User> users = List.of(firstUser, secondUser, thirdUser);
+        when(userRepository.findUpdatedOnById(user.getId())).thenReturn(Optional.of(user.getUpdatedOn().plusSeconds(1)));
 
-        when(userRepository.findAll()).thenReturn(users);
+        assertTrue(userService.hasChangedSince(user));
+    }
+
+    @Test
+    void givenZeroCreditWithPendingAccruals_whenGetAllUsersWithUnpaidCredit_thenItsOwnerIsIncluded() {
+
+        Credit owing = Credit.builder().owner(TestBuilder.aRandomUser()).amount(Money.of(5)).build();
+        Credit pending = Credit.builder().owner(TestBuilder.aRandomUser()).amount(Money.ZERO).build();
+        Credit paid = Credit.builder().owner(TestBuilder.aRandomUser()).amount(Money.ZERO).build();
+
+        when(creditService.getCreditsDueOn(any())).thenReturn(List.of(owing, pending, paid));
+        when(outboxService.findOwnerIdsWithPendingCreditAccruals(List.of(pending.getOwner().getId(), paid.getOwner().getId())))
+                .thenReturn(Set.of(pending.getOwner().getId()));
+
+        List<User> users = userService.getAllUsersWithUnpaidCredit();
+
+        assertEquals(List.of(owing.getOwner(), pending.getOwner()), users);
+    }
+
+    @Test
+    void givenHappyPath_whenGetUsersReport_thenReportIsReadFromTheCounters() {
+
+        UsersReport report = TestBuilder.aRandomUserReport();
+
+        when(reportCounters.getUsersReport()).thenReturn(report);
 
         UsersReport usersReport = userService.getUsersReport();
 
-        assertEquals(usersReport.getTotalUsers(), 3);
-        assertEquals(usersReport.getActiveUser(), 2);
-        assertEquals(usersReport.getInactiveUsers(), 1);
-        assertEquals(usersReport.getAdmins(), 1);
-        assertEquals(usersReport.getNonAdmins(), 2);
+        assertEquals(report, usersReport);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -0,0 +1,155 @@
+package app.user;
+
+import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
+import app.email.service.EmailService;
+import app.exception.EmailAlreadyExistException;
+import app.exception.UsernameAlreadyExistException;
+import app.outbox.service.OutboxService;
+import app.report.service.ReportCounters;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.service.UserAuthCache;
+import app.user.service.UserIdentityFilter;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.EditRequest;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Registers names the identity filter has not seen, so no existence query runs and only the unique constraints
+ * can reject a duplicate.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserService.class)
+class UserUniqueConstraintTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private WalletService walletService;
+
+    @MockitoBean
+    private CreditService creditService;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private ReportCounters reportCounters;
+
+    @MockitoBean
+    private HomeDashboardService homeDashboardService;
+
+    @MockitoBean
+    private UserIdentityFilter userIdentityFilter;
+
+    @MockitoBean
+    private UserAuthCache userAuthCache;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User existingUser;
+
+    @BeforeEach
+    void setUp() {
+
+        existingUser = entityManager.persistAndFlush(User.builder()
+                .username("taken")
+                .password("password")
+                .email("taken@example.com")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(walletService.createUserWallets(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void givenTakenEmailMissedByTheFilter_whenRegister_thenEmailAlreadyExistExceptionIsThrown() {
+
+        RegisterRequest registerRequest = RegisterRequest.builder().username("fresh").email("taken@example.com").password("password").build();
+
+        assertThrows(EmailAlreadyExistException.class, () -> userService.register(registerRequest));
+        verify(userIdentityFilter, never()).add(anyString(), anyString());
+    }
+
+    @Test
+    void givenTakenUsernameMissedByTheFilter_whenRegister_thenUsernameAlreadyExistExceptionIsThrown() {
+
+        RegisterRequest registerRequest = RegisterRequest.builder().username("taken").email("fresh@example.com").password("password").build();
+
+        assertThrows(UsernameAlreadyExistException.class, () -> userService.register(registerRequest));
+        verify(userIdentityFilter, never()).add(anyString(), anyString());
+    }
+
+    @Test
+    void givenTakenUsernameHitByTheFilter_whenRegister_thenTheExistenceQueryRejectsIt() {
+
+        when(userIdentityFilter.mightContainUsername("taken")).thenReturn(true);
+        RegisterRequest registerRequest = RegisterRequest.builder().username("taken").email("fresh@example.com").password("password").build();
+
+        assertThrows(UsernameAlreadyExistException.class, () -> userService.register(registerRequest));
+        verify(walletService, never()).createUserWallets(any());
+    }
+
+    @Test
+    void givenFreshNames_whenRegister_thenNoExistenceQueryRunsAndTheFilterIsUpdated() {
+
+        RegisterRequest registerRequest = RegisterRequest.builder().username("fresh").email("fresh@example.com").password("password").build();
+
+        userService.register(registerRequest);
+
+        verify(userIdentityFilter).add("fresh", "fresh@example.com");
+    }
+
+    @Test
+    void givenTakenEmail_whenEditUserRacesTheCheck_thenEmailAlreadyExistExceptionIsThrown() {
+
+        User other = entityManager.persistAndFlush(User.builder()
+                .username("other")
+                .password("password")
+                .email("other@example.com")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        EditRequest editRequest = spy(EditRequest.builder().firstName("").lastName("").profilePic("").build());
+        // The existence check sees a free email, standing in for a row inserted right after it.
+        when(editRequest.getEmail()).thenReturn("free@example.com", existingUser.getEmail());
+
+        assertThrows(EmailAlreadyExistException.class, () -> userService.editUser(other.getId(), editRequest));
+    }
+}
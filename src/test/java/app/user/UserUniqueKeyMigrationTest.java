@@ -0,0 +1,67 @@
+package app.user;
+
+import app.scheduler.UserUniqueKeyMigration;
+import app.user.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stands in for a schema created before the unique keys were named: the DDL commits, so the tests run outside the
+ * usual rolled back transaction.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserUniqueKeyMigration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserUniqueKeyMigrationTest {
+
+    @Autowired
+    private UserUniqueKeyMigration userUniqueKeyMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void givenAutoNamedKeyNextToTheNamedOne_whenMigrate_thenOnlyTheNamedKeyIsLeft() {
+
+        jdbcTemplate.execute("alter table user add constraint UKsb8bbouer5wak8vyiiy4pf2bx unique (username)");
+
+        userUniqueKeyMigration.migrate();
+
+        assertThat(uniqueKeysOn("USERNAME")).containsExactly(User.UK_USERNAME.toUpperCase());
+    }
+
+    @Test
+    void givenOnlyAnAutoNamedKey_whenMigrate_thenItIsReplacedByTheNamedOne() {
+
+        jdbcTemplate.execute("alter table user drop constraint " + User.UK_EMAIL);
+        jdbcTemplate.execute("alter table user add constraint UKob8kqyqqgmefl0aco34akdtpe unique (email)");
+
+        userUniqueKeyMigration.migrate();
+
+        assertThat(uniqueKeysOn("EMAIL")).containsExactly(User.UK_EMAIL.toUpperCase());
+    }
+
+    private List<String> uniqueKeysOn(String column) {
+
+        return jdbcTemplate.queryForList("""
+                select tc.constraint_name
+                from information_schema.table_constraints tc
+                join information_schema.key_column_usage kcu
+                    on kcu.constraint_name = tc.constraint_name and kcu.table_name = tc.table_name
+                where tc.constraint_type = 'UNIQUE' and tc.table_name = 'USER' and kcu.column_name = ?
+                """, String.class, column);
+    }
+}
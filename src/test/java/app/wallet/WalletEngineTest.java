@@ -0,0 +1,156 @@
+package app.wallet;
+
+import app.TestBuilder;
+import app.credit.service.CreditService;
+import app.exception.WalletEngineUnavailableException;
+import app.money.Money;
+import app.outbox.service.OutboxService;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.service.TransactionService;
+import app.user.model.User;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
+import app.wallet.repository.WalletHandoffRepository;
+import app.wallet.repository.WalletRepository;
+import app.wallet.service.WalletEngine;
+import app.wallet.service.WalletJournalWriter;
+import app.wallet.service.WalletService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WalletEngineTest {
+
+    @Mock
+    private WalletService walletService;
+    @Mock
+    private WalletRepository walletRepository;
+    @Mock
+    private WalletHandoffRepository walletHandoffRepository;
+    @Mock
+    private CreditService creditService;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private WalletJournalWriter walletJournalWriter;
+
+    // Only used to build transactions, which needs none of its dependencies.
+    private final TransactionService transactionService = new TransactionService(null, null, null, null);
+
+    private WalletEngine walletEngine;
+
+    @AfterEach
+    void tearDown() {
+        if (walletEngine != null) {
+            walletEngine.shutdown();
+        }
+    }
+
+    @Test
+    void givenDisabledEngine_whenChargeUpWallet_thenWalletServiceRunsIt() {
+
+        walletEngine = engine(false, 1000);
+        User user = TestBuilder.aRandomUser();
+        UUID walletId = UUID.randomUUID();
+
+        walletEngine.chargeUpWallet(user, walletId, Money.of(10), null);
+
+        verify(walletService).chargeUpWallet(user, walletId, Money.of(10), null);
+        verifyNoInteractions(walletJournalWriter);
+    }
+
+    @Test
+    void givenFullQueue_whenChargeUpWallet_thenWalletEngineUnavailableExceptionIsThrown() {
+
+        walletEngine = engine(true, 0);
+
+        assertThrows(WalletEngineUnavailableException.class, () -> walletEngine.chargeUpWallet(TestBuilder.aRandomUser(), UUID.randomUUID(), Money.of(10), null));
+        verifyNoInteractions(walletRepository, walletJournalWriter);
+    }
+
+    @Test
+    void givenTwoChargeUps_whenApplied_thenTheBalanceIsKeptInMemoryAndTheWalletIsLoadedOnce() {
+
+        walletEngine = engine(true, 1000);
+        User user = TestBuilder.aRandomUser();
+        Wallet wallet = aWallet(user, Money.of(10));
+        when(walletRepository.findById(wallet.getId())).thenReturn(Optional.of(wallet));
+
+        walletEngine.chargeUpWallet(user, wallet.getId(), Money.of(5), null);
+        Transaction transaction = walletEngine.chargeUpWallet(user, wallet.getId(), Money.of(5), null);
+
+        assertEquals(Money.of(20), transaction.getBalanceLeft());
+        assertEquals(TransactionStatus.SUCCEEDED, transaction.getStatus());
+        assertEquals(2, wallet.getVersion());
+        verify(walletRepository, times(1)).findById(wallet.getId());
+        assertEquals(2, mockingDetails(walletJournalWriter).getInvocations().size());
+    }
+
+    @Test
+    void givenWriteFails_whenChargeUpWallet_thenTheFailureIsThrownAndTheWalletIsReloaded() {
+
+        User user = TestBuilder.aRandomUser();
+        Wallet wallet = aWallet(user, Money.of(10));
+        AtomicInteger writes = new AtomicInteger();
+        walletJournalWriter = mock(WalletJournalWriter.class, invocation -> {
+            if (writes.getAndIncrement() == 0) {
+                throw new ObjectOptimisticLockingFailureException(Wallet.class, wallet.getId());
+            }
+            return null;
+        });
+        walletEngine = engine(true, 1000);
+        Wallet reloadedWallet = aWallet(user, Money.of(10));
+        reloadedWallet.setId(wallet.getId());
+        when(walletRepository.findById(wallet.getId())).thenReturn(Optional.of(wallet), Optional.of(reloadedWallet));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> walletEngine.chargeUpWallet(user, wallet.getId(), Money.of(5), null));
+        Transaction transaction = walletEngine.chargeUpWallet(user, wallet.getId(), Money.of(5), null);
+
+        assertEquals(Money.of(15), transaction.getBalanceLeft());
+        assertEquals(2, writes.get());
+        verify(walletRepository, times(2)).findById(wallet.getId());
+    }
+
+    @Test
+    void givenWalletOfAnotherUser_whenChargeUpWallet_thenNothingIsWritten() {
+
+        walletEngine = engine(true, 1000);
+        Wallet wallet = aWallet(TestBuilder.aRandomUser(), Money.of(10));
+        when(walletRepository.findById(wallet.getId())).thenReturn(Optional.of(wallet));
+
+        assertThrows(RuntimeException.class, () -> walletEngine.chargeUpWallet(TestBuilder.aRandomUser(), wallet.getId(), Money.of(5), null));
+        assertEquals(Money.of(10), wallet.getBalance());
+        verifyNoInteractions(walletJournalWriter);
+    }
+
+    private WalletEngine engine(boolean enabled, int queueCapacity) {
+        return new WalletEngine(walletService, walletRepository, walletHandoffRepository, transactionService, creditService, outboxService, walletJournalWriter, enabled, 2, queueCapacity, 200, 100, 5000);
+    }
+
+    private Wallet aWallet(User owner, Money balance) {
+
+        return Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(owner)
+                .balance(balance)
+                .type(WalletType.DEFAULT)
+                .status(WalletStatus.ACTIVE)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,207 @@
+package app.wallet;
+
+import app.TestBuilder;
+import app.email.service.EmailService;
+import app.exception.IdempotencyKeyReusedException;
+import app.idempotency.model.IdempotencyKey;
+import app.idempotency.service.IdempotencyService;
+import app.ledger.service.LedgerService;
+import app.money.Money;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.user.model.User;
+import app.user.service.UserService;
+import app.wallet.model.Wallet;
+import app.wallet.model.WalletStatus;
+import app.wallet.model.WalletType;
+import app.wallet.repository.WalletHandoffRepository;
+import app.wallet.repository.WalletRepository;
+import app.wallet.service.WalletEngine;
+import app.web.dto.BulkTransferItem;
+import app.web.dto.BulkTransferRequest;
+import app.web.dto.BulkTransferResponse;
+import app.web.dto.RegisterRequest;
+import app.web.dto.TransferRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transfers from one wallet to several receivers through the enabled engine. Some receivers land on the sender's
+ * shard and some on the other one, so both the in-batch credit and the handoff are written against the database.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "wallet.engine.enabled=true",
+        "wallet.engine.shards=2"
+})
+public class WalletEngineTransferTest {
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private WalletEngine walletEngine;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletHandoffRepository walletHandoffRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Test
+    void givenReceiversOnBothShards_whenTransferring_thenEveryBalanceMatchesTheLedger() throws InterruptedException {
+
+        User sender = register("engine-sender");
+        Wallet senderWallet = defaultWallet(sender);
+        walletEngine.chargeUpWallet(sender, senderWallet.getId(), Money.of(300), null);
+
+        // Receivers are added until both shards, picked like the engine does from the wallet id, have some.
+        List<Wallet> receiverWallets = new ArrayList<>();
+        Set<Integer> receiverShards = new HashSet<>();
+        while (receiverWallets.size() < 4 || receiverShards.size() < 2) {
+            User receiver = register("engine-receiver-" + receiverWallets.size());
+            Wallet receiverWallet = defaultWallet(receiver);
+            receiverWallets.add(receiverWallet);
+            receiverShards.add(Math.floorMod(receiverWallet.getId().hashCode(), 2));
+
+            TransferRequest transferRequest = TransferRequest.builder()
+                    .sender(senderWallet.getId())
+                    .receiver(receiver.getUsername())
+                    .amount(new BigDecimal(15))
+                    .build();
+            Transaction transaction = walletEngine.makeTransfer(sender, transferRequest, null);
+
+            assertEquals(TransactionStatus.SUCCEEDED, transaction.getStatus());
+            assertNotNull(transaction.getId());
+        }
+
+        for (int i = 0; i < 50 && walletHandoffRepository.count() > 0; i++) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(0, walletHandoffRepository.count());
+        Money senderBalance = Money.of(310).minus(Money.of(15 * receiverWallets.size()));
+        assertEquals(senderBalance, walletRepository.findById(senderWallet.getId()).orElseThrow().getBalance());
+        assertEquals(senderBalance, ledgerService.computeBalance(senderWallet.getId()));
+        for (Wallet receiverWallet : receiverWallets) {
+            assertEquals(Money.of(25), walletRepository.findById(receiverWallet.getId()).orElseThrow().getBalance());
+            assertEquals(Money.of(25), ledgerService.computeBalance(receiverWallet.getId()));
+        }
+        assertEquals(Money.ZERO, ledgerService.computeBalance(LedgerService.IN_TRANSIT_ACCOUNT_ID));
+    }
+
+    @Test
+    void givenInsufficientBalance_whenTransferring_thenTheTransferFailsAndNothingMoves() {
+
+        User sender = register("engine-poor-sender");
+        Wallet senderWallet = defaultWallet(sender);
+        User receiver = register("engine-poor-receiver");
+
+        TransferRequest transferRequest = TransferRequest.builder()
+                .sender(senderWallet.getId())
+                .receiver(receiver.getUsername())
+                .amount(new BigDecimal(50))
+                .build();
+        Transaction transaction = walletEngine.makeTransfer(sender, transferRequest, null);
+
+        assertEquals(TransactionStatus.FAILED, transaction.getStatus());
+        assertEquals(Money.of(10), walletRepository.findById(senderWallet.getId()).orElseThrow().getBalance());
+        assertEquals(Money.of(10), defaultWallet(receiver).getBalance());
+    }
+
+    @Test
+    void givenReceiverWithTwoActiveWallets_whenTransferring_thenSingleAndBulkTransfersCreditTheOldestOne() throws InterruptedException {
+
+        User sender = register("engine-two-wallets-sender");
+        Wallet senderWallet = defaultWallet(sender);
+        User receiver = register("engine-two-wallets-receiver");
+        Wallet newerWallet = defaultWallet(receiver);
+        LocalDateTime olderCreatedOn = newerWallet.getCreatedOn().minusDays(1);
+        Wallet olderWallet = walletRepository.save(Wallet.builder()
+                .owner(receiver)
+                .balance(Money.ZERO)
+                .type(WalletType.SAVING)
+                .status(WalletStatus.ACTIVE)
+                .createdOn(olderCreatedOn)
+                .updatedOn(olderCreatedOn)
+                .build());
+
+        TransferRequest transferRequest = TransferRequest.builder()
+                .sender(senderWallet.getId())
+                .receiver(receiver.getUsername())
+                .amount(new BigDecimal(2))
+                .build();
+        BulkTransferRequest bulkTransferRequest = BulkTransferRequest.builder()
+                .sender(senderWallet.getId())
+                .transfers(List.of(new BulkTransferItem(receiver.getUsername(), new BigDecimal(3))))
+                .build();
+
+        assertEquals(TransactionStatus.SUCCEEDED, walletEngine.makeTransfer(sender, transferRequest, null).getStatus());
+        BulkTransferResponse response = walletEngine.makeBulkTransfer(sender, bulkTransferRequest);
+
+        for (int i = 0; i < 50 && walletHandoffRepository.count() > 0; i++) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(Money.of(5), walletRepository.findById(olderWallet.getId()).orElseThrow().getBalance());
+        assertEquals(Money.of(10), walletRepository.findById(newerWallet.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void givenIdempotencyKeyAlreadyCommitted_whenChargingUpAgain_thenTheWalletIsChargedOnce() {
+
+        User user = register("engine-idempotent");
+        Wallet wallet = defaultWallet(user);
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(user.getId(), "key", "charge", wallet.getId(), new BigDecimal(20));
+
+        UUID transactionId = idempotencyService.execute(idempotencyKey, () -> walletEngine.chargeUpWallet(user, wallet.getId(), Money.of(20), idempotencyKey));
+
+        assertThrows(DataIntegrityViolationException.class, () -> walletEngine.chargeUpWallet(user, wallet.getId(), Money.of(20), idempotencyKey));
+        assertEquals(transactionId, idempotencyService.execute(idempotencyKey, () -> fail("operation must not run")));
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyService.execute(IdempotencyKey.of(user.getId(), "key", "charge", wallet.getId(), new BigDecimal(30)), () -> fail("operation must not run")));
+        assertEquals(Money.of(30), walletRepository.findById(wallet.getId()).orElseThrow().getBalance());
+        assertEquals(Money.of(30), ledgerService.computeBalance(wallet.getId()));
+    }
+
+    private User register(String username) {
+
+        RegisterRequest registerRequest = TestBuilder.aRandomRegisterRequest();
+        registerRequest.setUsername(username + "-" + UUID.randomUUID().toString().substring(0, 8));
+        registerRequest.setEmail(registerRequest.getUsername() + "@example.com");
+
+        return userService.register(registerRequest);
+    }
+
+    private Wallet defaultWallet(User user) {
+
+        return walletRepository.findAllByOwnerUsername(user.getUsername())
+                .stream()
+                .filter(wallet -> wallet.getType() == WalletType.DEFAULT)
+                .findFirst()
+                .orElseThrow();
+    }
+}
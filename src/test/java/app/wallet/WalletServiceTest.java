@@ -1,29 +1,52 @@
 package app.wallet;
 
+import app.TestBuilder;
+import app.credit.model.Credit;
+import app.credit.model.CreditStatus;
 import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
+import app.idempotency.model.IdempotencyKey;
+import app.idempotency.service.IdempotencyService;
 import app.exception.WalletDoNotExistException;
+import app.ledger.service.LedgerService;
+import app.money.Money;
+import app.outbox.model.CreditAccruedPayload;
+import app.outbox.model.OutboxEventType;
+import app.outbox.model.PendingCreditAccruals;
+import app.outbox.service.OutboxService;
+import app.report.service.ReportCounters;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
 import app.wallet.model.Wallet;
 import app.wallet.model.WalletStatus;
 import app.wallet.model.WalletType;
 import app.wallet.repository.WalletRepository;
+import app.wallet.service.ActiveWalletCache;
 import app.wallet.service.WalletService;
+import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
+import app.transaction.model.TransactionTypeStatus;
+import app.web.dto.BulkTransferItem;
+import app.web.dto.BulkTransferRequest;
+import app.web.dto.BulkTransferResponse;
 import app.web.dto.TransferRequest;
 import app.web.dto.WalletsReport;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +58,18 @@ public class WalletServiceTest {
     private TransactionService transactionService;
     @Mock
     private CreditService creditService;
+    @Mock
+    private ActiveWalletCache activeWalletCache;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private ReportCounters reportCounters;
+    @Mock
+    private HomeDashboardService homeDashboardService;
+    @Mock
+    private IdempotencyService idempotencyService;
 
     @InjectMocks
     private WalletService walletService;
@@ -47,21 +82,21 @@ public class WalletServiceTest {
         Wallet defaultWallet = Wallet.builder()
                 .owner(user)
                 .type(WalletType.DEFAULT)
-                .balance(new BigDecimal(10))
+                .balance(Money.of(10))
                 .status(WalletStatus.ACTIVE)
                 .build();
 
         Wallet savingWallet = Wallet.builder()
                 .owner(user)
                 .type(WalletType.SAVING)
-                .balance(new BigDecimal(0))
+                .balance(Money.of(0))
                 .status(WalletStatus.INACTIVE)
                 .build();
 
         Wallet payableWallet = Wallet.builder()
                 .owner(user)
                 .type(WalletType.PAYABLE)
-                .balance(new BigDecimal(0))
+                .balance(Money.of(0))
                 .status(WalletStatus.INACTIVE)
                 .build();
 
@@ -78,6 +113,7 @@ public class WalletServiceTest {
         assertEquals(wallets.get(2).getBalance(), payableWallet.getBalance());
         assertEquals(wallets.get(2).getType(), payableWallet.getType());
         verify(walletRepository, times(1)).saveAll(wallets);
+        verify(ledgerService, times(1)).recordOpeningBalances(wallets);
     }
 
     @Test
@@ -98,6 +134,7 @@ public class WalletServiceTest {
 
         assertEquals(changeWalletStatus.getStatus(), WalletStatus.INACTIVE);
         verify(walletRepository, times(1)).save(changeWalletStatus);
+        verify(reportCounters, times(1)).walletStatusChanged(WalletStatus.INACTIVE);
     }
 
     @Test
@@ -120,6 +157,69 @@ public class WalletServiceTest {
         verify(walletRepository, times(1)).save(changeWalletStatus);
     }
 
+    @Test
+    void givenWallet_whenChangeStatus_thenTheOwnerIsEvictedFromTheActiveWalletCache() {
+
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("owner")
+                .build();
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(user)
+                .status(WalletStatus.ACTIVE)
+                .build();
+
+        when(walletRepository.findByIdAndOwnerId(wallet.getId(), user.getId())).thenReturn(Optional.of(wallet));
+
+        walletService.changeStatus(wallet.getId(), user);
+
+        verify(activeWalletCache, times(1)).evict(user.getUsername());
+    }
+
+    @Test
+    void givenCachedActiveReceiverWallet_whenMakeTransfer_thenTheReceiverIsNotLookedUpByUsername() {
+
+        User sender = User.builder()
+                .id(UUID.randomUUID())
+                .build();
+
+        Wallet senderWallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(sender)
+                .balance(Money.of(25))
+                .status(WalletStatus.ACTIVE)
+                .build();
+
+        User receiver = User.builder()
+                .id(UUID.randomUUID())
+                .username("receiver")
+                .build();
+
+        Wallet receiverWallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(receiver)
+                .balance(Money.of(0))
+                .status(WalletStatus.ACTIVE)
+                .build();
+
+        TransferRequest transferRequest = TransferRequest.builder()
+                .sender(senderWallet.getId())
+                .receiver(receiver.getUsername())
+                .amount(new BigDecimal(10))
+                .build();
+
+        when(walletRepository.findByIdAndOwnerId(transferRequest.getSender(), sender.getId())).thenReturn(Optional.of(senderWallet));
+        when(activeWalletCache.get(receiver.getUsername())).thenReturn(Optional.of(receiverWallet.getId()));
+        when(walletRepository.findById(receiverWallet.getId())).thenReturn(Optional.of(receiverWallet));
+        when(transactionService.initializeTransaction(any(), any(), any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(TestBuilder.aRandomTransaction());
+
+        walletService.makeTransfer(sender, transferRequest, null);
+
+        assertEquals(receiverWallet.getBalance(), Money.of(10));
+        verify(walletRepository, never()).findFirstByOwnerUsernameAndStatusOrderByCreatedOnAsc(any(), any());
+    }
+
     @Test
     void givenUnExistingWallet_whenChangeStatus_thenExceptionIsThrown() {
 
@@ -142,15 +242,15 @@ public class WalletServiceTest {
         Wallet wallet = Wallet.builder()
                 .id(UUID.randomUUID())
                 .build();
-        BigDecimal amount = new BigDecimal(0);
+        Money amount = Money.of(0);
 
         when(walletRepository.findByIdAndOwnerId(wallet.getId(), user.getId())).thenReturn(Optional.empty());
 
-        assertThrows(WalletDoNotExistException.class, () -> walletService.chargeUpWallet(user, wallet.getId(), amount));
+        assertThrows(WalletDoNotExistException.class, () -> walletService.chargeUpWallet(user, wallet.getId(), amount, null));
     }
 
     @Test
-    void givenActiveWallet_whenChargeUpWallet_thenTheAmountIsAddedToTheWalletBalance() {
+    void givenActiveWallet_whenChargeUpWallet_thenTheAmountIsAddedToTheWalletBalanceAndTheIdempotencyKeyIsRecorded() {
 
         User user = User.builder()
                 .id(UUID.randomUUID())
@@ -159,17 +259,58 @@ public class WalletServiceTest {
                 .id(UUID.randomUUID())
                 .owner(user)
                 .type(WalletType.DEFAULT)
-                .balance(new BigDecimal(10))
+                .balance(Money.of(10))
                 .status(WalletStatus.ACTIVE)
                 .build();
-        BigDecimal amount = new BigDecimal(15);
+        Money amount = Money.of(15);
+        IdempotencyKey idempotencyKey = IdempotencyKey.of(user.getId(), "key", "charge", wallet.getId(), amount.toBigDecimal());
 
         when(walletRepository.findByIdAndOwnerId(wallet.getId(), user.getId())).thenReturn(Optional.of(wallet));
+        when(transactionService.initializeTransaction(any(), any(), any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(TestBuilder.aRandomTransaction());
 
-        walletService.chargeUpWallet(user, wallet.getId(), amount);
+        Transaction transaction = walletService.chargeUpWallet(user, wallet.getId(), amount, idempotencyKey);
 
-        assertEquals(wallet.getBalance(), new BigDecimal(25));
+        assertEquals(wallet.getBalance(), Money.of(25));
         verify(walletRepository, times(1)).save(wallet);
+        verify(ledgerService, times(1)).recordTransfer(transaction.getId(), LedgerService.EXTERNAL_ACCOUNT_ID, wallet.getId(), amount);
+        verify(creditService, never()).addAmountToCredit(any(), any());
+        verify(outboxService, times(1)).enqueue(OutboxEventType.CREDIT_ACCRUED, new CreditAccruedPayload(user.getId(), amount.cents()));
+        verify(reportCounters, times(1)).walletBalancesChanged(amount.cents());
+        verify(idempotencyService, times(1)).record(idempotencyKey, transaction);
+    }
+
+    @Test
+    void givenCreditAccrualsNotRelayedYet_whenPayCredit_thenTheyArePaidAndNotLeftToTheRelay() {
+
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .build();
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(user)
+                .balance(Money.of(50))
+                .status(WalletStatus.ACTIVE)
+                .build();
+        Credit credit = Credit.builder()
+                .owner(user)
+                .amount(Money.of(5))
+                .status(CreditStatus.UNPAID)
+                .nextPaymentOn(LocalDate.now())
+                .build();
+        PendingCreditAccruals pendingCreditAccruals = new PendingCreditAccruals(List.of(UUID.randomUUID(), UUID.randomUUID()), Money.of(15));
+
+        when(creditService.getCreditByOwnerId(user.getId())).thenReturn(credit);
+        when(walletRepository.findByIdAndOwnerId(wallet.getId(), user.getId())).thenReturn(Optional.of(wallet));
+        when(outboxService.findPendingCreditAccruals(user.getId())).thenReturn(pendingCreditAccruals);
+        when(transactionService.initializeTransaction(any(), any(), any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(TestBuilder.aRandomTransaction());
+
+        walletService.payCredit(user, wallet.getId(), null);
+
+        assertEquals(Money.of(30), wallet.getBalance());
+        assertEquals(Money.ZERO, credit.getAmount());
+        assertEquals(CreditStatus.PAYED, credit.getStatus());
+        verify(outboxService, times(1)).deletePendingCreditAccruals(pendingCreditAccruals);
+        verify(ledgerService, times(1)).recordTransfer(any(), eq(wallet.getId()), eq(LedgerService.EXTERNAL_ACCOUNT_ID), eq(Money.of(20)));
     }
 
     @Test
@@ -182,7 +323,7 @@ public class WalletServiceTest {
         Wallet senderWallet = Wallet.builder()
                 .id(UUID.randomUUID())
                 .owner(sender)
-                .balance(new BigDecimal(25))
+                .balance(Money.of(25))
                 .status(WalletStatus.INACTIVE)
                 .build();
 
@@ -194,10 +335,9 @@ public class WalletServiceTest {
         Wallet receiverWallet = Wallet.builder()
                 .id(UUID.randomUUID())
                 .owner(receiver)
-                .balance(new BigDecimal(0))
+                .balance(Money.of(0))
                 .status(WalletStatus.ACTIVE)
                 .build();
-        List<Wallet> receiverWallets = List.of(receiverWallet);
 
         TransferRequest transferRequest = TransferRequest.builder()
                 .sender(senderWallet.getId())
@@ -206,12 +346,12 @@ public class WalletServiceTest {
                 .build();
 
         when(walletRepository.findByIdAndOwnerId(transferRequest.getSender(), sender.getId())).thenReturn(Optional.of(senderWallet));
-        when(walletRepository.findAllByOwnerUsername(receiver.getUsername())).thenReturn(receiverWallets);
+        when(walletRepository.findFirstByOwnerUsernameAndStatusOrderByCreatedOnAsc(receiver.getUsername(), WalletStatus.ACTIVE)).thenReturn(Optional.of(receiverWallet));
 
-        walletService.makeTransfer(sender, transferRequest);
+        walletService.makeTransfer(sender, transferRequest, null);
 
-        assertEquals(senderWallet.getBalance(), new BigDecimal(25));
-        assertEquals(receiverWallet.getBalance(), new BigDecimal(0));
+        assertEquals(senderWallet.getBalance(), Money.of(25));
+        assertEquals(receiverWallet.getBalance(), Money.of(0));
         verify(walletRepository, never()).save(senderWallet);
         verify(walletRepository, never()).save(receiverWallet);
     }
@@ -230,7 +370,7 @@ public class WalletServiceTest {
 
         when(walletRepository.findByIdAndOwnerId(transferRequest.getSender(), user.getId())).thenReturn(Optional.empty());
 
-        assertThrows(WalletDoNotExistException.class, () -> walletService.makeTransfer(user, transferRequest));
+        assertThrows(WalletDoNotExistException.class, () -> walletService.makeTransfer(user, transferRequest, null));
     }
 
     @Test
@@ -243,7 +383,7 @@ public class WalletServiceTest {
         Wallet senderWallet = Wallet.builder()
                 .id(UUID.randomUUID())
                 .owner(sender)
-                .balance(new BigDecimal(25))
+                .balance(Money.of(25))
                 .status(WalletStatus.ACTIVE)
                 .build();
 
@@ -255,10 +395,9 @@ public class WalletServiceTest {
         Wallet receiverWallet = Wallet.builder()
                 .id(UUID.randomUUID())
                 .owner(receiver)
-                .balance(new BigDecimal(0))
+                .balance(Money.of(0))
                 .status(WalletStatus.ACTIVE)
                 .build();
-        List<Wallet> receiverWallets = List.of(receiverWallet);
 
         TransferRequest transferRequest = TransferRequest.builder()
                 .sender(senderWallet.getId())
@@ -267,12 +406,12 @@ public class WalletServiceTest {
                 .build();
 
         when(walletRepository.findByIdAndOwnerId(transferRequest.getSender(), sender.getId())).thenReturn(Optional.of(senderWallet));
-        when(walletRepository.findAllByOwnerUsername(receiver.getUsername())).thenReturn(receiverWallets);
+        when(walletRepository.findFirstByOwnerUsernameAndStatusOrderByCreatedOnAsc(receiver.getUsername(), WalletStatus.ACTIVE)).thenReturn(Optional.of(receiverWallet));
 
-        walletService.makeTransfer(sender, transferRequest);
+        walletService.makeTransfer(sender, transferRequest, null);
 
-        assertEquals(senderWallet.getBalance(), new BigDecimal(25));
-        assertEquals(receiverWallet.getBalance(), new BigDecimal(0));
+        assertEquals(senderWallet.getBalance(), Money.of(25));
+        assertEquals(receiverWallet.getBalance(), Money.of(0));
         verify(walletRepository, never()).save(senderWallet);
         verify(walletRepository, never()).save(receiverWallet);
     }
@@ -287,7 +426,7 @@ public class WalletServiceTest {
         Wallet senderWallet = Wallet.builder()
                 .id(UUID.randomUUID())
                 .owner(sender)
-                .balance(new BigDecimal(25))
+                .balance(Money.of(25))
                 .status(WalletStatus.ACTIVE)
                 .build();
 
@@ -299,10 +438,9 @@ public class WalletServiceTest {
         Wallet receiverWallet = Wallet.builder()
                 .id(UUID.randomUUID())
                 .owner(receiver)
-                .balance(new BigDecimal(0))
+                .balance(Money.of(0))
                 .status(WalletStatus.ACTIVE)
                 .build();
-        List<Wallet> receiverWallets = List.of(receiverWallet);
 
         TransferRequest transferRequest = TransferRequest.builder()
                 .sender(senderWallet.getId())
@@ -311,113 +449,196 @@ public class WalletServiceTest {
                 .build();
 
         when(walletRepository.findByIdAndOwnerId(transferRequest.getSender(), sender.getId())).thenReturn(Optional.of(senderWallet));
-        when(walletRepository.findAllByOwnerUsername(receiver.getUsername())).thenReturn(receiverWallets);
+        when(walletRepository.findFirstByOwnerUsernameAndStatusOrderByCreatedOnAsc(receiver.getUsername(), WalletStatus.ACTIVE)).thenReturn(Optional.of(receiverWallet));
+        when(transactionService.initializeTransaction(any(), any(), any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(TestBuilder.aRandomTransaction());
 
-        walletService.makeTransfer(sender, transferRequest);
+        Transaction transaction = walletService.makeTransfer(sender, transferRequest, null);
 
-        assertEquals(senderWallet.getBalance(), new BigDecimal(15));
-        assertEquals(receiverWallet.getBalance(), new BigDecimal(10));
+        assertEquals(senderWallet.getBalance(), Money.of(15));
+        assertEquals(receiverWallet.getBalance(), Money.of(10));
         verify(walletRepository, times(1)).save(senderWallet);
         verify(walletRepository, times(1)).save(receiverWallet);
+        verify(ledgerService, times(1)).recordTransfer(transaction.getId(), senderWallet.getId(), receiverWallet.getId(), Money.of(10));
+        verify(transactionService, times(1)).initializeTransaction(any(), any(), any(), any(), any(), any(), any(), any(), eq(TransactionTypeStatus.MAIN), any());
+        verify(outboxService, times(1)).enqueue(eq(OutboxEventType.TRANSFER_RECEIVED), any());
     }
 
     @Test
-    void givenWalletWithNotEnoughAmount_whenChargeWallet_thenTheTransferIsNotExecuted() {
+    void givenHappyPath_whenMakeTransfer_thenWalletsAreSavedInIdOrder() {
+
+        User sender = User.builder()
+                .id(UUID.randomUUID())
+                .build();
 
         Wallet senderWallet = Wallet.builder()
+                .id(UUID.fromString("00000000-0000-0000-0000-000000000002"))
+                .owner(sender)
+                .balance(Money.of(25))
+                .status(WalletStatus.ACTIVE)
+                .build();
+
+        User receiver = User.builder()
                 .id(UUID.randomUUID())
-                .balance(new BigDecimal(25))
+                .username("receiver")
+                .build();
+
+        Wallet receiverWallet = Wallet.builder()
+                .id(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .owner(receiver)
+                .balance(Money.of(0))
                 .status(WalletStatus.ACTIVE)
                 .build();
 
-        BigDecimal amount = new BigDecimal(100);
+        TransferRequest transferRequest = TransferRequest.builder()
+                .sender(senderWallet.getId())
+                .receiver(receiver.getUsername())
+                .amount(new BigDecimal(10))
+                .build();
+
+        when(walletRepository.findByIdAndOwnerId(transferRequest.getSender(), sender.getId())).thenReturn(Optional.of(senderWallet));
+        when(walletRepository.findFirstByOwnerUsernameAndStatusOrderByCreatedOnAsc(receiver.getUsername(), WalletStatus.ACTIVE)).thenReturn(Optional.of(receiverWallet));
+        when(transactionService.initializeTransaction(any(), any(), any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(TestBuilder.aRandomTransaction());
 
-        boolean result = walletService.chargeWallet(senderWallet, amount);
+        walletService.makeTransfer(sender, transferRequest, null);
 
-        assertFalse(result);
+        InOrder inOrder = inOrder(walletRepository);
+        inOrder.verify(walletRepository).save(receiverWallet);
+        inOrder.verify(walletRepository).save(senderWallet);
     }
 
     @Test
-    void givenInactiveWallet_whenChargeWallet_thenTheTransferIsNotExecuted() {
+    void givenReceiversWithAndWithoutActiveWallet_whenMakeBulkTransfer_thenSenderIsDebitedOnceForTheSucceededTransfers() {
+
+        User sender = User.builder()
+                .id(UUID.randomUUID())
+                .username("sender")
+                .build();
 
         Wallet senderWallet = Wallet.builder()
                 .id(UUID.randomUUID())
-                .balance(new BigDecimal(25))
-                .status(WalletStatus.INACTIVE)
+                .owner(sender)
+                .balance(Money.of(25))
+                .status(WalletStatus.ACTIVE)
                 .build();
 
-        BigDecimal amount = new BigDecimal(10);
+        User firstReceiver = User.builder()
+                .id(UUID.randomUUID())
+                .username("firstReceiver")
+                .build();
 
-        boolean result = walletService.chargeWallet(senderWallet, amount);
+        Wallet firstReceiverWallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(firstReceiver)
+                .balance(Money.of(0))
+                .status(WalletStatus.ACTIVE)
+                .build();
 
-        assertFalse(result);
+        User secondReceiver = User.builder()
+                .id(UUID.randomUUID())
+                .username("secondReceiver")
+                .build();
+
+        Wallet secondReceiverWallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(secondReceiver)
+                .balance(Money.of(5))
+                .status(WalletStatus.ACTIVE)
+                .build();
+
+        BulkTransferRequest bulkTransferRequest = BulkTransferRequest.builder()
+                .sender(senderWallet.getId())
+                .transfers(List.of(
+                        new BulkTransferItem("firstReceiver", new BigDecimal(10)),
+                        new BulkTransferItem("unknownReceiver", new BigDecimal(10)),
+                        new BulkTransferItem("secondReceiver", new BigDecimal(10)),
+                        new BulkTransferItem("firstReceiver", new BigDecimal(10))
+                ))
+                .build();
+
+        when(walletRepository.findByIdAndOwnerId(senderWallet.getId(), sender.getId())).thenReturn(Optional.of(senderWallet));
+        when(walletRepository.findAllByOwnerUsernameInAndStatusOrderByCreatedOnAsc(anyCollection(), eq(WalletStatus.ACTIVE))).thenReturn(List.of(firstReceiverWallet, secondReceiverWallet));
+        when(transactionService.buildTransaction(any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> Transaction.builder()
+                        .status(invocation.getArgument(7))
+                        .failureReason(invocation.getArgument(9))
+                        .build());
+
+        BulkTransferResponse response = walletService.makeBulkTransfer(sender, bulkTransferRequest);
+
+        assertEquals(response.getSucceeded(), 2);
+        assertEquals(response.getFailed(), 2);
+        assertEquals(response.getResults().get(0).getStatus(), TransactionStatus.SUCCEEDED);
+        assertEquals(response.getResults().get(1).getStatus(), TransactionStatus.FAILED);
+        assertEquals(response.getResults().get(2).getStatus(), TransactionStatus.SUCCEEDED);
+        assertEquals(response.getResults().get(3).getStatus(), TransactionStatus.FAILED);
+        assertEquals(senderWallet.getBalance(), Money.of(5));
+        assertEquals(firstReceiverWallet.getBalance(), Money.of(10));
+        assertEquals(secondReceiverWallet.getBalance(), Money.of(15));
+        verify(walletRepository, times(1)).save(senderWallet);
+        verify(walletRepository, times(1)).findAllByOwnerUsernameInAndStatusOrderByCreatedOnAsc(anyCollection(), eq(WalletStatus.ACTIVE));
+        verify(transactionService, times(1)).saveTransactions(argThat(transactions -> transactions.size() == 4));
+        verify(outboxService, times(1)).enqueueAll(eq(OutboxEventType.TRANSFER_RECEIVED), argThat(payloads -> payloads.size() == 2));
+        verify(ledgerService, times(2)).buildTransferPostings(any(), eq(senderWallet.getId()), any(), eq(Money.of(10)));
     }
 
     @Test
-    void givenHappyPath_whenChargeWallet() {
+    void givenWalletWithNotEnoughAmount_whenChargeWallet_thenTheTransferIsNotExecuted() {
 
         Wallet senderWallet = Wallet.builder()
                 .id(UUID.randomUUID())
-                .balance(new BigDecimal(25))
+                .balance(Money.of(25))
                 .status(WalletStatus.ACTIVE)
                 .build();
 
-        BigDecimal amount = new BigDecimal(10);
+        Money amount = Money.of(100);
 
         boolean result = walletService.chargeWallet(senderWallet, amount);
 
-        assertTrue(result);
+        assertFalse(result);
     }
 
     @Test
-    void givenHappyPath_whenGetWalletsReport() {
-
-        Wallet firstWallet = Wallet.builder()
-                .type(WalletType.DEFAULT)
-                .balance(new BigDecimal(10))
-                .status(WalletStatus.ACTIVE)
-                .build();
+    void givenInactiveWallet_whenChargeWallet_thenTheTransferIsNotExecuted() {
 
-        Wallet secondWallet = Wallet.builder()
-                .type(WalletType.SAVING)
-                .balance(new BigDecimal(0))
+        Wallet senderWallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .balance(Money.of(25))
                 .status(WalletStatus.INACTIVE)
                 .build();
 
-        Wallet thirdWallet = Wallet.builder()
-                .type(WalletType.PAYABLE)
-                .balance(new BigDecimal(0))
-                .status(WalletStatus.ACTIVE)
-                .build();
+        Money amount = Money.of(10);
 
-        Wallet fourthWallet = Wallet.builder()
-                .type(WalletType.DEFAULT)
-                .balance(new BigDecimal(10))
-                .status(WalletStatus.INACTIVE)
-                .build();
+        boolean result = walletService.chargeWallet(senderWallet, amount);
 
-        Wallet fifthWallet = Wallet.builder()
-                .type(WalletType.SAVING)
-                .balance(new BigDecimal(10))
-                .status(WalletStatus.ACTIVE)
-                .build();
+        assertFalse(result);
+    }
 
-        Wallet sixthWallet = Wallet.builder()
-                .type(WalletType.PAYABLE)
-                .balance(new BigDecimal(10))
+    @Test
+    void givenHappyPath_whenChargeWallet() {
+
+        Wallet senderWallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .balance(Money.of(25))
                 .status(WalletStatus.ACTIVE)
                 .build();
 
-        List<Wallet> allWallets = List.of(firstWallet, secondWallet, thirdWallet, fourthWallet, fifthWallet, sixthWallet);
+        Money amount = Money.of(10);
 
-        when(walletRepository.findAll()).thenReturn(allWallets);
+        boolean result = walletService.chargeWallet(senderWallet, amount);
 
-        WalletsReport walletsReport = walletService.getWalletsReport();
+        assertTrue(result);
+    }
 
-        assertEquals(walletsReport.getTotalWallets(), 6);
-        assertEquals(walletsReport.getActiveWallets(), 4);
-        assertEquals(walletsReport.getInactiveWallets(), 2);
-        assertEquals(walletsReport.getTotalWalletsAmount(), new BigDecimal(40));
+    @Test
+    void givenHappyPath_whenGetWalletsReport_thenReportIsReadFromTheCounters() {
+
+        WalletsReport report = TestBuilder.aRandomWalletsReport();
+
+        when(reportCounters.getWalletsReport()).thenReturn(report);
+
+        WalletsReport walletsReport = walletService.getWalletsReport();
 
+        assertEquals(report, walletsReport);
+        verifyNoInteractions(walletRepository);
     }
 }
@@ -0,0 +1,84 @@
+package app.web;
+
+import app.TestBuilder;
+import app.user.model.User;
+import app.user.model.UserPrinciple;
+import app.user.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrentUserArgumentResolverTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private CurrentUserArgumentResolver currentUserArgumentResolver;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+
+        user = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principle, null, principle.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void givenUnchangedUser_whenResolveArgument_thenCachedSnapshotIsReturned() {
+
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(userService.hasChangedSince(user)).thenReturn(false);
+
+        User resolved = currentUserArgumentResolver.resolveArgument(null, null, null, null);
+
+        assertSame(user, resolved);
+        verify(userService, times(1)).getUserById(user.getId());
+        verify(userService, never()).evictUser(any());
+    }
+
+    @Test
+    void givenUserChangedSinceCached_whenResolveArgument_thenSnapshotIsEvictedAndReloaded() {
+
+        User reloaded = TestBuilder.aRandomUser();
+        reloaded.setId(user.getId());
+        reloaded.setUpdatedOn(LocalDateTime.now());
+        when(userService.getUserById(user.getId())).thenReturn(user, reloaded);
+        when(userService.hasChangedSince(user)).thenReturn(true);
+
+        User resolved = currentUserArgumentResolver.resolveArgument(null, null, null, null);
+
+        assertSame(reloaded, resolved);
+        verify(userService, times(1)).evictUser(user.getId());
+        verify(userService, times(2)).getUserById(user.getId());
+    }
+
+    @Test
+    void givenNoAuthenticatedUser_whenResolveArgument_thenExceptionIsThrown() {
+
+        SecurityContextHolder.clearContext();
+
+        assertThrows(IllegalStateException.class, () -> currentUserArgumentResolver.resolveArgument(null, null, null, null));
+        verifyNoInteractions(userService);
+    }
+}
@@ -1,25 +1,40 @@
 package app.web;
 
 import app.TestBuilder;
-import app.credit.service.CreditService;
+import app.dashboard.service.HomeDashboardService;
+import app.report.model.RollupGranularity;
+import app.report.service.TransactionRollupService;
+import app.report.service.TransactionSketchService;
+import app.transaction.model.TransactionType;
+import app.transaction.model.TransactionTypeStatus;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
 import app.user.model.UserPrinciple;
 import app.user.service.UserService;
 import app.wallet.service.WalletService;
+import app.web.dto.HomeDashboard;
+import app.web.dto.TransactionSketchReport;
+import app.web.dto.TransactionVolumeBucket;
+import app.web.dto.TransactionVolumeReport;
 import app.web.dto.TransactionsReport;
 import app.web.dto.UsersReport;
 import app.web.dto.WalletsReport;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -27,16 +42,21 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(IndexController.class)
+@Import(ParallelCalls.class)
 public class IndexControllerApiTest {
 
     @MockitoBean
     private UserService userService;
     @MockitoBean
-    private CreditService creditService;
+    private HomeDashboardService homeDashboardService;
     @MockitoBean
     private WalletService walletService;
     @MockitoBean
     private TransactionService transactionService;
+    @MockitoBean
+    private TransactionRollupService transactionRollupService;
+    @MockitoBean
+    private TransactionSketchService transactionSketchService;
 
     @Autowired
     private MockMvc mockMvc;
@@ -64,11 +84,11 @@ public class IndexControllerApiTest {
     @Test
     void getRequestToHomeEndpointWith_shouldReturnHomeView() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
-        when(creditService.getCreditByOwnerId(userId)).thenReturn(TestBuilder.aRandomCredit());
+        when(homeDashboardService.getHomeDashboard(userId)).thenReturn(TestBuilder.aRandomHomeDashboard(currentUser));
 
         MockHttpServletRequestBuilder request = get("/home")
                 .with(user(principle));
@@ -76,19 +96,41 @@ public class IndexControllerApiTest {
         mockMvc.perform(request)
                 .andExpect(status().is(200))
                 .andExpect(view().name("home"))
-                .andExpect(model().attribute("user", instanceOf(User.class)))
-                .andExpect(model().attributeExists("credit"));
-        verify(userService, times(1)).getUserById(userId);
-        verify(creditService, times(1)).getCreditByOwnerId(userId);
+                .andExpect(model().attribute("dashboard", instanceOf(HomeDashboard.class)))
+                .andExpect(model().attributeDoesNotExist("user"))
+                .andExpect(model().attribute("navbarRole", currentUser.getRole()));
+        verify(homeDashboardService, times(1)).getHomeDashboard(userId);
+        verify(userService, never()).getUserWithWalletsById(any());
+    }
+
+    @Test
+    void getRequestToHomeDashboardEndpoint_shouldReturnDashboardJson() throws Exception {
+
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
+
+        when(homeDashboardService.getHomeDashboard(userId)).thenReturn(TestBuilder.aRandomHomeDashboard(currentUser));
+
+        MockHttpServletRequestBuilder request = get("/home/dashboard")
+                .with(user(principle));
+
+        mockMvc.perform(request)
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.id").value(userId.toString()))
+                .andExpect(jsonPath("$.wallets[0].balance").value(20.00))
+                .andExpect(jsonPath("$.credit.status").value("PAYED"))
+                .andExpect(jsonPath("$.recentTransactions").isArray());
     }
 
     @Test
     void getRequestToReportEndpointWithAuthorizedRequest_shouldReturnReportsView() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomAdmin());
-        UUID userId = principle.getUser().getId();
+        User currentUser = TestBuilder.aRandomAdmin();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
+        when(userService.getUserById(userId)).thenReturn(currentUser);
         when(userService.getUsersReport()).thenReturn(TestBuilder.aRandomUserReport());
         when(walletService.getWalletsReport()).thenReturn(TestBuilder.aRandomWalletsReport());
         when(transactionService.getTransactionsReport()).thenReturn(TestBuilder.aRandomTransactionsReport());
@@ -109,11 +151,36 @@ public class IndexControllerApiTest {
         verify(transactionService, times(1)).getTransactionsReport();
     }
 
+    @Test
+    void getRequestToReportEndpointWhenAmountPercentilesFail_shouldRenderTheOtherReports() throws Exception {
+
+        User currentUser = TestBuilder.aRandomAdmin();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
+
+        when(userService.getUserById(userId)).thenReturn(currentUser);
+        when(userService.getUsersReport()).thenReturn(TestBuilder.aRandomUserReport());
+        when(walletService.getWalletsReport()).thenReturn(TestBuilder.aRandomWalletsReport());
+        when(transactionService.getTransactionsReport()).thenReturn(TestBuilder.aRandomTransactionsReport());
+        when(transactionSketchService.getAmountPercentiles(any(), any())).thenThrow(new RuntimeException("Database is unavailable."));
+
+        MockHttpServletRequestBuilder request = get("/reports")
+                .with(user(principle));
+
+        mockMvc.perform(request)
+                .andExpect(status().is(200))
+                .andExpect(view().name("reports"))
+                .andExpect(model().attribute("usersReport", instanceOf(UsersReport.class)))
+                .andExpect(model().attribute("walletsReport", instanceOf(WalletsReport.class)))
+                .andExpect(model().attribute("transactionsReport", instanceOf(TransactionsReport.class)))
+                .andExpect(model().attribute("amountsReport", nullValue()));
+    }
+
     @Test
     void getRequestToReportEndpointWithUnauthorizedRequest_shouldRedirectToNotFoundView() throws Exception {
 
         UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        UUID userId = principle.getId();
 
         MockHttpServletRequestBuilder request = get("/reports")
                 .with(user(principle));
@@ -126,4 +193,86 @@ public class IndexControllerApiTest {
         verify(walletService, never()).getWalletsReport();
         verify(transactionService, never()).getTransactionsReport();
     }
+
+    @Test
+    void getRequestToTransactionVolumeEndpointWithAuthorizedRequest_shouldReturnRollupsAsJson() throws Exception {
+
+        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomAdmin());
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 1, 2, 0, 0);
+        TransactionVolumeBucket bucket = TransactionVolumeBucket.builder()
+                .bucketStart(from.plusHours(3))
+                .type(TransactionType.DEPOSIT)
+                .typeStatus(TransactionTypeStatus.MAIN)
+                .transactionCount(4)
+                .succeededAmount(new BigDecimal("25.50"))
+                .failedCount(1)
+                .build();
+
+        when(transactionRollupService.getTransactionVolume(from, to, RollupGranularity.HOUR)).thenReturn(TransactionVolumeReport.builder()
+                .granularity(RollupGranularity.HOUR)
+                .from(from)
+                .to(to)
+                .buckets(List.of(bucket))
+                .build());
+
+        MockHttpServletRequestBuilder request = get("/reports/transactions/volume")
+                .param("from", "2026-01-01T00:00:00")
+                .param("to", "2026-01-02T00:00:00")
+                .param("granularity", "HOUR")
+                .with(user(principle));
+
+        mockMvc.perform(request)
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.granularity").value("HOUR"))
+                .andExpect(jsonPath("$.buckets[0].transactionCount").value(4))
+                .andExpect(jsonPath("$.buckets[0].failedCount").value(1));
+        verify(transactionRollupService, times(1)).getTransactionVolume(from, to, RollupGranularity.HOUR);
+    }
+
+    @Test
+    void getRequestToTransactionVolumeEndpointWithUnauthorizedRequest_shouldNotReadRollups() throws Exception {
+
+        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
+
+        MockHttpServletRequestBuilder request = get("/reports/transactions/volume")
+                .param("from", "2026-01-01T00:00:00")
+                .param("to", "2026-01-02T00:00:00")
+                .with(user(principle));
+
+        mockMvc.perform(request);
+        verifyNoInteractions(transactionRollupService);
+    }
+
+    @Test
+    void getRequestToTransactionSketchesEndpointWithOwner_shouldReturnOwnerReportAsJson() throws Exception {
+
+        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomAdmin());
+        UUID ownerId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 31);
+
+        when(transactionSketchService.getOwnerReport(ownerId, from, to)).thenReturn(TransactionSketchReport.builder()
+                .ownerId(ownerId)
+                .from(from)
+                .to(to)
+                .transactionCount(12)
+                .p50Amount(new BigDecimal("20.00"))
+                .p95Amount(new BigDecimal("95.00"))
+                .p99Amount(new BigDecimal("99.00"))
+                .distinctCounterparties(3L)
+                .build());
+
+        MockHttpServletRequestBuilder request = get("/reports/transactions/sketches")
+                .param("from", "2026-01-01")
+                .param("to", "2026-01-31")
+                .param("ownerId", ownerId.toString())
+                .with(user(principle));
+
+        mockMvc.perform(request)
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.distinctCounterparties").value(3))
+                .andExpect(jsonPath("$.p95Amount").value(95.00));
+        verify(transactionSketchService, never()).getAmountPercentiles(any(), any());
+    }
 }
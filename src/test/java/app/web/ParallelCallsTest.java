@@ -0,0 +1,96 @@
+package app.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelCallsTest {
+
+    private final ParallelCalls parallelCalls = new ParallelCalls(Duration.ofMillis(200));
+
+    @AfterEach
+    void tearDown() {
+        parallelCalls.shutdown();
+    }
+
+    @Test
+    void givenSuccessfulCall_whenSubmit_thenItsResultIsReturnedFromAVirtualThread() {
+
+        CompletableFuture<Boolean> virtual = parallelCalls.submit("virtual", () -> Thread.currentThread().isVirtual(), false);
+
+        assertTrue(virtual.join());
+    }
+
+    @Test
+    void givenFailingCall_whenSubmit_thenFallbackIsReturned() {
+
+        CompletableFuture<String> result = parallelCalls.submit("failing", () -> {
+            throw new IllegalStateException("failed");
+        }, "fallback");
+
+        assertEquals("fallback", result.join());
+    }
+
+    @Test
+    void givenCallDeniedAccess_whenSubmit_thenTheAccessDeniedExceptionIsRethrownInsteadOfFallingBack() {
+
+        CompletableFuture<String> result = parallelCalls.submit("denied", () -> {
+            throw new AccessDeniedException("Access Denied");
+        }, "fallback");
+
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(AccessDeniedException.class, exception.getCause());
+    }
+
+    @Test
+    void givenCallSlowerThanTimeout_whenSubmit_thenFallbackIsReturnedAfterTheTimeout() {
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        CompletableFuture<String> result = parallelCalls.submit("slow", () -> {
+            await(release);
+            return "late";
+        }, "fallback");
+
+        assertEquals("fallback", result.join());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        release.countDown();
+    }
+
+    @Test
+    void givenIndependentCalls_whenSubmittedTogether_thenTheyRunConcurrently() {
+
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        CompletableFuture<Boolean> first = parallelCalls.submit("first", () -> {
+            bothStarted.countDown();
+            return await(bothStarted);
+        }, false, Duration.ofSeconds(5));
+        CompletableFuture<Boolean> second = parallelCalls.submit("second", () -> {
+            bothStarted.countDown();
+            return await(bothStarted);
+        }, false, Duration.ofSeconds(5));
+
+        assertTrue(first.join());
+        assertTrue(second.join());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -2,23 +2,36 @@ package app.web;
 
 import app.TestBuilder;
 import app.transaction.model.Transaction;
+import app.transaction.model.TransactionExportFormat;
+import app.transaction.service.TransactionExportService;
 import app.transaction.service.TransactionService;
 import app.user.model.User;
 import app.user.model.UserPrinciple;
 import app.user.service.UserService;
+import app.web.dto.TransactionPage;
+import app.web.dto.TransactionResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -31,18 +44,24 @@ public class TransactionControllerApiTest {
     @MockitoBean
     private TransactionService transactionService;
 
+    @MockitoBean
+    private TransactionExportService transactionExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Test
     void getTransactionRequest_shouldReturnTransactionView() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
-        List<Transaction> userTransactions = List.of(TestBuilder.aRandomTransaction(), TestBuilder.aRandomTransaction());
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
+        TransactionPage transactionPage = TransactionPage.builder()
+                .transactions(List.of(TransactionResponse.of(TestBuilder.aRandomTransaction()), TransactionResponse.of(TestBuilder.aRandomTransaction())))
+                .build();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
-        when(transactionService.getAllUserTransactions(userId)).thenReturn(userTransactions);
+        when(userService.getUserById(userId)).thenReturn(currentUser);
+        when(transactionService.getUserTransactionsPage(userId, null, 20)).thenReturn(transactionPage);
 
         MockHttpServletRequestBuilder request = get("/transactions")
                 .with(user(principle));
@@ -53,18 +72,44 @@ public class TransactionControllerApiTest {
                 .andExpect(model().attribute("user", instanceOf(User.class)))
                 .andExpect(model().attribute("transactions", instanceOf(List.class)));
         verify(userService, times(1)).getUserById(userId);
-        verify(transactionService, times(1)).getAllUserTransactions(userId);
+        verify(transactionService, times(1)).getUserTransactionsPage(userId, null, 20);
     }
 
     @Test
-    void getTransactionResultRequest_shouldReturnTransactionResultView() throws Exception {
+    void getTransactionHistoryRequest_shouldReturnPageAsJson() throws Exception {
 
         UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        UUID userId = principle.getId();
+        Transaction transaction = TestBuilder.aRandomTransaction();
+        TransactionPage transactionPage = TransactionPage.builder()
+                .transactions(List.of(TransactionResponse.of(transaction)))
+                .nextCursor("cursor")
+                .build();
+
+        when(transactionService.getUserTransactionsPage(userId, "previous", 1)).thenReturn(transactionPage);
+
+        MockHttpServletRequestBuilder request = get("/transactions/history")
+                .param("cursor", "previous")
+                .param("size", "1")
+                .with(user(principle));
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].id").value(transaction.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").value("cursor"));
+        verify(transactionService, times(1)).getUserTransactionsPage(userId, "previous", 1);
+    }
+
+    @Test
+    void getTransactionResultRequest_shouldReturnTransactionResultView() throws Exception {
+
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
         Transaction transaction = TestBuilder.aRandomTransaction();
         UUID transactionId = transaction.getId();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
+        when(userService.getUserById(userId)).thenReturn(currentUser);
         when(transactionService.getTransaction(transactionId, userId)).thenReturn(transaction);
 
         MockHttpServletRequestBuilder request = get("/transactions/{id}", transactionId)
@@ -78,4 +123,47 @@ public class TransactionControllerApiTest {
         verify(userService, times(1)).getUserById(userId);
         verify(transactionService, times(1)).getTransaction(transactionId, userId);
     }
+
+    @Test
+    void getExportRequestAcceptingGzip_shouldStreamGzippedCsvAttachment() throws Exception {
+
+        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
+        UUID userId = principle.getId();
+
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("id\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(transactionExportService).export(eq(userId), eq(TransactionExportFormat.CSV), any());
+
+        MockHttpServletRequestBuilder request = get("/transactions/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                .with(user(principle));
+
+        MvcResult asyncResult = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().is(200))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("transactions.csv")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("id\n", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void getExportRequestForOtherUserWithoutAdminRole_shouldNotStreamTransactions() throws Exception {
+
+        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
+
+        MockHttpServletRequestBuilder request = get("/transactions/export/{ownerId}", UUID.randomUUID())
+                .with(user(principle));
+
+        mockMvc.perform(request)
+                .andExpect(request().asyncNotStarted());
+        verifyNoInteractions(transactionExportService);
+    }
 }
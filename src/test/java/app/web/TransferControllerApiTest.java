@@ -1,23 +1,39 @@
 package app.web;
 
 import app.TestBuilder;
+import app.credit.service.CreditService;
+import app.idempotency.model.IdempotencyKey;
+import app.idempotency.model.IdempotencyRecord;
+import app.idempotency.repository.IdempotencyRecordRepository;
+import app.idempotency.service.IdempotencyCache;
+import app.idempotency.service.IdempotencyService;
 import app.transaction.model.Transaction;
+import app.transaction.model.TransactionStatus;
 import app.user.model.User;
 import app.user.model.UserPrinciple;
 import app.user.service.UserService;
-import app.wallet.service.WalletService;
+import app.wallet.service.WalletEngine;
+import app.web.dto.BulkTransferItemResult;
+import app.web.dto.BulkTransferRequest;
+import app.web.dto.BulkTransferResponse;
 import app.web.dto.TransferRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -25,13 +41,20 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TransferController.class)
+@Import({IdempotencyService.class, IdempotencyCache.class})
 public class TransferControllerApiTest {
 
     @MockitoBean
     private UserService userService;
 
     @MockitoBean
-    private WalletService walletService;
+    private CreditService creditService;
+
+    @MockitoBean
+    private WalletEngine walletEngine;
+
+    @MockitoBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
 
     @Autowired
     private MockMvc mockMvc;
@@ -39,10 +62,11 @@ public class TransferControllerApiTest {
     @Test
     void getTransferRequest_shouldReturnTransferView() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
+        when(userService.getUserWithWalletsById(userId)).thenReturn(currentUser);
 
         MockHttpServletRequestBuilder request = get("/transfers")
                 .with(user(principle));
@@ -52,21 +76,22 @@ public class TransferControllerApiTest {
                 .andExpect(view().name("transfer"))
                 .andExpect(model().attribute("user", instanceOf(User.class)))
                 .andExpect(model().attribute("transferRequest", instanceOf(TransferRequest.class)));
-        verify(userService, times(1)).getUserById(userId);
+        verify(userService, times(1)).getUserWithWalletsById(userId);
 
     }
 
     @Test
     void postTransferRequest_shouldCreateNewTransferAndRedirectToTransactionsView() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
         Transaction transaction = TestBuilder.aRandomTransaction();
         UUID transactionId = transaction.getId();
         TransferRequest transferRequest = TestBuilder.aRandomTransferRequest();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
-        when(walletService.makeTransfer(principle.getUser(), transferRequest)).thenReturn(transaction);
+        when(userService.getUserById(userId)).thenReturn(currentUser);
+        when(walletEngine.makeTransfer(currentUser, transferRequest, null)).thenReturn(transaction);
 
         MockHttpServletRequestBuilder request = post("/transfers")
                 .formField("sender", String.valueOf(transferRequest.getSender()))
@@ -79,7 +104,144 @@ public class TransferControllerApiTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/transactions/" + transactionId));
         verify(userService, times(1)).getUserById(userId);
-        verify(walletService, times(1)).makeTransfer(principle.getUser(), transferRequest);
+        verify(walletEngine, times(1)).makeTransfer(currentUser, transferRequest, null);
+
+    }
 
+    @Test
+    void postTransferRequestWithSubCentAmount_shouldRenderTransferViewWithErrorsWithoutTransferring() throws Exception {
+
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
+        TransferRequest transferRequest = TestBuilder.aRandomTransferRequest();
+
+        when(userService.getUserById(userId)).thenReturn(currentUser);
+        when(userService.getUserWithWalletsById(userId)).thenReturn(currentUser);
+
+        MockHttpServletRequestBuilder request = post("/transfers")
+                .formField("sender", String.valueOf(transferRequest.getSender()))
+                .formField("receiver", String.valueOf(transferRequest.getReceiver()))
+                .formField("amount", "1.005")
+                .with(user(principle))
+                .with(csrf());
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(view().name("transfer"))
+                .andExpect(model().attributeHasFieldErrors("transferRequest", "amount"))
+                .andExpect(model().attribute("user", instanceOf(User.class)));
+        verify(walletEngine, never()).makeTransfer(any(), any(), any());
+    }
+
+    @Test
+    void postTransferRequestWithAlreadyUsedIdempotencyKey_shouldRedirectToOriginalTransactionWithoutTransferring() throws Exception {
+
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
+        UUID originalTransactionId = UUID.randomUUID();
+        TransferRequest transferRequest = TestBuilder.aRandomTransferRequest();
+        IdempotencyRecord record = IdempotencyKey.of(userId, "key", "transfer", transferRequest.getSender(), transferRequest.getReceiver(), transferRequest.getAmount())
+                .toRecord(originalTransactionId);
+
+        when(userService.getUserById(userId)).thenReturn(currentUser);
+        when(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(userId, "key")).thenReturn(Optional.of(record));
+
+        MockHttpServletRequestBuilder request = post("/transfers")
+                .formField("sender", String.valueOf(transferRequest.getSender()))
+                .formField("receiver", String.valueOf(transferRequest.getReceiver()))
+                .formField("amount", String.valueOf(transferRequest.getAmount()))
+                .formField("idempotencyKey", "key")
+                .with(user(principle))
+                .with(csrf());
+
+        mockMvc.perform(request)
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/transactions/" + originalTransactionId));
+        verify(walletEngine, never()).makeTransfer(any(), any(), any());
+    }
+
+    @Test
+    void postTransferRequestWithIdempotencyKeyUsedForAnotherRequest_shouldBeRejectedWithoutTransferring() throws Exception {
+
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
+        TransferRequest transferRequest = TestBuilder.aRandomTransferRequest();
+        IdempotencyRecord record = IdempotencyKey.of(userId, "key", "transfer", transferRequest.getSender(), transferRequest.getReceiver(), transferRequest.getAmount())
+                .toRecord(UUID.randomUUID());
+
+        when(userService.getUserById(userId)).thenReturn(currentUser);
+        when(idempotencyRecordRepository.findByOwnerIdAndIdempotencyKey(userId, "key")).thenReturn(Optional.of(record));
+
+        MockHttpServletRequestBuilder request = post("/transfers")
+                .formField("sender", String.valueOf(transferRequest.getSender()))
+                .formField("receiver", String.valueOf(transferRequest.getReceiver()))
+                .formField("amount", String.valueOf(transferRequest.getAmount().add(BigDecimal.ONE)))
+                .formField("idempotencyKey", "key")
+                .with(user(principle))
+                .with(csrf());
+
+        mockMvc.perform(request)
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(view().name("request-rejected"));
+        verify(walletEngine, never()).makeTransfer(any(), any(), any());
+    }
+
+    @Test
+    void postBulkTransferRequest_shouldReturnPerItemResultsAsJson() throws Exception {
+
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
+        UUID senderWalletId = UUID.randomUUID();
+        BulkTransferResponse response = BulkTransferResponse.builder()
+                .sender(senderWalletId)
+                .balanceLeft(new BigDecimal(5))
+                .succeeded(1)
+                .failed(0)
+                .results(List.of(BulkTransferItemResult.builder()
+                        .receiver("receiver")
+                        .amount(new BigDecimal(5))
+                        .status(TransactionStatus.SUCCEEDED)
+                        .transactionId(UUID.randomUUID())
+                        .build()))
+                .build();
+
+        when(userService.getUserById(userId)).thenReturn(currentUser);
+        when(walletEngine.makeBulkTransfer(eq(currentUser), any(BulkTransferRequest.class))).thenReturn(response);
+
+        MockHttpServletRequestBuilder request = post("/transfers/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"sender": "%s", "transfers": [{"receiver": "receiver", "amount": 5}]}
+                        """.formatted(senderWalletId))
+                .with(user(principle))
+                .with(csrf());
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("SUCCEEDED"));
+        verify(walletEngine, times(1)).makeBulkTransfer(eq(currentUser), any(BulkTransferRequest.class));
+    }
+
+    @Test
+    void postEmptyBulkTransferRequest_shouldReturnBadRequest() throws Exception {
+
+        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
+
+        MockHttpServletRequestBuilder request = post("/transfers/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"sender": "%s", "transfers": []}
+                        """.formatted(UUID.randomUUID()))
+                .with(user(principle))
+                .with(csrf());
+
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest());
+        verify(walletEngine, never()).makeBulkTransfer(any(), any());
     }
 }
@@ -3,6 +3,7 @@ package app.web;
 import app.TestBuilder;
 import app.user.model.User;
 import app.user.model.UserPrinciple;
+import app.user.repository.UserSummary;
 import app.user.service.UserService;
 import app.web.dto.EditRequest;
 import org.junit.jupiter.api.Test;
@@ -37,7 +38,7 @@ public class UserControllerApiTest {
     void putUnauthorizedRequestToChangeUserStatus_shouldRedirectToNotFoundView() throws Exception {
 
         UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        UUID userId = principle.getId();
 
         MockHttpServletRequestBuilder request = put("/users/{id}/status", userId)
                 .with(user(principle))
@@ -54,7 +55,7 @@ public class UserControllerApiTest {
     void putAuthorizedRequestToChangeUserStatus_shouldRedirectToUsersView() throws Exception {
 
         UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomAdmin());
-        UUID userId = principle.getUser().getId();
+        UUID userId = principle.getId();
 
         MockHttpServletRequestBuilder request = put("/users/{id}/status", userId)
                 .with(user(principle))
@@ -69,13 +70,14 @@ public class UserControllerApiTest {
     @Test
     void getUsersRequestEndpointWithAuthorizedRequest_shouldReturnUsersView() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomAdmin());
-        UUID userId = principle.getUser().getId();
+        User currentUser = TestBuilder.aRandomAdmin();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
 
-        List<User> allUsers = List.of(TestBuilder.aRandomUser(), TestBuilder.aRandomUser(), TestBuilder.aRandomAdmin());
+        List<UserSummary> allUsers = List.of(TestBuilder.aRandomUserSummary(), TestBuilder.aRandomUserSummary(), TestBuilder.aRandomUserSummary());
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
-        when(userService.getAllUsers()).thenReturn(allUsers);
+        when(userService.getUserById(userId)).thenReturn(currentUser);
+        when(userService.getUserSummaries()).thenReturn(allUsers);
 
         MockHttpServletRequestBuilder request = get("/users")
                 .with(user(principle));
@@ -86,14 +88,14 @@ public class UserControllerApiTest {
                 .andExpect(model().attribute("user", instanceOf(User.class)))
                 .andExpect(model().attribute("users", instanceOf(List.class)));
         verify(userService, times(1)).getUserById(userId);
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).getUserSummaries();
     }
 
     @Test
     void getUsersRequestEndpointWithUnauthorizedRequest_shouldRedirectToNotFoundView() throws Exception {
 
         UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        UUID userId = principle.getId();
 
         MockHttpServletRequestBuilder request = get("/users")
                 .with(user(principle));
@@ -102,16 +104,17 @@ public class UserControllerApiTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/not-found"));
         verify(userService, never()).getUserById(userId);
-        verify(userService, never()).getAllUsers();
+        verify(userService, never()).getUserSummaries();
     }
 
     @Test
     void getProfileRequest_shouldReturnProfileView() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
+        when(userService.getUserById(userId)).thenReturn(currentUser);
 
         MockHttpServletRequestBuilder request = get("/users/{id}/profile", userId)
                 .with(user(principle));
@@ -127,12 +130,13 @@ public class UserControllerApiTest {
     @Test
     void putEditProfileRequest_shouldReturnProfileViewWithTheNewEdits() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
 
         EditRequest editRequest = TestBuilder.aRandomEditRequest();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
+        when(userService.getUserById(userId)).thenReturn(currentUser);
         when(userService.editUser(userId, editRequest)).thenReturn(any());
 
         MockHttpServletRequestBuilder request = put("/users/{id}/profile", userId)
@@ -157,14 +161,15 @@ public class UserControllerApiTest {
     @Test
     void putEditProfileRequestWithInvalidInput_shouldReturnProfileViewWithErrorMessage() throws Exception {
 
-        UserPrinciple principle = new UserPrinciple(TestBuilder.aRandomUser());
-        UUID userId = principle.getUser().getId();
+        User currentUser = TestBuilder.aRandomUser();
+        UserPrinciple principle = new UserPrinciple(currentUser);
+        UUID userId = principle.getId();
 
         EditRequest editRequest = EditRequest.builder()
                 .profilePic("newPic")
                 .build();
 
-        when(userService.getUserById(userId)).thenReturn(principle.getUser());
+        when(userService.getUserById(userId)).thenReturn(currentUser);
 
         MockHttpServletRequestBuilder request = put("/users/{id}/profile", userId)
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)